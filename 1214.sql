@@ -243,6 +243,16 @@ COMMIT;
 -- open_course에 version 컬럼 있어야 함
 DESC open_course;
 
-ALTER TABLE open_course ADD version NUMBER DEFAULT 1;
-UPDATE open_course SET version = 1;
+-- (project.sql로 새로 만든 스키마에는 이미 있음 → 없을 때만 추가)
+DECLARE
+    v_count NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO v_count FROM user_tab_columns
+    WHERE table_name = 'OPEN_COURSE' AND column_name = 'VERSION';
+    IF v_count = 0 THEN
+        EXECUTE IMMEDIATE 'ALTER TABLE open_course ADD version NUMBER DEFAULT 1';
+    END IF;
+END;
+/
+UPDATE open_course SET version = 1 WHERE version IS NULL;
 COMMIT;
\ No newline at end of file
@@ -130,6 +130,7 @@ CREATE TABLE open_course (
     capacity        NUMBER(10)      NOT NULL,
     enrolled_count  NUMBER(10)      DEFAULT 0 NOT NULL,
     is_canceled     CHAR(1)         DEFAULT 'N' NOT NULL,
+    version         NUMBER          DEFAULT 1 NOT NULL,
     
     CONSTRAINT open_course_course_fk 
         FOREIGN KEY (course_code) 
@@ -148,6 +149,7 @@ CREATE TABLE open_course (
 COMMENT ON TABLE open_course IS '학기별 개설강좌';
 COMMENT ON COLUMN open_course.professor_id IS '담당교수 (미배정 가능)';
 COMMENT ON COLUMN open_course.enrolled_count IS '현재 신청 인원 (트리거로 자동 관리)';
+COMMENT ON COLUMN open_course.version IS '낙관적 동시성 제어용 버전 (자리 배정 시 +1)';
 
 -- ============================================
 -- 7. 강의시간 (LectureSchedule)
@@ -279,9 +281,56 @@ INSERT INTO system_parameter (param_key, param_value, description) VALUES
 ('retake_grade_threshold', '2.5', '재수강 허용 기준 (C+ 이하)');
 INSERT INTO system_parameter (param_key, param_value, description) VALUES
 ('min_graduation_gpa', '2.0', '최소 졸업 평점');
+INSERT INTO system_parameter (param_key, param_value, description) VALUES
+('excellence_gpa', '4.0', '우수자 기준 평점 (직전 학기)');
 
 COMMIT;
 
+-- ============================================
+-- 12. 학기별 평점 (TermGpa)
+-- ============================================
+-- 성적 확정 시 갱신되는 학기 평점 스냅샷 (수강신청 때 우수자 판정용, 매번 집계하지 않음)
+CREATE TABLE term_gpa (
+    student_id      VARCHAR2(20)    NOT NULL,
+    year            NUMBER(4)       NOT NULL,
+    term            VARCHAR2(10)    NOT NULL,
+    gpa             NUMBER(3,2)     NOT NULL,
+    credits         NUMBER(5,1)     NOT NULL,
+    computed_at     TIMESTAMP       DEFAULT SYSTIMESTAMP NOT NULL,
+
+    CONSTRAINT term_gpa_pk PRIMARY KEY (year, term, student_id),
+
+    CONSTRAINT term_gpa_student_fk
+        FOREIGN KEY (student_id)
+        REFERENCES student(student_id)
+);
+
+COMMENT ON TABLE term_gpa IS '학기별 평점 스냅샷 (확정된 성적 기준)';
+COMMENT ON COLUMN term_gpa.credits IS '평점 계산에 포함된 학점 합계';
+
+-- ============================================
+-- 13. 좌석 버킷 (SeatBucket)
+-- ============================================
+-- 인기 강좌의 남은 자리를 N개 행으로 나눠 둠 (open_course 행 한 개에 신청이 몰리지 않게)
+-- 버킷을 켜면 남은 자리를 전부 버킷으로 옮기고 enrolled_count = capacity 로 둠
+-- → enrolled_count = APPROVED 행 수 + 버킷 잔여석 합계 (버킷에서 자리를 받은 신청은 enrolled_count를 바꾸지 않음)
+CREATE TABLE open_course_seat_bucket (
+    open_course_id  NUMBER          NOT NULL,
+    bucket_no       NUMBER(3)       NOT NULL,
+    remaining       NUMBER(10)      DEFAULT 0 NOT NULL,
+
+    CONSTRAINT seat_bucket_pk PRIMARY KEY (open_course_id, bucket_no),
+
+    CONSTRAINT seat_bucket_course_fk
+        FOREIGN KEY (open_course_id)
+        REFERENCES open_course(open_course_id),
+
+    CONSTRAINT seat_bucket_remaining_ck CHECK (remaining >= 0)
+);
+
+COMMENT ON TABLE open_course_seat_bucket IS '인기 강좌 잔여석 분할 카운터';
+COMMENT ON COLUMN open_course_seat_bucket.remaining IS '이 버킷에 남은 자리';
+
 -- ============================================
 -- 인덱스 생성 
 -- ============================================
@@ -298,10 +347,20 @@ CREATE INDEX idx_enrollment_course ON enrollment(open_course_id);
 CREATE INDEX idx_open_course_year_term ON open_course(year, term);
 CREATE INDEX idx_lecture_schedule_course ON lecture_schedule(open_course_id, day_of_week);
 
+-- 대기자 명단 정렬/승격용 (강좌별 WAITING 행을 신청 순서대로)
+CREATE INDEX idx_enrollment_waitlist ON enrollment(open_course_id, status, requested_at, enrollment_id);
+
 -- ============================================
 -- 트리거: 정원 자동 관리
 -- ============================================
 
+-- 세션 단위 트리거 제어 플래그
+-- 일괄 처리(폐강 등)에서 enrolled_count를 직접 한 번에 맞출 때 행 트리거를 건너뜀
+CREATE OR REPLACE PACKAGE pkg_enrollment_ctx AS
+    g_suppress_count BOOLEAN := FALSE;
+END pkg_enrollment_ctx;
+/
+
 -- 정원 증감 트리거
 CREATE OR REPLACE TRIGGER trg_enrollment_count
 AFTER INSERT OR UPDATE OR DELETE ON enrollment
@@ -309,6 +368,11 @@ FOR EACH ROW
 DECLARE
     v_open_course_id NUMBER;
 BEGIN
+    -- 일괄 처리 중이면 호출한 쪽에서 정원을 직접 갱신
+    IF pkg_enrollment_ctx.g_suppress_count THEN
+        RETURN;
+    END IF;
+
     -- INSERT 시 APPROVED 상태면 정원 +1
     IF INSERTING THEN
         IF (:NEW.status = 'APPROVED') THEN
@@ -342,6 +406,158 @@ BEGIN
 END;
 /
 
+-- 정원 증감 트리거 (문장 단위, 기본 비활성)
+-- 행마다 open_course를 갱신하지 않고 강좌별 증감을 모아서 문장이 끝날 때 강좌당 1번만 UPDATE
+-- 묶음 INSERT/UPDATE에서 같은 강좌 행 갱신과 redo를 줄임 (강좌 ID 순으로 갱신해서 락 순서 고정)
+-- 전환: EnrollmentCounterDAO.switchMode(CounterMode.STATEMENT_TRIGGER)
+--       (trg_enrollment_count를 끄고 이 트리거를 켬, 둘 다 켜면 두 번 증가함)
+CREATE OR REPLACE TRIGGER trg_enrollment_count_stmt
+FOR INSERT OR UPDATE OR DELETE ON enrollment
+DISABLE
+COMPOUND TRIGGER
+    TYPE t_delta IS TABLE OF PLS_INTEGER INDEX BY PLS_INTEGER;
+    g_delta t_delta;
+
+    PROCEDURE add_delta(p_open_course_id NUMBER, p_delta PLS_INTEGER) IS
+    BEGIN
+        IF g_delta.EXISTS(p_open_course_id) THEN
+            g_delta(p_open_course_id) := g_delta(p_open_course_id) + p_delta;
+        ELSE
+            g_delta(p_open_course_id) := p_delta;
+        END IF;
+    END add_delta;
+
+    AFTER EACH ROW IS
+    BEGIN
+        IF NOT pkg_enrollment_ctx.g_suppress_count THEN
+            -- 새 값이 승인이면 +1, 이전 값이 승인이었으면 -1 (강좌가 바뀐 UPDATE도 처리)
+            IF (INSERTING OR UPDATING) AND :NEW.status = 'APPROVED' THEN
+                add_delta(:NEW.open_course_id, 1);
+            END IF;
+            IF (UPDATING OR DELETING) AND :OLD.status = 'APPROVED' THEN
+                add_delta(:OLD.open_course_id, -1);
+            END IF;
+        END IF;
+    END AFTER EACH ROW;
+
+    AFTER STATEMENT IS
+        v_open_course_id PLS_INTEGER;
+    BEGIN
+        v_open_course_id := g_delta.FIRST;
+        WHILE v_open_course_id IS NOT NULL LOOP
+            IF g_delta(v_open_course_id) != 0 THEN
+                UPDATE open_course
+                SET enrolled_count = GREATEST(enrolled_count + g_delta(v_open_course_id), 0)
+                WHERE open_course_id = v_open_course_id;
+            END IF;
+            v_open_course_id := g_delta.NEXT(v_open_course_id);
+        END LOOP;
+        g_delta.DELETE;
+    END AFTER STATEMENT;
+END trg_enrollment_count_stmt;
+/
+
+-- 신청 인원 정합성 점검 (enrolled_count와 APPROVED 행 수 + 버킷 잔여석이 다른 강좌)
+-- SELECT oc.open_course_id, oc.enrolled_count, NVL(a.approved_count, 0) + NVL(s.bucket_seats, 0) AS expected_count
+-- FROM open_course oc
+-- LEFT JOIN (SELECT open_course_id, COUNT(*) AS approved_count FROM enrollment
+--            WHERE status = 'APPROVED' GROUP BY open_course_id) a
+--   ON a.open_course_id = oc.open_course_id
+-- LEFT JOIN (SELECT open_course_id, SUM(remaining) AS bucket_seats FROM open_course_seat_bucket
+--            GROUP BY open_course_id) s
+--   ON s.open_course_id = oc.open_course_id
+-- WHERE oc.enrolled_count != NVL(a.approved_count, 0) + NVL(s.bucket_seats, 0);
+
+-- ============================================
+-- 프로시저: 수강신청 원자 처리 (1회 왕복)
+-- ============================================
+-- EnrollmentDAO.applyCourseAtomic()에서 호출
+-- 학생 락 → 강좌 락 → 강좌 학기 학점 합계 → INSERT를 서버 안에서 한 번에 처리
+-- 결과 코드: 0=성공, 1=학생없음, 2=강좌없음, 3=폐강, 4=학점초과, 5=정원초과, 6=중복신청,
+--            -2=p_year/p_term이 강좌 학기와 다름 (호출한 쪽에서 학기를 다시 읽고 재호출)
+-- 커밋/롤백은 호출한 쪽에서 처리 (auto-commit 커넥션이면 같은 왕복에서 커밋)
+CREATE OR REPLACE PROCEDURE sp_apply_course (
+    p_student_id     IN  VARCHAR2,
+    p_open_course_id IN  NUMBER,
+    p_max_credits    IN  NUMBER,
+    p_result         OUT NUMBER,
+    p_maintain_count IN  VARCHAR2 DEFAULT 'N', -- 'Y'면 트리거 대신 직접 enrolled_count 증가 (APPLICATION 방식)
+    p_year           IN  NUMBER DEFAULT NULL,  -- p_max_credits를 계산한 학기 (다르면 -2, NULL이면 확인 안 함)
+    p_term           IN  VARCHAR2 DEFAULT NULL
+) AS
+    v_student_id  student.student_id%TYPE;
+    v_credits     NUMBER;
+    v_capacity    open_course.capacity%TYPE;
+    v_enrolled    open_course.enrolled_count%TYPE;
+    v_canceled    open_course.is_canceled%TYPE;
+    v_year        open_course.year%TYPE;
+    v_term        open_course.term%TYPE;
+    v_credit      course.credit%TYPE;
+BEGIN
+    -- 1. 학생 락
+    BEGIN
+        SELECT student_id INTO v_student_id
+        FROM student
+        WHERE student_id = p_student_id
+        FOR UPDATE;
+    EXCEPTION
+        WHEN NO_DATA_FOUND THEN
+            p_result := 1;
+            RETURN;
+    END;
+
+    -- 2. 강좌 락 (학기를 먼저 알아야 학기 학점을 셀 수 있음)
+    BEGIN
+        SELECT oc.capacity, oc.enrolled_count, oc.is_canceled, oc.year, oc.term, c.credit
+        INTO v_capacity, v_enrolled, v_canceled, v_year, v_term, v_credit
+        FROM open_course oc
+        JOIN course c ON oc.course_code = c.course_code
+        WHERE oc.open_course_id = p_open_course_id
+        FOR UPDATE OF oc.enrolled_count;
+    EXCEPTION
+        WHEN NO_DATA_FOUND THEN
+            p_result := 2;
+            RETURN;
+    END;
+
+    -- 호출한 쪽이 다른 학기 기준으로 최대 학점을 계산했으면 다시 계산하도록 돌려보냄
+    IF p_year IS NOT NULL AND (v_year != p_year OR v_term != p_term) THEN
+        p_result := -2;
+        RETURN;
+    END IF;
+
+    -- 3. 강좌 학기의 현재 신청 학점 (다른 신청 경로와 같은 기준)
+    SELECT NVL(SUM(c.credit), 0) INTO v_credits
+    FROM enrollment e
+    JOIN open_course oc ON e.open_course_id = oc.open_course_id
+    JOIN course c ON oc.course_code = c.course_code
+    WHERE e.student_id = p_student_id
+      AND oc.year = v_year AND oc.term = v_term
+      AND e.status IN ('APPLIED', 'APPROVED');
+
+    IF v_canceled = 'Y' THEN
+        p_result := 3;
+    ELSIF v_credits + v_credit > p_max_credits THEN
+        p_result := 4;
+    ELSIF v_enrolled >= v_capacity THEN
+        p_result := 5;
+    ELSE
+        -- 4. 신청 (트리거 방식이면 트리거가 enrolled_count 증가)
+        INSERT INTO enrollment (enrollment_id, student_id, open_course_id, requested_at, status)
+        VALUES (seq_enrollment.NEXTVAL, p_student_id, p_open_course_id, SYSTIMESTAMP, 'APPROVED');
+        IF p_maintain_count = 'Y' THEN
+            UPDATE open_course
+            SET enrolled_count = enrolled_count + 1
+            WHERE open_course_id = p_open_course_id;
+        END IF;
+        p_result := 0;
+    END IF;
+EXCEPTION
+    WHEN DUP_VAL_ON_INDEX THEN
+        p_result := 6;
+END;
+/
+
 -- 테이블 목록 확인
 SELECT table_name FROM user_tables ORDER BY table_name;
 
@@ -1,5 +1,8 @@
 package university;
 
+import university.config.MiniConnectionPool;
+import university.dao.EnrollmentCounterDAO;
+import university.service.EnrollmentCountReconciler;
 import university.view.MainFrame;
 
 import javax.swing.*;
@@ -14,6 +17,18 @@ import javax.swing.*;
 public class Main {
 
     public static void main(String[] args) {
+        // 화면을 띄우는 동안 커넥션 풀을 백그라운드에서 병렬로 준비
+        MiniConnectionPool.warmUp();
+
+        // 정원 트리거 활성 상태를 설정된 유지 방식(-Denrollment.counterMode)과 맞춤, 못 맞추면 시작하지 않음
+        if (!new EnrollmentCounterDAO().syncTriggers()) {
+            System.err.println("정원 유지 방식(" + EnrollmentCounterDAO.getMode() + ")과 DB 트리거 상태를 맞추지 못해 종료합니다.");
+            System.exit(1);
+        }
+
+        // 신청 인원(enrolled_count) 정합성 보정 작업 (한가할 때만 조금씩)
+        EnrollmentCountReconciler.getInstance().start();
+
         // Look and Feel 설정 (시스템 기본 스타일 사용)
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
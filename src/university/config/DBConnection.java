@@ -1,36 +1,34 @@
 package university.config;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * 데이터베이스 연결 관리 클래스
+ * 데이터베이스 연결 제공 클래스
  * Singleton 패턴 적용
+ *
+ * 예전처럼 커넥션 1개를 모든 스레드가 같이 쓰지 않고, 작업 단위마다 커넥션 풀에서 빌려 씀
+ * - 트랜잭션 밖: getConnection() 할 때마다 풀에서 auto-commit 커넥션을 빌려줌 (사용 후 close()로 반납)
+ * - 트랜잭션 안: beginTransaction()한 스레드에 커넥션이 묶이고,
+ *   같은 스레드의 getConnection()은 모두 그 커넥션을 돌려줌 (close()해도 반납되지 않음)
+ *
+ * 사용 예)
+ *   try (Connection conn = DBConnection.getInstance().getConnection();
+ *        PreparedStatement pstmt = conn.prepareStatement(sql)) { ... }
  */
 public class DBConnection {
 
-    // Oracle JDBC 설정
-    private static final String DRIVER = "oracle.jdbc.OracleDriver";
-    private static final String URL = "jdbc:oracle:thin:@localhost:1521/xe";
-    private static final String USER = "c##park2";
-    private static final String PASSWORD = "1234";
-
     // Singleton 인스턴스
     private static DBConnection instance;
-    private Connection connection;
+
+    // 스레드별로 묶여 있는 트랜잭션 (다른 스레드의 auto-commit 상태에 영향 없음)
+    private final ThreadLocal<TransactionScope> currentTransaction = new ThreadLocal<>();
 
     // private 생성자 (외부에서 인스턴스 생성 방지)
     private DBConnection() {
-        try {
-            Class.forName(DRIVER);
-            this.connection = DriverManager.getConnection(URL, USER, PASSWORD);
-            System.out.println("데이터베이스 연결 성공");
-        } catch (ClassNotFoundException e) {
-            System.err.println("JDBC 드라이버를 찾을 수 없습니다: " + e.getMessage());
-            throw new RuntimeException(e);
-        } catch (SQLException e) {
-            System.err.println("데이터베이스 연결 실패: " + e.getMessage());
-            throw new RuntimeException(e);
-        }
     }
 
     /**
@@ -44,19 +42,23 @@ public class DBConnection {
     }
 
     /**
-     * Connection 객체 반환
+     * 현재 작업 단위의 Connection 반환
+     * 사용이 끝나면 반드시 close() 해야 함 (트랜잭션 안에서는 close()가 무시됨)
      */
-    public Connection getConnection() {
+    public Connection getConnection() throws SQLException {
+        TransactionScope tx = currentTransaction.get();
+        if (tx != null) {
+            return tx.view;
+        }
+
+        Connection conn = borrow();
         try {
-            // 연결이 끊어졌으면 재연결
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
-                System.out.println("데이터베이스 재연결 성공");
-            }
+            conn.setAutoCommit(true);
         } catch (SQLException e) {
-            System.err.println("연결 상태 확인 실패: " + e.getMessage());
+            conn.close();
+            throw e;
         }
-        return connection;
+        return conn;
     }
 
     /**
@@ -75,51 +77,166 @@ public class DBConnection {
     }
 
     /**
-     * 트랜잭션 시작
+     * 트랜잭션 시작 (현재 스레드에 커넥션 바인딩)
+     * 이미 트랜잭션 중이면 바깥 트랜잭션에 참여
      */
-    public void beginTransaction() {
+    public void beginTransaction() throws SQLException {
+        TransactionScope tx = currentTransaction.get();
+        if (tx != null) {
+            tx.depth++;
+            return;
+        }
+
+        Connection conn = borrow();
         try {
-            connection.setAutoCommit(false);
+            conn.setAutoCommit(false);
         } catch (SQLException e) {
-            System.err.println("트랜잭션 시작 실패: " + e.getMessage());
+            conn.close();
+            throw e;
         }
+        currentTransaction.set(new TransactionScope(conn));
     }
 
     /**
      * 트랜잭션 커밋
+     * 가장 바깥 트랜잭션에서만 실제로 커밋하고 커넥션을 풀에 반납
      */
-    public void commit() {
+    public void commit() throws SQLException {
+        TransactionScope tx = requireTransaction();
+        if (--tx.depth > 0) {
+            return;
+        }
+
         try {
-            connection.commit();
-            connection.setAutoCommit(true);
-        } catch (SQLException e) {
-            System.err.println("커밋 실패: " + e.getMessage());
+            if (tx.rollbackOnly) {
+                tx.connection.rollback();
+                throw new SQLException("안쪽 트랜잭션에서 롤백이 요청되어 커밋하지 않았습니다.");
+            }
+            tx.connection.commit();
+        } finally {
+            end(tx);
         }
     }
 
     /**
      * 트랜잭션 롤백
+     * 안쪽 트랜잭션에서 호출하면 바깥 트랜잭션이 끝날 때 롤백되도록 표시만 함
      */
-    public void rollback() {
+    public void rollback() throws SQLException {
+        TransactionScope tx = requireTransaction();
+        if (--tx.depth > 0) {
+            tx.rollbackOnly = true;
+            return;
+        }
+
         try {
-            connection.rollback();
-            connection.setAutoCommit(true);
-        } catch (SQLException e) {
-            System.err.println("롤백 실패: " + e.getMessage());
+            tx.connection.rollback();
+        } finally {
+            end(tx);
+        }
+    }
+
+    /**
+     * 현재 트랜잭션이 끝날 때(커밋/롤백 모두) 실행할 작업 등록
+     * 트랜잭션 밖에서 호출하면 바로 실행
+     */
+    public void onCompletion(Runnable callback) {
+        TransactionScope tx = currentTransaction.get();
+        if (tx == null) {
+            callback.run();
+            return;
         }
+        tx.completions.add(callback);
     }
 
     /**
-     * 연결 종료
+     * 현재 스레드가 트랜잭션 중인지 여부
+     */
+    public boolean isInTransaction() {
+        return currentTransaction.get() != null;
+    }
+
+    /**
+     * 연결 종료 (커넥션 풀 정리)
      */
     public void closeConnection() {
+        MiniConnectionPool.shutdown();
+        System.out.println("데이터베이스 연결 종료");
+    }
+
+    private Connection borrow() throws SQLException {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("데이터베이스 연결 종료");
-            }
+            return MiniConnectionPool.getConnection();
         } catch (SQLException e) {
-            System.err.println("연결 종료 실패: " + e.getMessage());
+            System.err.println("데이터베이스 연결 실패: " + e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            System.err.println("데이터베이스 연결 실패: " + e.getMessage());
+            throw new SQLException(e);
+        }
+    }
+
+    private TransactionScope requireTransaction() throws SQLException {
+        TransactionScope tx = currentTransaction.get();
+        if (tx == null) {
+            throw new SQLException("진행 중인 트랜잭션이 없습니다.");
+        }
+        return tx;
+    }
+
+    private void end(TransactionScope tx) {
+        currentTransaction.remove();
+        MiniConnectionPool.releaseConnection(tx.connection); // auto-commit 복구 및 반납은 풀이 처리
+        for (Runnable callback : tx.completions) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                System.err.println("트랜잭션 종료 작업 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 스레드에 묶인 트랜잭션 정보
+     */
+    private static class TransactionScope {
+        private final Connection connection;
+        // DAO에 건네주는 커넥션 (close()를 무시해서 트랜잭션 도중 반납되지 않게 함)
+        private final Connection view;
+        private int depth = 1;
+        private boolean rollbackOnly;
+        // 트랜잭션 종료 시 실행할 작업 (락 보유 기록 정리 등)
+        private final List<Runnable> completions = new ArrayList<>();
+
+        TransactionScope(Connection connection) {
+            this.connection = connection;
+            this.view = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                            case "commit":
+                            case "rollback":
+                            case "setAutoCommit":
+                                // 트랜잭션 경계는 DBConnection만 제어
+                                if (args == null || args.length == 0 || "setAutoCommit".equals(method.getName())) {
+                                    return null;
+                                }
+                                break;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                break;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
         }
     }
-}
\ No newline at end of file
+}
@@ -3,44 +3,369 @@ package university.config;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * 탄력적 커넥션 풀
+ * - 최소(minSize) ~ 최대(maxSize) 사이에서 커넥션 수가 늘었다 줄었다 함
+ * - 대여 시 유효성 검사, 끊어진 커넥션은 버리고 새로 만들어서 교체
+ * - 일정 시간 이상 놀고 있는 커넥션은 백그라운드에서 정리 (최소 개수는 유지)
+ * - 커넥션마다 PreparedStatement LRU 캐시를 달아서 같은 SQL 재파싱 방지
+ * - 최소 개수만큼의 커넥션은 클래스 로딩 시점이 아니라 warmUp() 또는 첫 대여 때
+ *   백그라운드에서 병렬로 생성 (실패한 커넥션은 재시도, 준비 완료는 awaitReady()로 대기)
+ *
+ * 설정값은 JVM 옵션으로 바꿀 수 있음 (예: -Dpool.maxSize=50 -Dpool.borrowTimeoutMs=5000)
+ * 대여한 커넥션은 releaseConnection() 또는 close()로 반납 (둘 다 풀로 돌아감)
+ */
 public class MiniConnectionPool {
     // DB 정보 (본인 환경에 맞게 수정)
     private static final String URL = "jdbc:oracle:thin:@localhost:1521/xe";
     private static final String USER = "c##park2";
     private static final String PASS = "1234";
 
-    // 커넥션 10개 미리 만들어두는 보관함
-    private static final BlockingQueue<Connection> connectionQueue = new ArrayBlockingQueue<>(10);
+    // 풀 크기 및 대기/정리 설정
+    private static final int MIN_SIZE = Math.max(0, Integer.getInteger("pool.minSize", 10));
+    private static final int MAX_SIZE = Math.max(Math.max(1, MIN_SIZE), Integer.getInteger("pool.maxSize", 50));
+    private static final long BORROW_TIMEOUT_MS = Long.getLong("pool.borrowTimeoutMs", 3000L);
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("pool.idleTimeoutMs", 60_000L);
+    private static final long EVICTION_INTERVAL_MS = Long.getLong("pool.evictionIntervalMs", 30_000L);
+    // 최근 이 시간 안에 쓰인 커넥션은 isValid() 왕복을 생략
+    private static final long VALIDATION_SKIP_MS = Long.getLong("pool.validationSkipMs", 5_000L);
+    private static final int VALIDATION_TIMEOUT_SEC = 2;
+    // 커넥션 1개당 캐시할 PreparedStatement 수 (0이면 캐시 사용 안 함)
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("pool.statementCacheSize", 50);
+    // 최대치에 도달했을 때 반납/정리를 기다리며 다시 확인하는 간격
+    private static final long WAIT_SLICE_MS = 50L;
+    // 워밍업: 동시에 여는 커넥션 수, 커넥션 1개당 재시도 횟수 및 간격
+    private static final int WARMUP_PARALLELISM = Math.max(1, Integer.getInteger("pool.warmUpParallelism", 8));
+    private static final int WARMUP_MAX_ATTEMPTS = Math.max(1, Integer.getInteger("pool.warmUpMaxAttempts", 3));
+    private static final long WARMUP_RETRY_DELAY_MS = Long.getLong("pool.warmUpRetryDelayMs", 200L);
 
-    static {
+    // 유휴 커넥션 보관함 (LIFO: 최근 반납된 것부터 재사용 → 오래 쉰 커넥션은 뒤쪽에 남아 정리 대상이 됨)
+    private static final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    // 대여 중인 커넥션 (프록시 → 풀 정보, 반납 시 찾기용)
+    private static final Map<Connection, PooledConnection> borrowedConnections = new ConcurrentHashMap<>();
+    // 풀이 관리하는 전체 커넥션 수 (유휴 + 대여 중 + 생성 중)
+    private static final AtomicInteger totalCount = new AtomicInteger(0);
+    private static final AtomicInteger replacedCount = new AtomicInteger(0);
+    private static final AtomicInteger evictedCount = new AtomicInteger(0);
+
+    private static final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "pool-evictor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // 워밍업 상태
+    private static final AtomicBoolean warmUpStarted = new AtomicBoolean(false);
+    private static final CompletableFuture<Void> readyFuture = new CompletableFuture<>();
+    private static volatile long warmUpMillis = -1;
+    private static final AtomicInteger warmUpFailures = new AtomicInteger(0);
+
+    /**
+     * 최소 개수만큼 커넥션을 병렬로 미리 생성 (백그라운드, 즉시 반환)
+     * 여러 번 호출해도 워밍업은 한 번만 수행됨
+     */
+    public static void warmUp() {
+        if (!warmUpStarted.compareAndSet(false, true)) {
+            return;
+        }
+
+        evictor.scheduleWithFixedDelay(MiniConnectionPool::evictIdleConnections,
+                EVICTION_INTERVAL_MS, EVICTION_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        int target = MIN_SIZE - totalCount.get();
+        if (target <= 0) {
+            warmUpMillis = 0;
+            readyFuture.complete(null);
+            return;
+        }
+
+        System.out.println("커넥션 생성 중 (min=" + MIN_SIZE + ", max=" + MAX_SIZE
+                + ", 동시 생성 " + Math.min(target, WARMUP_PARALLELISM) + "개)");
+        long start = System.nanoTime();
+
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(target, WARMUP_PARALLELISM), r -> {
+            Thread t = new Thread(r, "pool-warmup");
+            t.setDaemon(true);
+            return t;
+        });
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[target];
+        for (int i = 0; i < target; i++) {
+            tasks[i] = CompletableFuture.runAsync(MiniConnectionPool::createIdleWithRetry, workers);
+        }
+
+        CompletableFuture.allOf(tasks).whenComplete((v, e) -> {
+            workers.shutdown();
+            warmUpMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("준비 완료! (" + totalCount.get() + "개, " + warmUpMillis + "ms"
+                    + (warmUpFailures.get() > 0 ? ", 실패 " + warmUpFailures.get() + "개" : "") + ")");
+            readyFuture.complete(null);
+        });
+    }
+
+    /**
+     * 워밍업이 끝날 때까지 대기 (워밍업을 시작하지 않았다면 시작함)
+     *
+     * @return 제한 시간 안에 끝났으면 true
+     */
+    public static boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        warmUp();
         try {
-            System.out.println("커넥션 생성 중");
-            for (int i = 0; i < 10; i++) {
-                Connection conn = DriverManager.getConnection(URL, USER, PASS);
-                conn.setAutoCommit(false);
-                connectionQueue.offer(conn);
+            readyFuture.get(timeout, unit);
+            return true;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        }
+    }
+
+    public static boolean isReady() {
+        return readyFuture.isDone();
+    }
+
+    // 워밍업 작업 1개: 자리를 잡고 커넥션 생성, 실패하면 간격을 두고 재시도
+    private static void createIdleWithRetry() {
+        for (int attempt = 1; attempt <= WARMUP_MAX_ATTEMPTS; attempt++) {
+            if (!reserveSlot()) {
+                return; // 그 사이 대여 요청으로 이미 최대치까지 생성됨
             }
-            System.out.println("준비 완료!");
-        } catch (Exception e) { e.printStackTrace(); }
+            try {
+                idleConnections.offerLast(createPooledConnection());
+                return;
+            } catch (SQLException e) {
+                System.err.println("커넥션 생성 실패 (" + attempt + "/" + WARMUP_MAX_ATTEMPTS + "): " + e.getMessage());
+            }
+            try {
+                Thread.sleep(WARMUP_RETRY_DELAY_MS * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        warmUpFailures.incrementAndGet();
     }
 
     public static Connection getConnection() throws Exception {
-        // 3초 기다려보고 없으면 에러
-        Connection conn = connectionQueue.poll(3, TimeUnit.SECONDS);
-        if (conn == null) throw new SQLException("연결 풀 꽉 참 (대기 시간 초과)");
-        return conn;
+        // 첫 대여 시 워밍업 시작 (기다리지 않음 - 모자라면 아래에서 바로 생성)
+        warmUp();
+        long deadline = System.currentTimeMillis() + BORROW_TIMEOUT_MS;
+
+        while (true) {
+            // 1. 유휴 커넥션 재사용 (검증 실패 시 버리고 다음 것)
+            PooledConnection pooled = idleConnections.pollFirst();
+            if (pooled != null) {
+                if (pooled.isUsable(VALIDATION_SKIP_MS, VALIDATION_TIMEOUT_SEC)) {
+                    return lend(pooled);
+                }
+                discard(pooled);
+                replacedCount.incrementAndGet();
+                continue;
+            }
+
+            // 2. 최대치 미만이면 새로 생성
+            if (reserveSlot()) {
+                return lend(createPooledConnection());
+            }
+
+            // 3. 최대치 도달: 반납될 때까지 대기 (정리/폐기로 자리가 나는 경우도 있으므로 잘게 나눠서 대기)
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new SQLException("연결 풀 꽉 참 (대기 시간 초과, max=" + MAX_SIZE + ")");
+            }
+            pooled = idleConnections.pollFirst(Math.min(remaining, WAIT_SLICE_MS), TimeUnit.MILLISECONDS);
+            if (pooled != null) {
+                idleConnections.offerFirst(pooled);
+            }
+        }
     }
 
     public static void releaseConnection(Connection conn) {
-        if (conn != null) {
+        if (conn == null) {
+            return;
+        }
+
+        PooledConnection pooled = borrowedConnections.remove(conn);
+        if (pooled == null) {
+            // 이미 반납되었거나 풀 소속이 아닌 커넥션
+            return;
+        }
+
+        Connection physical = pooled.getConnection();
+        try {
+            if (physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback(); // 쓴 거 깨끗이 씻어서
+            }
+            physical.setAutoCommit(false);
+            pooled.touch();
+            idleConnections.offerFirst(pooled); // 다시 보관함에 넣기
+        } catch (SQLException e) {
+            // 정리 중 오류가 난 커넥션은 재사용하지 않음
+            System.err.println("커넥션 반납 실패 (폐기): " + e.getMessage());
+            discard(pooled);
+        }
+    }
+
+    /**
+     * 유휴 시간이 지난 커넥션 정리 후 최소 개수 보충
+     */
+    static void evictIdleConnections() {
+        Iterator<PooledConnection> it = idleConnections.descendingIterator();
+        while (it.hasNext() && totalCount.get() > MIN_SIZE) {
+            PooledConnection pooled = it.next();
+            if (pooled.getIdleMillis() < IDLE_TIMEOUT_MS) {
+                continue;
+            }
+            // remove()가 true일 때만 대여 경쟁에서 이긴 것
+            if (idleConnections.removeFirstOccurrence(pooled)) {
+                discard(pooled);
+                evictedCount.incrementAndGet();
+            }
+        }
+        fillToMinimum();
+    }
+
+    private static void fillToMinimum() {
+        while (totalCount.get() < MIN_SIZE && reserveSlot()) {
             try {
-                conn.rollback(); // 쓴 거 깨끗이 씻어서
-                connectionQueue.offer(conn); // 다시 보관함에 넣기
-            } catch (Exception e) { e.printStackTrace(); }
+                idleConnections.offerLast(createPooledConnection());
+            } catch (SQLException e) {
+                System.err.println("커넥션 생성 실패: " + e.getMessage());
+                return;
+            }
         }
     }
-}
\ No newline at end of file
+
+    private static boolean reserveSlot() {
+        while (true) {
+            int current = totalCount.get();
+            if (current >= MAX_SIZE) {
+                return false;
+            }
+            if (totalCount.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // reserveSlot()으로 자리를 확보한 뒤 호출해야 함 (실패 시 자리 반환)
+    private static PooledConnection createPooledConnection() throws SQLException {
+        try {
+            Connection conn = DriverManager.getConnection(URL, USER, PASS);
+            conn.setAutoCommit(false);
+            return new PooledConnection(conn, STATEMENT_CACHE_SIZE);
+        } catch (SQLException e) {
+            totalCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private static Connection lend(PooledConnection pooled) {
+        Connection proxy = pooled.getProxy();
+        borrowedConnections.put(proxy, pooled);
+        return proxy;
+    }
+
+    private static void discard(PooledConnection pooled) {
+        pooled.closeQuietly();
+        totalCount.decrementAndGet();
+    }
+
+    /**
+     * 풀 종료 (유휴 커넥션 전부 닫기)
+     */
+    public static void shutdown() {
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    // ===== 풀 상태/설정 조회 =====
+
+    public static int getMinSize() {
+        return MIN_SIZE;
+    }
+
+    public static int getMaxSize() {
+        return MAX_SIZE;
+    }
+
+    public static long getBorrowTimeoutMs() {
+        return BORROW_TIMEOUT_MS;
+    }
+
+    public static long getIdleTimeoutMs() {
+        return IDLE_TIMEOUT_MS;
+    }
+
+    /**
+     * 워밍업 소요 시간 (ms, 아직 끝나지 않았으면 -1)
+     */
+    public static long getWarmUpMillis() {
+        return warmUpMillis;
+    }
+
+    public static int getWarmUpFailures() {
+        return warmUpFailures.get();
+    }
+
+    public static int getTotalCount() {
+        return totalCount.get();
+    }
+
+    public static int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    public static int getActiveCount() {
+        return borrowedConnections.size();
+    }
+
+    public static int getStatementCacheSize() {
+        return STATEMENT_CACHE_SIZE;
+    }
+
+    public static long getStatementCacheHits() {
+        return StatementCache.getTotalHits();
+    }
+
+    public static long getStatementCacheMisses() {
+        return StatementCache.getTotalMisses();
+    }
+
+    public static long getStatementCacheEvictions() {
+        return StatementCache.getTotalEvictions();
+    }
+
+    public static double getStatementCacheHitRatio() {
+        long hits = getStatementCacheHits();
+        long total = hits + getStatementCacheMisses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public static String getStats() {
+        return String.format("pool[min=%d, max=%d, total=%d, active=%d, idle=%d, replaced=%d, evicted=%d] " +
+                        "stmtCache[size=%d, hit=%d, miss=%d, evict=%d, ratio=%.1f%%]",
+                MIN_SIZE, MAX_SIZE, getTotalCount(), getActiveCount(), getIdleCount(),
+                replacedCount.get(), evictedCount.get(),
+                STATEMENT_CACHE_SIZE, getStatementCacheHits(), getStatementCacheMisses(),
+                getStatementCacheEvictions(), getStatementCacheHitRatio() * 100);
+    }
+}
@@ -0,0 +1,124 @@
+package university.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 풀에서 관리되는 커넥션 1개의 상태 정보
+ * - 실제 JDBC 커넥션과, DAO에게 건네주는 프록시 커넥션
+ * - 커넥션 전용 PreparedStatement 캐시
+ * - 마지막 사용(반납) 시각 (유휴 정리, 유효성 검사 생략 판단용)
+ */
+class PooledConnection {
+
+    private final Connection connection;
+    private final Connection proxy;
+    private final StatementCache statementCache;
+    private final long createdAt;
+    private volatile long lastUsedAt;
+
+    PooledConnection(Connection connection, int statementCacheSize) {
+        this.connection = connection;
+        this.statementCache = new StatementCache(connection, statementCacheSize);
+        this.proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle());
+        this.statementCache.setOwner(proxy);
+        this.createdAt = System.currentTimeMillis();
+        this.lastUsedAt = createdAt;
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    Connection getProxy() {
+        return proxy;
+    }
+
+    StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getIdleMillis() {
+        return System.currentTimeMillis() - lastUsedAt;
+    }
+
+    void touch() {
+        this.lastUsedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 커넥션이 아직 사용 가능한지 확인
+     * 최근에 사용된 커넥션은 DB 왕복 없이 통과시킴
+     */
+    boolean isUsable(long skipValidationMillis, int validationTimeoutSec) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (getIdleMillis() < skipValidationMillis) {
+                return true;
+            }
+            return connection.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 캐시된 Statement와 물리 커넥션 종료
+     */
+    void closeQuietly() {
+        statementCache.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("커넥션 종료 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * DAO에게 보이는 커넥션
+     * - prepareStatement(sql) → Statement 캐시 사용
+     * - close() → 물리 커넥션을 닫지 않고 풀에 반납
+     */
+    private class Handle implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxyObj, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    if (args.length == 1) {
+                        return statementCache.prepare((String) args[0]);
+                    }
+                    break;
+                case "close":
+                    MiniConnectionPool.releaseConnection(proxy);
+                    return null;
+                case "equals":
+                    return proxyObj == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxyObj);
+                case "toString":
+                    return "PooledConnection[" + connection + "]";
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package university.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 커넥션 1개에 붙어 있는 PreparedStatement LRU 캐시 (SQL 문자열이 키)
+ * - 같은 SQL을 다시 prepare 하면 서버 커서를 재사용 (파싱 왕복 제거)
+ * - DAO에서 close() 해도 실제로 닫지 않고 캐시로 돌려보냄
+ * - 같은 SQL이 동시에 두 번 열려 있으면 두 번째는 캐시하지 않은 일반 Statement로 처리
+ */
+class StatementCache {
+
+    // 전체 풀 기준 통계 (캐시 크기 튜닝용)
+    private static final AtomicLong totalHits = new AtomicLong(0);
+    private static final AtomicLong totalMisses = new AtomicLong(0);
+    private static final AtomicLong totalEvictions = new AtomicLong(0);
+
+    private final Connection connection;
+    private final int maxSize;
+    // DAO에게 보이는 커넥션 (풀 프록시) - Statement.getConnection()이 돌려줄 값
+    private Connection owner;
+    private final Map<String, CachedStatement> statements;
+
+    StatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        // accessOrder = true → 가장 오래 안 쓴 SQL이 맨 앞
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    void setOwner(Connection owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * 캐시된 Statement를 돌려주거나, 없으면 새로 prepare 해서 캐시에 등록
+     */
+    synchronized PreparedStatement prepare(String sql) throws SQLException {
+        if (maxSize <= 0) {
+            totalMisses.incrementAndGet();
+            return connection.prepareStatement(sql);
+        }
+
+        CachedStatement cached = statements.get(sql);
+        if (cached != null) {
+            if (!cached.inUse) {
+                totalHits.incrementAndGet();
+                return cached.lend();
+            }
+            // 같은 SQL이 아직 열려 있음 → 캐시하지 않고 별도로 생성
+            totalMisses.incrementAndGet();
+            return connection.prepareStatement(sql);
+        }
+
+        totalMisses.incrementAndGet();
+        cached = new CachedStatement(connection.prepareStatement(sql));
+        statements.put(sql, cached);
+        evictOverflow();
+        return cached.lend();
+    }
+
+    private void evictOverflow() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            it.remove();
+            totalEvictions.incrementAndGet();
+            if (eldest.inUse) {
+                eldest.evicted = true; // 반납될 때 닫힘
+            } else {
+                eldest.closeQuietly();
+            }
+        }
+    }
+
+    private synchronized void giveBack(CachedStatement cached) {
+        cached.inUse = false;
+        if (cached.evicted) {
+            cached.closeQuietly();
+        }
+    }
+
+    /**
+     * 커넥션 폐기 시 캐시된 Statement 전부 닫기
+     */
+    synchronized void clear() {
+        for (CachedStatement cached : statements.values()) {
+            cached.closeQuietly();
+        }
+        statements.clear();
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    static long getTotalHits() {
+        return totalHits.get();
+    }
+
+    static long getTotalMisses() {
+        return totalMisses.get();
+    }
+
+    static long getTotalEvictions() {
+        return totalEvictions.get();
+    }
+
+    /**
+     * 캐시 항목 1개 (실제 PreparedStatement + 대여 상태)
+     */
+    private class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        // 대여할 때마다 새 핸들을 만들어서, 이미 close()한 핸들을 계속 쓰는 실수를 막음
+        PreparedStatement lend() {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new Handle(this));
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Statement 종료 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * DAO에 건네주는 PreparedStatement 핸들
+     * close() → 파라미터/결과를 정리하고 캐시로 반납
+     */
+    private class Handle implements InvocationHandler {
+        private final CachedStatement cached;
+        private boolean closed;
+
+        Handle(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        resetQuietly();
+                        giveBack(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "getConnection":
+                    // 실제 커넥션이 새어나가 풀을 거치지 않고 닫히는 일이 없도록 프록시를 돌려줌
+                    return owner != null ? owner : cached.statement.getConnection();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.statement + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("이미 닫힌 Statement입니다.");
+                    }
+                    try {
+                        return method.invoke(cached.statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+
+        private void resetQuietly() {
+            try {
+                ResultSet rs = cached.statement.getResultSet();
+                if (rs != null) {
+                    rs.close();
+                }
+                cached.statement.clearParameters();
+                cached.statement.clearBatch();
+            } catch (SQLException e) {
+                // 정리에 실패한 Statement는 다시 빌려주지 않음
+                cached.evicted = true;
+                synchronized (StatementCache.this) {
+                    statements.values().remove(cached);
+                }
+            }
+        }
+    }
+}
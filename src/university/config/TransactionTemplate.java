@@ -0,0 +1,171 @@
+package university.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 트랜잭션 실행 템플릿
+ * - 풀에서 빌린 커넥션으로 작업 단위를 실행하고 커밋/롤백 처리
+ * - 경합 때문에 난 오류(데드락, 락 대기 타임아웃, 직렬화 실패)는 지터를 준 백오프 후 재시도
+ * - 재시도 횟수를 오류 코드별로 집계
+ *
+ * 사용 예)
+ *   boolean ok = TransactionTemplate.getDefault().execute(conn -> { ... return true; });
+ *
+ * 설정값은 JVM 옵션으로 바꿀 수 있음 (예: -Dtx.maxAttempts=5)
+ */
+public class TransactionTemplate {
+
+    // 재시도 대상 Oracle 오류 코드
+    public static final int ORA_DEADLOCK = 60;              // ORA-00060 deadlock detected
+    public static final int ORA_LOCK_WAIT_TIMEOUT = 30006;  // ORA-30006 resource busy; WAIT timeout expired
+    public static final int ORA_SERIALIZATION = 8177;       // ORA-08177 can't serialize access
+    public static final int ORA_RESOURCE_BUSY = 54;         // ORA-00054 resource busy (NOWAIT, 재시도 대상 아님)
+
+    private static final TransactionTemplate DEFAULT = new TransactionTemplate(
+            Math.max(1, Integer.getInteger("tx.maxAttempts", 4)),
+            Long.getLong("tx.baseBackoffMs", 20L),
+            Long.getLong("tx.maxBackoffMs", 500L));
+
+    private final DBConnection db = DBConnection.getInstance();
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    // 통계
+    private final AtomicLong executions = new AtomicLong(0);
+    private final AtomicLong retries = new AtomicLong(0);
+    private final AtomicLong exhausted = new AtomicLong(0);
+    private final Map<Integer, AtomicLong> retriesByErrorCode = new ConcurrentHashMap<>();
+
+    public TransactionTemplate(int maxAttempts, long baseBackoffMs, long maxBackoffMs) {
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public static TransactionTemplate getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 트랜잭션 안에서 실행할 작업
+     */
+    @FunctionalInterface
+    public interface TransactionCallback<T> {
+        T doInTransaction(Connection conn) throws SQLException;
+    }
+
+    /**
+     * 작업을 트랜잭션으로 실행
+     * 정상 종료 시 커밋, 예외 시 롤백 (재시도 가능한 오류면 예산 안에서 다시 실행)
+     * 이미 트랜잭션 중이면 바깥 트랜잭션에 참여하고 재시도는 바깥에 맡김
+     */
+    public <T> T execute(TransactionCallback<T> callback) throws SQLException {
+        executions.incrementAndGet();
+
+        if (db.isInTransaction()) {
+            return runOnce(callback);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return runOnce(callback);
+            } catch (SQLException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    exhausted.incrementAndGet();
+                    throw e;
+                }
+                retries.incrementAndGet();
+                retriesByErrorCode.computeIfAbsent(e.getErrorCode(), k -> new AtomicLong()).incrementAndGet();
+                backoff(attempt);
+            }
+        }
+    }
+
+    private <T> T runOnce(TransactionCallback<T> callback) throws SQLException {
+        db.beginTransaction();
+        T result;
+        try {
+            result = callback.doInTransaction(db.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            rollbackQuietly();
+            throw e;
+        }
+        db.commit();
+        return result;
+    }
+
+    private void rollbackQuietly() {
+        try {
+            db.rollback();
+        } catch (SQLException e) {
+            System.err.println("롤백 실패: " + e.getMessage());
+        }
+    }
+
+    // full jitter: 0 ~ min(max, base * 2^(attempt-1)) 사이에서 무작위 대기 → 재시도끼리 다시 부딪히지 않게 분산
+    private void backoff(int attempt) throws SQLException {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        long sleepMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("재시도 대기 중 인터럽트", e);
+        }
+    }
+
+    /**
+     * 재시도하면 성공할 수 있는 경합성 오류인지 판별 (원인 체인까지 확인)
+     */
+    public static boolean isRetryable(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                int code = ((SQLException) t).getErrorCode();
+                if (code == ORA_DEADLOCK || code == ORA_LOCK_WAIT_TIMEOUT || code == ORA_SERIALIZATION) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // ===== 통계 조회 =====
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getExecutionCount() {
+        return executions.get();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    public long getExhaustedCount() {
+        return exhausted.get();
+    }
+
+    public Map<Integer, Long> getRetryCountByErrorCode() {
+        Map<Integer, Long> result = new TreeMap<>();
+        retriesByErrorCode.forEach((code, count) -> result.put(code, count.get()));
+        return result;
+    }
+
+    public String getStats() {
+        return String.format("tx[executions=%d, retries=%d, exhausted=%d, byCode=%s, maxAttempts=%d]",
+                getExecutionCount(), getRetryCount(), getExhaustedCount(),
+                getRetryCountByErrorCode(), maxAttempts);
+    }
+}
@@ -0,0 +1,51 @@
+package university.dao;
+
+/**
+ * 수강신청 처리 결과 코드
+ * (sp_apply_course 프로시저의 결과 코드와 같은 값을 사용)
+ */
+public enum ApplyOutcome {
+
+    SUCCESS(0, "수강신청 완료"),
+    STUDENT_NOT_FOUND(1, "존재하지 않는 학생"),
+    COURSE_NOT_FOUND(2, "존재하지 않는 강의"),
+    COURSE_CANCELED(3, "폐강된 강좌"),
+    CREDIT_EXCEEDED(4, "학점 초과"),
+    COURSE_FULL(5, "정원 초과"),
+    DUPLICATE(6, "이미 신청함"),
+    BUSY(7, "락 대기 초과 (다시 시도)"),
+    ENROLLMENT_NOT_FOUND(8, "교체할 수강신청 없음"),
+    ERROR(99, "처리 중 오류");
+
+    private final int code;
+    private final String message;
+
+    ApplyOutcome(int code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+
+    /**
+     * 결과 코드 → ApplyOutcome (모르는 코드는 ERROR)
+     */
+    public static ApplyOutcome fromCode(int code) {
+        for (ApplyOutcome outcome : values()) {
+            if (outcome.code == code) {
+                return outcome;
+            }
+        }
+        return ERROR;
+    }
+}
@@ -0,0 +1,70 @@
+package university.dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 수강신청 동시성 제어 방식
+ * - PESSIMISTIC: 강좌 행을 SELECT ... FOR UPDATE로 잠그고 처리 (기존 방식)
+ * - OPTIMISTIC: 락 없이 읽고, version 조건부 UPDATE로 자리를 잡음 (충돌 시 재시도)
+ * - HYBRID: 낙관적으로 시작하고, 강좌별 충돌률이 기준을 넘으면 잠시 비관적으로 전환
+ *
+ * -Denrollment.strategy=pessimistic|optimistic|hybrid (기본 pessimistic)
+ * 방식별 처리 건수/소요 시간을 집계해서 부하 테스트에서 비교할 수 있게 함
+ */
+public enum ConcurrencyStrategy {
+
+    PESSIMISTIC,
+    OPTIMISTIC,
+    HYBRID;
+
+    private final AtomicLong calls = new AtomicLong(0);
+    private final AtomicLong successes = new AtomicLong(0);
+    private final AtomicLong totalNanos = new AtomicLong(0);
+
+    /**
+     * JVM 옵션에 설정된 방식 (잘못된 값이면 PESSIMISTIC)
+     */
+    public static ConcurrencyStrategy configured() {
+        return parse(System.getProperty("enrollment.strategy"), PESSIMISTIC);
+    }
+
+    public static ConcurrencyStrategy parse(String value, ConcurrencyStrategy defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("알 수 없는 동시성 제어 방식: " + value + " (" + defaultValue + " 사용)");
+            return defaultValue;
+        }
+    }
+
+    void record(ApplyOutcome outcome, long elapsedNanos) {
+        calls.incrementAndGet();
+        if (outcome.isSuccess()) {
+            successes.incrementAndGet();
+        }
+        totalNanos.addAndGet(elapsedNanos);
+    }
+
+    // ===== 통계 조회 =====
+
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    public long getSuccessCount() {
+        return successes.get();
+    }
+
+    public double getAverageMillis() {
+        long count = calls.get();
+        return count == 0 ? 0.0 : totalNanos.get() / 1_000_000.0 / count;
+    }
+
+    public String getStats() {
+        return String.format("%s[calls=%d, success=%d, avg=%.2fms]",
+                name().toLowerCase(), getCallCount(), getSuccessCount(), getAverageMillis());
+    }
+}
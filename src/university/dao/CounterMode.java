@@ -0,0 +1,51 @@
+package university.dao;
+
+/**
+ * open_course.enrolled_count 유지 방식
+ * - ROW_TRIGGER: trg_enrollment_count (행마다 open_course UPDATE, 기존 방식)
+ * - STATEMENT_TRIGGER: trg_enrollment_count_stmt (문장 단위로 강좌별 증감을 모아서 강좌당 UPDATE 1번)
+ * - APPLICATION: 트리거 없이 EnrollmentDAO가 쓰기 경로 안에서 직접 갱신
+ *   (이미 잠근 강좌 행에 증감을 싣거나, 묶음 처리는 강좌별로 한 번에 반영)
+ *
+ * -Denrollment.counterMode=row_trigger|statement_trigger|application (기본 row_trigger)
+ * DB의 트리거 활성 상태와 맞아야 함 → EnrollmentCounterDAO.switchMode로 함께 바꾸고,
+ * 시작 시 EnrollmentCounterDAO.syncTriggers가 user_triggers를 읽어 어긋나 있으면 맞춤
+ */
+public enum CounterMode {
+
+    ROW_TRIGGER("trg_enrollment_count"),
+    STATEMENT_TRIGGER("trg_enrollment_count_stmt"),
+    APPLICATION(null);
+
+    private final String triggerName;
+
+    CounterMode(String triggerName) {
+        this.triggerName = triggerName;
+    }
+
+    /**
+     * 이 방식에서 켜 둘 트리거 (APPLICATION은 null)
+     */
+    public String getTriggerName() {
+        return triggerName;
+    }
+
+    /**
+     * JVM 옵션에 설정된 방식 (잘못된 값이면 ROW_TRIGGER)
+     */
+    public static CounterMode configured() {
+        return parse(System.getProperty("enrollment.counterMode"), ROW_TRIGGER);
+    }
+
+    public static CounterMode parse(String value, CounterMode defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("알 수 없는 정원 유지 방식: " + value + " (" + defaultValue + " 사용)");
+            return defaultValue;
+        }
+    }
+}
@@ -12,10 +12,11 @@ import java.util.List;
  */
 public class CourseDAO {
 
-    private Connection conn;
+    // 메서드마다 현재 작업 단위의 커넥션을 빌려 씀 (트랜잭션 중이면 그 커넥션)
+    private final DBConnection db;
 
     public CourseDAO() {
-        this.conn = DBConnection.getInstance().getConnection();
+        this.db = DBConnection.getInstance();
     }
 
     /**
@@ -26,7 +27,8 @@ public class CourseDAO {
                 "credit, course_type, recommended_year, is_deleted) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?)";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, course.getCourseCode());
             pstmt.setString(2, course.getCourseNameKr());
             pstmt.setString(3, course.getCourseNameEn());
@@ -57,7 +59,8 @@ public class CourseDAO {
     public Course selectByCode(String courseCode) {
         String sql = "SELECT * FROM course WHERE course_code = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, courseCode);
             ResultSet rs = pstmt.executeQuery();
 
@@ -78,7 +81,8 @@ public class CourseDAO {
         List<Course> list = new ArrayList<>();
         String sql = "SELECT * FROM course WHERE is_deleted = 'N' ORDER BY course_code";
 
-        try (Statement stmt = conn.createStatement();
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
@@ -98,7 +102,8 @@ public class CourseDAO {
         List<Course> list = new ArrayList<>();
         String sql = "SELECT * FROM course ORDER BY course_code";
 
-        try (Statement stmt = conn.createStatement();
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
@@ -119,7 +124,8 @@ public class CourseDAO {
         String sql = "SELECT * FROM course WHERE course_type = ? AND is_deleted = 'N' " +
                 "ORDER BY course_code";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, courseType);
             ResultSet rs = pstmt.executeQuery();
 
@@ -141,7 +147,8 @@ public class CourseDAO {
         String sql = "SELECT * FROM course WHERE (course_name_kr LIKE ? OR course_name_en LIKE ?) " +
                 "AND is_deleted = 'N' ORDER BY course_code";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             String searchKeyword = "%" + keyword + "%";
             pstmt.setString(1, searchKeyword);
             pstmt.setString(2, searchKeyword);
@@ -165,7 +172,8 @@ public class CourseDAO {
                 "credit = ?, course_type = ?, recommended_year = ?, is_deleted = ? " +
                 "WHERE course_code = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, course.getCourseNameKr());
             pstmt.setString(2, course.getCourseNameEn());
             pstmt.setDouble(3, course.getCredit());
@@ -196,7 +204,8 @@ public class CourseDAO {
     public boolean delete(String courseCode) {
         String sql = "UPDATE course SET is_deleted = 'Y' WHERE course_code = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, courseCode);
 
             int result = pstmt.executeUpdate();
@@ -12,10 +12,11 @@ import java.util.List;
  */
 public class DepartmentDAO {
 
-    private Connection conn;
+    // 메서드마다 현재 작업 단위의 커넥션을 빌려 씀 (트랜잭션 중이면 그 커넥션)
+    private final DBConnection db;
 
     public DepartmentDAO() {
-        this.conn = DBConnection.getInstance().getConnection();
+        this.db = DBConnection.getInstance();
     }
 
     /**
@@ -25,7 +26,8 @@ public class DepartmentDAO {
         String sql = "INSERT INTO department (dept_code, dept_name, college_name, " +
                 "office_location, office_phone) VALUES (?, ?, ?, ?, ?)";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, department.getDeptCode());
             pstmt.setString(2, department.getDeptName());
             pstmt.setString(3, department.getCollegeName());
@@ -48,7 +50,8 @@ public class DepartmentDAO {
     public Department selectByCode(String deptCode) {
         String sql = "SELECT * FROM department WHERE dept_code = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, deptCode);
             ResultSet rs = pstmt.executeQuery();
 
@@ -69,7 +72,8 @@ public class DepartmentDAO {
         List<Department> list = new ArrayList<>();
         String sql = "SELECT * FROM department ORDER BY dept_code";
 
-        try (Statement stmt = conn.createStatement();
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
@@ -89,7 +93,8 @@ public class DepartmentDAO {
         List<Department> list = new ArrayList<>();
         String sql = "SELECT * FROM department WHERE dept_name LIKE ? ORDER BY dept_code";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, "%" + keyword + "%");
             ResultSet rs = pstmt.executeQuery();
 
@@ -110,7 +115,8 @@ public class DepartmentDAO {
         String sql = "UPDATE department SET dept_name = ?, college_name = ?, " +
                 "office_location = ?, office_phone = ? WHERE dept_code = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, department.getDeptName());
             pstmt.setString(2, department.getCollegeName());
             pstmt.setString(3, department.getOfficeLocation());
@@ -133,7 +139,8 @@ public class DepartmentDAO {
     public boolean delete(String deptCode) {
         String sql = "DELETE FROM department WHERE dept_code = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, deptCode);
 
             int result = pstmt.executeUpdate();
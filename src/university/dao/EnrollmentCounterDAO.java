@@ -0,0 +1,380 @@
+package university.dao;
+
+import university.config.DBConnection;
+import university.config.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 신청 인원(open_course.enrolled_count) 유지/점검 DAO
+ * - 정원 유지 방식(CounterMode) 전환: 트리거 활성 상태를 바꾸고 현재 방식을 기록
+ * - APPLICATION 방식일 때 EnrollmentDAO 쓰기 경로에서 부르는 증감 헬퍼
+ * - 정합성 점검: enrolled_count와 기대값(APPROVED 행 수 + 좌석 버킷 잔여석) 비교, 어긋난 강좌 보정
+ *   (버킷을 쓰는 강좌는 남은 자리를 버킷에 옮겨 두고 enrolled_count = capacity 로 두므로 버킷 잔여석을 더해야 맞음)
+ * - 시작 시 DB 트리거 활성 상태(user_triggers)를 설정된 방식과 맞춤 (syncTriggers, Main에서 호출)
+ *
+ * APPLICATION 방식 주의: 트리거가 없으므로 EnrollmentDAO를 거치지 않고 지워지는 수강신청은 세지 않음
+ * - 학생 삭제는 StudentDAO.delete가 같은 트랜잭션에서 해당 강좌를 다시 셈 (FK가 ON DELETE CASCADE인 환경 대비)
+ * - 교수/개설강좌 삭제로 CASCADE되는 수강신청은 강좌 행도 같이 지워지므로 셀 것이 없음
+ * - 그 밖의 직접 SQL 삭제는 EnrollmentCountReconciler / repairAll이 보정
+ */
+public class EnrollmentCounterDAO {
+
+    private static volatile CounterMode mode = CounterMode.configured();
+
+    // 보정은 한 번만 시도 (락을 못 잡으면 다음 순회에서 다시 봄)
+    private static final TransactionTemplate SINGLE_ATTEMPT = new TransactionTemplate(1, 0L, 0L);
+
+    // 강좌 oc의 기대 enrolled_count (상관 서브쿼리, 한 문장 안에서 일관된 읽기)
+    private static final String EXPECTED_COUNT =
+            "((SELECT COUNT(*) FROM enrollment e " +
+            "   WHERE e.open_course_id = oc.open_course_id AND e.status = 'APPROVED') + " +
+            " NVL((SELECT SUM(b.remaining) FROM open_course_seat_bucket b " +
+            "   WHERE b.open_course_id = oc.open_course_id), 0))";
+
+    private final DBConnection db;
+
+    public EnrollmentCounterDAO() {
+        this.db = DBConnection.getInstance();
+    }
+
+    public static CounterMode getMode() {
+        return mode;
+    }
+
+    static boolean isApplicationMaintained() {
+        return mode == CounterMode.APPLICATION;
+    }
+
+    /**
+     * 정원 유지 방식 전환
+     * - 해당 방식의 트리거만 켜고 나머지는 끔 (DDL이라 호출 시점에 열린 트랜잭션이 있으면 안 됨)
+     * - 전환 중에 처리된 신청이 있을 수 있으므로 마지막에 전체 보정
+     */
+    public boolean switchMode(CounterMode newMode) {
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (CounterMode candidate : CounterMode.values()) {
+                if (candidate.getTriggerName() != null) {
+                    stmt.execute("ALTER TRIGGER " + candidate.getTriggerName() +
+                            (candidate == newMode ? " ENABLE" : " DISABLE"));
+                }
+            }
+            mode = newMode;
+            System.out.println("정원 유지 방식 전환: " + newMode);
+        } catch (SQLException e) {
+            System.err.println("정원 유지 방식 전환 실패: " + e.getMessage());
+            return false;
+        }
+        return repairAll() >= 0;
+    }
+
+    /**
+     * DB 트리거 활성 상태를 설정된 방식과 맞춤 (시작 시 1번, 열린 트랜잭션 없이 호출)
+     * - user_triggers에서 두 정원 트리거의 상태를 읽어 현재 방식에서 켜져 있어야 할 트리거만 ENABLED인지 확인
+     * - 다르면 switchMode로 설정된 방식에 맞춰 트리거를 바꾸고 전체 보정
+     *   (둘 다 켜져 있으면 두 번 증가, 둘 다 꺼져 있으면 증가 안 함 → 그대로 두면 안 됨)
+     *
+     * @return 이미 맞거나 맞췄으면 true, 조회/전환 실패 시 false (호출한 쪽에서 시작 중단)
+     */
+    public boolean syncTriggers() {
+        Map<String, String> statuses = new HashMap<>();
+        String sql = "SELECT trigger_name, status FROM user_triggers " +
+                "WHERE trigger_name IN ('TRG_ENROLLMENT_COUNT', 'TRG_ENROLLMENT_COUNT_STMT')";
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                statuses.put(rs.getString(1), rs.getString(2));
+            }
+        } catch (SQLException e) {
+            System.err.println("정원 트리거 상태 조회 실패: " + e.getMessage());
+            return false;
+        }
+
+        boolean matches = true;
+        for (CounterMode candidate : CounterMode.values()) {
+            if (candidate.getTriggerName() == null) continue;
+            String status = statuses.get(candidate.getTriggerName().toUpperCase());
+            boolean enabled = "ENABLED".equals(status);
+            if (candidate == mode ? !enabled : enabled) {
+                System.err.println("정원 트리거 상태 불일치: " + candidate.getTriggerName() + "=" +
+                        (status != null ? status : "없음") + " (설정된 방식 " + mode + ")");
+                matches = false;
+            }
+        }
+        return matches || switchMode(mode);
+    }
+
+    // ===== APPLICATION 방식 쓰기 경로 헬퍼 (트랜잭션 안에서 호출, 다른 방식이면 아무것도 안 함) =====
+
+    /**
+     * 강좌 1개 증감 (보통 이미 FOR UPDATE로 잠근 행)
+     */
+    static void adjust(Connection conn, int openCourseId, int delta) throws SQLException {
+        if (!isApplicationMaintained() || delta == 0) {
+            return;
+        }
+        String sql = "UPDATE open_course SET enrolled_count = GREATEST(enrolled_count + ?, 0) " +
+                "WHERE open_course_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, delta);
+            pstmt.setInt(2, openCourseId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * 여러 강좌 증감을 강좌 ID 순으로 한 번에 반영 (묶음 처리용)
+     */
+    static void adjustAll(Connection conn, Map<Integer, Integer> deltas) throws SQLException {
+        if (!isApplicationMaintained() || deltas.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE open_course SET enrolled_count = GREATEST(enrolled_count + ?, 0) " +
+                "WHERE open_course_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            boolean hasUpdate = false;
+            for (Map.Entry<Integer, Integer> entry : new TreeMap<>(deltas).entrySet()) {
+                if (entry.getValue() == 0) continue;
+                pstmt.setInt(1, entry.getValue());
+                pstmt.setInt(2, entry.getKey());
+                pstmt.addBatch();
+                hasUpdate = true;
+            }
+            if (hasUpdate) {
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * 강좌 1개를 기대값으로 다시 셈 (변경 전 상태를 모르는 단건 취소/상태 변경용)
+     */
+    static void recount(Connection conn, int openCourseId) throws SQLException {
+        if (!isApplicationMaintained()) {
+            return;
+        }
+        String sql = "UPDATE open_course oc SET enrolled_count = " + EXPECTED_COUNT + " " +
+                "WHERE oc.open_course_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, openCourseId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * 학생이 승인받은 강좌 목록 (학생 삭제 전, 같은 트랜잭션에서 호출)
+     * APPLICATION 방식이 아니면 트리거가 세므로 빈 목록
+     */
+    static Set<Integer> approvedCoursesOf(Connection conn, String studentId) throws SQLException {
+        Set<Integer> courses = new TreeSet<>();
+        if (!isApplicationMaintained()) {
+            return courses;
+        }
+        String sql = "SELECT open_course_id FROM enrollment WHERE student_id = ? AND status = 'APPROVED'";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, studentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) courses.add(rs.getInt(1));
+            }
+        }
+        return courses;
+    }
+
+    /**
+     * 여러 강좌를 강좌 ID 순으로 다시 셈
+     */
+    static void recountAll(Connection conn, Collection<Integer> openCourseIds) throws SQLException {
+        for (Integer openCourseId : new TreeSet<>(openCourseIds)) {
+            recount(conn, openCourseId);
+        }
+    }
+
+    // ===== 정합성 점검 =====
+
+    /**
+     * enrolled_count가 기대값과 다른 강좌 목록 (조회 실패 시 null)
+     */
+    public List<CounterDrift> findDrift() {
+        List<CounterDrift> list = new ArrayList<>();
+        String sql = "SELECT open_course_id, enrolled_count, approved_count " +
+                "FROM (SELECT oc.open_course_id, oc.enrolled_count, " + EXPECTED_COUNT + " AS approved_count " +
+                "        FROM open_course oc) " +
+                "WHERE enrolled_count != approved_count " +
+                "ORDER BY open_course_id";
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                list.add(new CounterDrift(rs.getInt("open_course_id"),
+                        rs.getInt("enrolled_count"), rs.getInt("approved_count")));
+            }
+            return list;
+        } catch (SQLException e) {
+            System.err.println("신청 인원 정합성 점검 실패: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 어긋난 강좌를 모두 기대값으로 보정
+     *
+     * @return 보정한 강좌 수 (실패 시 -1)
+     */
+    public int repairAll() {
+        String sql = "UPDATE open_course oc SET enrolled_count = " + EXPECTED_COUNT + " " +
+                "WHERE oc.enrolled_count != " + EXPECTED_COUNT;
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int repaired = pstmt.executeUpdate();
+            if (repaired > 0) {
+                System.out.println("신청 인원 보정: " + repaired + "개 강좌");
+            }
+            return repaired;
+        } catch (SQLException e) {
+            System.err.println("신청 인원 보정 실패: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * 강좌 ID 순 키셋 페이지 조회 (락 없음, 일관된 읽기 1문장)
+     * 어긋나지 않은 강좌도 포함 (마지막 행의 ID가 다음 페이지의 시작점)
+     *
+     * @param afterOpenCourseId 이 ID보다 큰 강좌부터
+     * @return 조회 실패 시 null
+     */
+    public List<CounterDrift> scanPage(int afterOpenCourseId, int limit) {
+        List<CounterDrift> list = new ArrayList<>();
+        String sql = "SELECT oc.open_course_id, oc.enrolled_count, " + EXPECTED_COUNT + " AS approved_count " +
+                "FROM open_course oc " +
+                "WHERE oc.open_course_id > ? " +
+                "ORDER BY oc.open_course_id " +
+                "FETCH FIRST ? ROWS ONLY";
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, afterOpenCourseId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new CounterDrift(rs.getInt("open_course_id"),
+                            rs.getInt("enrolled_count"), rs.getInt("approved_count")));
+                }
+            }
+            return list;
+        } catch (SQLException e) {
+            System.err.println("신청 인원 페이지 조회 실패: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 강좌 1개 보정 (짧은 락)
+     * - 강좌 행을 NOWAIT(또는 WAIT n초)로 잠그고 기대값을 다시 세서 다르면 고침
+     * - 신청 처리가 그 강좌 행을 잡고 있으면 기다리지 않고 BUSY (다음 순회에서 다시 봄)
+     *
+     * @param lockWaitSeconds 0이면 NOWAIT
+     */
+    public RepairResult repair(int openCourseId, int lockWaitSeconds) {
+        String sqlLock = "SELECT enrolled_count FROM open_course WHERE open_course_id = ? " +
+                (lockWaitSeconds > 0 ? "FOR UPDATE WAIT " + lockWaitSeconds : "FOR UPDATE NOWAIT");
+        String sqlCount = "SELECT " + EXPECTED_COUNT + " FROM open_course oc WHERE oc.open_course_id = ?";
+        String sqlUpdate = "UPDATE open_course SET enrolled_count = ? WHERE open_course_id = ?";
+        try {
+            return SINGLE_ATTEMPT.execute(conn -> {
+                int enrolled;
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlLock)) {
+                    pstmt.setInt(1, openCourseId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (!rs.next()) return RepairResult.CONSISTENT;
+                        enrolled = rs.getInt(1);
+                    }
+                }
+                int approved;
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlCount)) {
+                    pstmt.setInt(1, openCourseId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        rs.next();
+                        approved = rs.getInt(1);
+                    }
+                }
+                if (enrolled == approved) {
+                    return RepairResult.CONSISTENT;
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlUpdate)) {
+                    pstmt.setInt(1, approved);
+                    pstmt.setInt(2, openCourseId);
+                    pstmt.executeUpdate();
+                }
+                return RepairResult.REPAIRED;
+            });
+        } catch (SQLException e) {
+            if (e.getErrorCode() == TransactionTemplate.ORA_RESOURCE_BUSY
+                    || e.getErrorCode() == TransactionTemplate.ORA_LOCK_WAIT_TIMEOUT) {
+                return RepairResult.BUSY;
+            }
+            System.err.println("신청 인원 보정 실패 (강좌 " + openCourseId + "): " + e.getMessage());
+            return RepairResult.FAILED;
+        }
+    }
+
+    /**
+     * 강좌 1개 보정 결과
+     */
+    public enum RepairResult {
+        REPAIRED,    // 어긋나 있어서 고침
+        CONSISTENT,  // 락을 잡고 다시 보니 맞음 (진행 중이던 신청이 끝난 경우 등)
+        BUSY,        // 락을 못 잡아서 건너뜀
+        FAILED
+    }
+
+    /**
+     * 신청 인원이 어긋난 강좌 1개
+     */
+    public static class CounterDrift {
+        private final int openCourseId;
+        private final int enrolledCount;
+        private final int approvedCount;   // APPROVED 행 수 (+ 좌석 버킷 잔여석)
+
+        public CounterDrift(int openCourseId, int enrolledCount, int approvedCount) {
+            this.openCourseId = openCourseId;
+            this.enrolledCount = enrolledCount;
+            this.approvedCount = approvedCount;
+        }
+
+        public int getOpenCourseId() {
+            return openCourseId;
+        }
+
+        public int getEnrolledCount() {
+            return enrolledCount;
+        }
+
+        public int getApprovedCount() {
+            return approvedCount;
+        }
+
+        // 양수면 enrolled_count가 실제보다 많음
+        public int getDrift() {
+            return enrolledCount - approvedCount;
+        }
+
+        @Override
+        public String toString() {
+            return "강좌 " + openCourseId + ": enrolled_count=" + enrolledCount + ", 기대값=" + approvedCount;
+        }
+    }
+}
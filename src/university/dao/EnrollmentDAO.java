@@ -1,127 +1,562 @@
 package university.dao;
 
 import university.config.DBConnection;
-import university.config.MiniConnectionPool;
+import university.config.TransactionTemplate;
 import university.model.Enrollment;
+import university.service.TermGpaService;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class EnrollmentDAO {
 
-    // 기존 코드 호환성을 위한 커넥션 (단순 조회용)
-    private Connection conn;
+    // 동시성 제어 방식 (-Denrollment.strategy) 과 낙관적 방식 재시도 한도
+    private static final ConcurrencyStrategy STRATEGY = ConcurrencyStrategy.configured();
+    private static final int OPTIMISTIC_MAX_ATTEMPTS =
+            Math.max(1, Integer.getInteger("enrollment.optimisticMaxAttempts", 5));
+
+    // 낙관적 방식 통계
+    private static final AtomicLong optimisticConflicts = new AtomicLong(0);
+    private static final AtomicLong optimisticRetries = new AtomicLong(0);
+    private static final AtomicLong optimisticFallbacks = new AtomicLong(0);
+
+    // 학생 → 강좌 순서 잠금과 락 대기 정책 (-Denrollment.lockWait)
+    private static final LockManager LOCKS = LockManager.getInstance();
+
+    // 원자적 방식용 개설강좌 학기 (학점 한도 계산용, 프로시저가 DB 학기와 다르다고 하면 다시 읽음)
+    private static final int TERM_CHANGED = -2;
+    private static final Map<Integer, CourseTerm> courseTerms = new ConcurrentHashMap<>();
+
+    // 메서드마다 현재 작업 단위의 커넥션을 빌려 씀 (트랜잭션 중이면 그 커넥션)
+    private final DBConnection db;
+    private final TransactionTemplate txTemplate;
+    private final SeatAdmissionGate seatGate;
+    private final HybridConflictTracker hybridTracker;
+    private final SeatBucketDAO seatBuckets;
 
     public EnrollmentDAO() {
-        this.conn = DBConnection.getInstance().getConnection();
+        this.db = DBConnection.getInstance();
+        this.txTemplate = TransactionTemplate.getDefault();
+        this.seatGate = SeatAdmissionGate.getInstance();
+        this.hybridTracker = HybridConflictTracker.getInstance();
+        this.seatBuckets = SeatBucketDAO.getInstance();
     }
 
-    //  수강신청 (커넥션 풀 + 비관적 락)
+    //  수강신청 (커넥션 풀 + 설정된 동시성 제어 방식, 기본은 비관적 락)
     public boolean applyCourse(String studentId, int openCourseId) {
-        Connection newConn = null;
-        PreparedStatement pstmtStudentLock = null;
-        PreparedStatement pstmtCourseLock = null;
-        PreparedStatement pstmtInsert = null;
-        ResultSet rs = null;
-        boolean isSuccess = false;
+        return applyCourseWithStrategy(studentId, openCourseId, STRATEGY).isSuccess();
+    }
+
+    //  수강신청 - 동시성 제어 방식 지정 (방식별 처리 건수/소요 시간 집계)
+    public ApplyOutcome applyCourseWithStrategy(String studentId, int openCourseId, ConcurrencyStrategy strategy) {
+        long startTime = System.nanoTime();
+        // 좌석 버킷을 쓰는 인기 강좌는 강좌 행 대신 버킷에서 자리를 받음 (방식과 무관)
+        // 학점 한도는 어느 경로든 강좌 학기 기준 (해당 학기 신청 학점 vs TermGpaService 최대 학점)
+        ApplyOutcome outcome = seatBuckets.isBucketed(openCourseId)
+                ? applyBucketed(studentId, openCourseId, null,
+                        (year, term) -> TermGpaService.getInstance().getMaxCredits(studentId, year, term))
+                : null;
+        if (outcome != null) {
+            strategy.record(outcome, System.nanoTime() - startTime);
+            return outcome;
+        }
+        switch (strategy) {
+            case OPTIMISTIC:
+                outcome = applyCourseOptimistic(studentId, openCourseId, false);
+                break;
+            case HYBRID:
+                // 충돌이 잦은 강좌는 잠시 비관적 락으로 처리
+                outcome = hybridTracker.shouldLock(openCourseId)
+                        ? applyCoursePessimistic(studentId, openCourseId)
+                        : applyCourseOptimistic(studentId, openCourseId, true);
+                break;
+            default:
+                outcome = applyCoursePessimistic(studentId, openCourseId);
+                break;
+        }
+        strategy.record(outcome, System.nanoTime() - startTime);
+        return outcome;
+    }
 
+    //  수강신청 - 비관적 락 방식 (학생 락 → 강좌 락 → 학기 학점 합계 → INSERT, 4회 왕복)
+    //  데드락/락 대기 타임아웃/직렬화 실패는 TransactionTemplate이 백오프 후 재시도
+    public ApplyOutcome applyCoursePessimistic(String studentId, int openCourseId) {
+        // 매진된 강좌는 커넥션/락 없이 바로 거절
+        if (!seatGate.tryAcquire(openCourseId)) {
+            return ApplyOutcome.COURSE_FULL;
+        }
+
+        ApplyOutcome outcome = runPessimistic(studentId, openCourseId);
+        seatGate.settle(openCourseId, outcome);
+        return outcome;
+    }
+
+    private ApplyOutcome runPessimistic(String studentId, int openCourseId) {
         try {
-            // 풀에서 연결 대여 (0.001초)
-            newConn = MiniConnectionPool.getConnection();
-            newConn.setAutoCommit(false);
-
-            // 1. 학생 락 (동시성 제어)
-            String sqlStudentLock = "SELECT student_id FROM student WHERE student_id = ? FOR UPDATE";
-            pstmtStudentLock = newConn.prepareStatement(sqlStudentLock);
-            pstmtStudentLock.setString(1, studentId);
-            rs = pstmtStudentLock.executeQuery();
-
-            if (!rs.next()) {
-                System.out.println("THREAD: " + studentId + " 실패: 존재하지 않는 학생");
-                newConn.rollback();
-                return false;
-            }
-            rs.close();
-            pstmtStudentLock.close();
-
-            // 2. 학점 조회 (트랜잭션 내)
-            double currentCredits = getCurrentCreditsInTransaction(newConn, studentId);
-
-            // 3. 강좌 정보 조회 및 락
-            String sqlCourseLock =
-                    "SELECT oc.capacity, oc.enrolled_count, oc.is_canceled, c.credit " +
-                            "FROM open_course oc " +
-                            "JOIN course c ON oc.course_code = c.course_code " +
-                            "WHERE oc.open_course_id = ? FOR UPDATE";
-
-            pstmtCourseLock = newConn.prepareStatement(sqlCourseLock);
-            pstmtCourseLock.setInt(1, openCourseId);
-            rs = pstmtCourseLock.executeQuery();
-
-            if (rs.next()) {
-                int capacity = rs.getInt("capacity");
-                int enrolled = rs.getInt("enrolled_count");
-                String isCanceled = rs.getString("is_canceled");
-                double courseCredit = rs.getDouble("credit");
-
-                if ("Y".equals(isCanceled)) {
-                    newConn.rollback();
-                    System.out.println("THREAD: " + studentId + " 실패: 폐강된 강좌");
-                    return false;
+            return txTemplate.execute(conn -> {
+                try {
+                    return applyCourseInTransaction(conn, studentId, openCourseId);
+                } catch (SQLException e) {
+                    if (LOCKS.isBusy(e)) return ApplyOutcome.BUSY;
+                    throw e;
                 }
+            });
+        } catch (SQLException e) {
+            return handleApplyFailure(studentId, e);
+        }
+    }
+
+    //  수강신청 - 낙관적 방식 (강좌 행을 잠그지 않고 읽은 뒤 version 조건부 UPDATE로 자리 확보)
+    //  다른 트랜잭션이 먼저 자리를 가져가서 version이 바뀌었으면 다시 읽고 재시도 (최대 OPTIMISTIC_MAX_ATTEMPTS회)
+    //  재시도를 다 쓰면 비관적 락으로 한 번 처리 (정원 판단은 어느 쪽이든 DB 기준)
+    public ApplyOutcome applyCourseOptimistic(String studentId, int openCourseId) {
+        return applyCourseOptimistic(studentId, openCourseId, false);
+    }
 
-                if (currentCredits + courseCredit > 18.0) {
-                    newConn.rollback();
-                    // System.out.println("THREAD: " + studentId + " 실패: 학점 초과");
-                    return false;
+    private ApplyOutcome applyCourseOptimistic(String studentId, int openCourseId, boolean trackConflicts) {
+        if (!seatGate.tryAcquire(openCourseId)) {
+            return ApplyOutcome.COURSE_FULL;
+        }
+
+        ApplyOutcome outcome = null;
+        try {
+            for (int attempt = 1; attempt <= OPTIMISTIC_MAX_ATTEMPTS; attempt++) {
+                outcome = txTemplate.execute(conn -> {
+                    try {
+                        return applyCourseOptimisticInTransaction(conn, studentId, openCourseId);
+                    } catch (SQLException e) {
+                        if (LOCKS.isBusy(e)) return ApplyOutcome.BUSY;
+                        throw e;
+                    }
+                });
+                if (trackConflicts) {
+                    hybridTracker.record(openCourseId, outcome == null);
+                }
+                if (outcome != null) {
+                    break;
+                }
+                optimisticConflicts.incrementAndGet();
+                if (attempt < OPTIMISTIC_MAX_ATTEMPTS) {
+                    optimisticRetries.incrementAndGet();
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(attempt * 5L + 1));
                 }
+            }
+        } catch (SQLException e) {
+            outcome = handleApplyFailure(studentId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = ApplyOutcome.ERROR;
+        }
 
-                if (enrolled < capacity) {
-                    String sqlInsert = "INSERT INTO enrollment (enrollment_id, student_id, open_course_id, requested_at, status) " +
-                            "VALUES (seq_enrollment.NEXTVAL, ?, ?, SYSTIMESTAMP, 'APPROVED')";
+        if (outcome == null) {
+            optimisticFallbacks.incrementAndGet();
+            outcome = runPessimistic(studentId, openCourseId);
+        }
+        seatGate.settle(openCourseId, outcome);
+        return outcome;
+    }
 
-                    pstmtInsert = newConn.prepareStatement(sqlInsert);
-                    pstmtInsert.setString(1, studentId);
-                    pstmtInsert.setInt(2, openCourseId);
-                    pstmtInsert.executeUpdate();
+    // 낙관적 수강신청 본체 (version 충돌이면 null → 호출한 쪽에서 재시도)
+    // 학생 행은 그대로 잠금: 같은 학생의 동시 신청은 드물고, 학점 합계가 어긋나면 안 되므로
+    private ApplyOutcome applyCourseOptimisticInTransaction(Connection conn, String studentId, int openCourseId) throws SQLException {
+        if (LOCKS.lockStudents(conn, Collections.singleton(studentId)).isEmpty()) {
+            return ApplyOutcome.STUDENT_NOT_FOUND;
+        }
 
-                    newConn.commit(); // 커밋 (락 해제)
-                    isSuccess = true;
-                } else {
-                    newConn.rollback();
-                    // System.out.println("THREAD: " + studentId + " 실패: 정원 초과");
+        // 강좌 정보 조회 (락 없음)
+        String sqlCourse = "SELECT oc.capacity, oc.enrolled_count, oc.is_canceled, oc.version, oc.year, oc.term, c.credit " +
+                "FROM open_course oc " +
+                "JOIN course c ON oc.course_code = c.course_code " +
+                "WHERE oc.open_course_id = ?";
+        int capacity;
+        int enrolled;
+        int version;
+        int year;
+        String term;
+        String isCanceled;
+        double courseCredit;
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlCourse)) {
+            pstmt.setInt(1, openCourseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return ApplyOutcome.COURSE_NOT_FOUND;
                 }
-            } else {
-                newConn.rollback();
-                System.out.println("THREAD: " + studentId + " 실패: 존재하지 않는 강의 ID");
+                capacity = rs.getInt("capacity");
+                enrolled = rs.getInt("enrolled_count");
+                version = rs.getInt("version");
+                year = rs.getInt("year");
+                term = rs.getString("term");
+                isCanceled = rs.getString("is_canceled");
+                courseCredit = rs.getDouble("credit");
             }
+        }
 
-        } catch (Exception e) {
-            try { if (newConn != null) newConn.rollback(); } catch (SQLException ex) {}
-            if (e instanceof SQLException && ((SQLException)e).getErrorCode() == 1) {
-                System.out.println("THREAD: " + studentId + " 실패: 이미 신청함");
-            } else {
-                e.printStackTrace();
+        if ("Y".equals(isCanceled)) {
+            return ApplyOutcome.COURSE_CANCELED;
+        }
+        if (getTermCreditsInTransaction(conn, studentId, year, term) + courseCredit
+                > TermGpaService.getInstance().getMaxCredits(studentId, year, term)) {
+            return ApplyOutcome.CREDIT_EXCEEDED;
+        }
+        if (enrolled >= capacity) {
+            return ApplyOutcome.COURSE_FULL;
+        }
+
+        // 읽은 뒤로 아무도 자리를 가져가지 않았을 때만 성공 (정원 조건도 같이 걸어서 초과 방지)
+        // APPLICATION 방식이면 신청 인원 증가도 같은 UPDATE에 실음
+        String sqlClaim = "UPDATE open_course SET version = version + 1, enrolled_count = enrolled_count + ? " +
+                "WHERE open_course_id = ? AND version = ? AND is_canceled = 'N' AND enrolled_count < capacity";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlClaim)) {
+            pstmt.setInt(1, EnrollmentCounterDAO.isApplicationMaintained() ? 1 : 0);
+            pstmt.setInt(2, openCourseId);
+            pstmt.setInt(3, version);
+            if (pstmt.executeUpdate() == 0) {
+                return null;
+            }
+        }
+
+        String sqlInsert = "INSERT INTO enrollment (enrollment_id, student_id, open_course_id, requested_at, status) " +
+                "VALUES (seq_enrollment.NEXTVAL, ?, ?, SYSTIMESTAMP, 'APPROVED')";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlInsert)) {
+            pstmt.setString(1, studentId);
+            pstmt.setInt(2, openCourseId);
+            pstmt.executeUpdate(); // 트리거 방식이면 트리거가 enrolled_count 증가
+        }
+        return ApplyOutcome.SUCCESS;
+    }
+
+    // ===== 동시성 제어 방식 통계 =====
+
+    public static LockWaitPolicy getLockWaitPolicy() {
+        return LOCKS.getPolicy();
+    }
+
+    public static ConcurrencyStrategy getConfiguredStrategy() {
+        return STRATEGY;
+    }
+
+    public static String getStrategyStats() {
+        StringBuilder sb = new StringBuilder();
+        for (ConcurrencyStrategy strategy : ConcurrencyStrategy.values()) {
+            if (strategy.getCallCount() > 0) {
+                sb.append(strategy.getStats()).append(' ');
+            }
+        }
+        sb.append(String.format("optimistic[conflicts=%d, retries=%d, fallbacks=%d] ",
+                optimisticConflicts.get(), optimisticRetries.get(), optimisticFallbacks.get()));
+        sb.append(HybridConflictTracker.getInstance().getStats());
+        return sb.toString();
+    }
+
+    //  수강신청 - 원자적 방식 (sp_apply_course 프로시저 1회 호출)
+    //  검사와 INSERT가 서버 안에서 한 번에 끝나므로 네트워크 지연 동안 락을 잡고 있지 않음
+    //  auto-commit 커넥션이라 커밋도 같은 왕복에 실려감
+    //  버킷 강좌는 강좌 행이 매진으로 보이므로 프로시저 대신 버킷에서 자리를 받음
+    public ApplyOutcome applyCourseAtomic(String studentId, int openCourseId) {
+        if (seatBuckets.isBucketed(openCourseId)) {
+            ApplyOutcome outcome = applyBucketed(studentId, openCourseId, null,
+                    (year, term) -> TermGpaService.getInstance().getMaxCredits(studentId, year, term));
+            if (outcome != null) {
+                return outcome;
+            }
+        }
+        if (!seatGate.tryAcquire(openCourseId)) {
+            return ApplyOutcome.COURSE_FULL;
+        }
+        ApplyOutcome outcome = callApplyProcedure(studentId, openCourseId);
+        seatGate.settle(openCourseId, outcome);
+        return outcome;
+    }
+
+    //  학점 한도는 다른 경로와 같이 강좌 학기 기준 (TermGpaService, 우수자 한도 포함)
+    //  학기는 메모리에 둔 값을 넘기고, 프로시저가 잠근 강좌의 학기와 다르면 다시 읽고 한 번 더 호출
+    private ApplyOutcome callApplyProcedure(String studentId, int openCourseId) {
+        String sql = "{call sp_apply_course(?, ?, ?, ?, ?, ?, ?)}";
+        boolean termReloaded = false;
+        for (int attempt = 1; ; attempt++) {
+            try (Connection conn = db.getConnection()) {
+                CourseTerm courseTerm = courseTerms.get(openCourseId);
+                if (courseTerm == null) {
+                    courseTerm = loadCourseTerm(conn, openCourseId);
+                    if (courseTerm == null) {
+                        return ApplyOutcome.COURSE_NOT_FOUND;
+                    }
+                    courseTerms.put(openCourseId, courseTerm);
+                }
+                try (CallableStatement cstmt = conn.prepareCall(sql)) {
+                    cstmt.setString(1, studentId);
+                    cstmt.setInt(2, openCourseId);
+                    cstmt.setDouble(3, TermGpaService.getInstance()
+                            .getMaxCredits(studentId, courseTerm.year, courseTerm.term));
+                    cstmt.registerOutParameter(4, Types.INTEGER);
+                    cstmt.setString(5, EnrollmentCounterDAO.isApplicationMaintained() ? "Y" : "N");
+                    cstmt.setInt(6, courseTerm.year);
+                    cstmt.setString(7, courseTerm.term);
+                    cstmt.execute();
+
+                    int result = cstmt.getInt(4);
+                    if (result != TERM_CHANGED) {
+                        return ApplyOutcome.fromCode(result);
+                    }
+                    courseTerms.remove(openCourseId);
+                    if (termReloaded) {
+                        return ApplyOutcome.ERROR;
+                    }
+                    termReloaded = true;
+                    attempt--; // 학기 다시 읽기는 재시도 횟수에 넣지 않음
+                }
+            } catch (SQLException e) {
+                if (!TransactionTemplate.isRetryable(e) || attempt >= txTemplate.getMaxAttempts()) {
+                    return handleApplyFailure(studentId, e);
+                }
+            }
+        }
+    }
+
+    private CourseTerm loadCourseTerm(Connection conn, int openCourseId) throws SQLException {
+        String sql = "SELECT year, term FROM open_course WHERE open_course_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, openCourseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? new CourseTerm(rs.getInt(1), rs.getString(2)) : null;
+            }
+        }
+    }
+
+    private ApplyOutcome handleApplyFailure(String studentId, SQLException e) {
+        if (e.getErrorCode() == 1) {
+            System.out.println("THREAD: " + studentId + " 실패: 이미 신청함");
+            return ApplyOutcome.DUPLICATE;
+        }
+        if (LockWaitPolicy.isLockBusy(e)) {
+            System.out.println("THREAD: " + studentId + " 실패: 락 대기 초과 (ORA-" + e.getErrorCode() + ")");
+            return ApplyOutcome.BUSY;
+        }
+        if (TransactionTemplate.isRetryable(e)) {
+            System.out.println("THREAD: " + studentId + " 실패: 재시도 한도 초과 (ORA-" + e.getErrorCode() + ")");
+        } else {
+            e.printStackTrace();
+        }
+        return ApplyOutcome.ERROR;
+    }
+
+    // 트랜잭션 안에서 실행되는 수강신청 본체 (커밋/롤백은 호출한 쪽에서 처리)
+    private ApplyOutcome applyCourseInTransaction(Connection conn, String studentId, int openCourseId) throws SQLException {
+        // 1. 학생 락 (동시성 제어)
+        if (LOCKS.lockStudents(conn, Collections.singleton(studentId)).isEmpty()) {
+            System.out.println("THREAD: " + studentId + " 실패: 존재하지 않는 학생");
+            return ApplyOutcome.STUDENT_NOT_FOUND;
+        }
+
+        // 2. 강좌 정보 조회 및 락
+        LockManager.CourseLock course = LOCKS.lockCourses(conn, Collections.singleton(openCourseId)).get(openCourseId);
+        if (course == null) {
+            System.out.println("THREAD: " + studentId + " 실패: 존재하지 않는 강의 ID");
+            return ApplyOutcome.COURSE_NOT_FOUND;
+        }
+        int capacity = course.getCapacity();
+        int enrolled = course.getEnrolledCount();
+        String isCanceled = course.isCanceled() ? "Y" : "N";
+        double courseCredit = course.getCredit();
+
+        if ("Y".equals(isCanceled)) {
+            System.out.println("THREAD: " + studentId + " 실패: 폐강된 강좌");
+            return ApplyOutcome.COURSE_CANCELED;
+        }
+
+        // 3. 강좌 학기의 신청 학점 (트랜잭션 내)
+        double termCredits = getTermCreditsInTransaction(conn, studentId, course.getYear(), course.getTerm());
+        double maxCredits = TermGpaService.getInstance().getMaxCredits(studentId, course.getYear(), course.getTerm());
+        if (termCredits + courseCredit > maxCredits) {
+            // System.out.println("THREAD: " + studentId + " 실패: 학점 초과");
+            return ApplyOutcome.CREDIT_EXCEEDED;
+        }
+
+        if (enrolled >= capacity) {
+            // System.out.println("THREAD: " + studentId + " 실패: 정원 초과");
+            return ApplyOutcome.COURSE_FULL;
+        }
+
+        String sqlInsert = "INSERT INTO enrollment (enrollment_id, student_id, open_course_id, requested_at, status) " +
+                "VALUES (seq_enrollment.NEXTVAL, ?, ?, SYSTIMESTAMP, 'APPROVED')";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlInsert)) {
+            pstmt.setString(1, studentId);
+            pstmt.setInt(2, openCourseId);
+            pstmt.executeUpdate();
+        }
+        EnrollmentCounterDAO.adjust(conn, openCourseId, 1);
+        return ApplyOutcome.SUCCESS; // 커밋 시 락 해제
+    }
+
+    //  수강신청 묶음 처리 (그룹 커밋용, 트랜잭션 안에서 호출)
+    //  묶음 전체를 한 번에 검증하고 승인된 건만 executeBatch로 INSERT
+    //  락 순서는 applyCourse와 같음: 학생(학번순) → 강좌(ID순)
+    //  락 대기 정책에 상한이 있으면 락을 못 잡았을 때 묶음 전체가 BUSY
+    //  버킷 강좌 신청은 판정 순서대로 버킷에서 바로 자리를 받음 (강좌 락 → 버킷 행 순서)
+    public List<ApplyOutcome> applyBatchInTransaction(Connection conn, List<ApplyRequest> requests) throws SQLException {
+        try {
+            return applyBatchLocked(conn, requests);
+        } catch (SQLException e) {
+            if (LOCKS.isBusy(e)) return new ArrayList<>(Collections.nCopies(requests.size(), ApplyOutcome.BUSY));
+            throw e;
+        }
+    }
+
+    private List<ApplyOutcome> applyBatchLocked(Connection conn, List<ApplyRequest> requests) throws SQLException {
+        List<ApplyOutcome> outcomes = new ArrayList<>();
+        if (requests.isEmpty()) return outcomes;
+
+        TreeSet<String> studentIds = new TreeSet<>();
+        TreeSet<Integer> courseIds = new TreeSet<>();
+        for (ApplyRequest request : requests) {
+            studentIds.add(request.getStudentId());
+            courseIds.add(request.getOpenCourseId());
+        }
+
+        // 1. 학생 락 (학번순, 한 문장으로)
+        Set<String> existingStudents = LOCKS.lockStudents(conn, studentIds);
+
+        // 2. 학생별/학기별 현재 학점 (insertValidated와 같은 기준: 해당 학기 APPLIED/APPROVED)
+        Map<String, Double> credits = new HashMap<>();        // 학번#연도#학기
+        String sqlCredits = "SELECT e.student_id, oc.year, oc.term, SUM(c.credit) " +
+                "FROM enrollment e " +
+                "JOIN open_course oc ON e.open_course_id = oc.open_course_id " +
+                "JOIN course c ON oc.course_code = c.course_code " +
+                "WHERE e.student_id IN (" + placeholders(studentIds.size()) + ") " +
+                "AND e.status IN ('APPLIED', 'APPROVED') " +
+                "GROUP BY e.student_id, oc.year, oc.term";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlCredits)) {
+            bindAll(pstmt, 1, studentIds);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    credits.put(rs.getString(1) + "#" + rs.getInt(2) + "#" + rs.getString(3), rs.getDouble(4));
+                }
+            }
+        }
+
+        // 3. 강좌 락 (ID순) + 정원/학기 정보
+        Map<Integer, int[]> seats = new HashMap<>();          // {capacity, enrolled}
+        Map<Integer, LockManager.CourseLock> lockedCourses = LOCKS.lockCourses(conn, courseIds);
+        Set<Integer> canceledCourses = new HashSet<>();
+        for (LockManager.CourseLock course : lockedCourses.values()) {
+            int id = course.getOpenCourseId();
+            seats.put(id, new int[]{course.getCapacity(), course.getEnrolledCount()});
+            if (course.isCanceled()) canceledCourses.add(id);
+        }
+
+        // 4. 이미 신청한 조합
+        Set<String> existingPairs = new HashSet<>();
+        String sqlDuplicate = "SELECT student_id, open_course_id FROM enrollment " +
+                "WHERE student_id IN (" + placeholders(studentIds.size()) + ") " +
+                "AND open_course_id IN (" + placeholders(courseIds.size()) + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlDuplicate)) {
+            int index = bindAll(pstmt, 1, studentIds);
+            bindAll(pstmt, index, courseIds);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) existingPairs.add(rs.getString(1) + "#" + rs.getInt(2));
+            }
+        }
+
+        // 5. 도착 순서대로 판정 (묶음 안에서 먼저 승인된 건도 정원/학점에 반영)
+        // 최대 학점은 학생/학기마다 TermGpaService 기준 (우수자 한도 포함), 묶음 안에서 한 번씩만 계산
+        TermGpaService termGpa = TermGpaService.getInstance();
+        Map<String, Double> maxCredits = new HashMap<>();     // 학번#연도#학기
+        Map<Integer, Integer> inserted = new HashMap<>();
+        String sqlInsert = "INSERT INTO enrollment (enrollment_id, student_id, open_course_id, requested_at, status) " +
+                "VALUES (seq_enrollment.NEXTVAL, ?, ?, SYSTIMESTAMP, 'APPROVED')";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlInsert)) {
+            boolean hasInsert = false;
+            for (ApplyRequest request : requests) {
+                String studentId = request.getStudentId();
+                int openCourseId = request.getOpenCourseId();
+                String pair = studentId + "#" + openCourseId;
+                LockManager.CourseLock course = lockedCourses.get(openCourseId);
+                int[] seat = seats.get(openCourseId);
+
+                ApplyOutcome outcome;
+                if (!existingStudents.contains(studentId)) {
+                    outcome = ApplyOutcome.STUDENT_NOT_FOUND;
+                } else if (course == null) {
+                    outcome = ApplyOutcome.COURSE_NOT_FOUND;
+                } else if (canceledCourses.contains(openCourseId)) {
+                    outcome = ApplyOutcome.COURSE_CANCELED;
+                } else if (existingPairs.contains(pair)) {
+                    outcome = ApplyOutcome.DUPLICATE;
+                } else {
+                    String termKey = studentId + "#" + course.getTermKey();
+                    double limit = maxCredits.computeIfAbsent(termKey,
+                            key -> termGpa.getMaxCredits(studentId, course.getYear(), course.getTerm()));
+                    if (credits.getOrDefault(termKey, 0.0) + course.getCredit() > limit) {
+                        outcome = ApplyOutcome.CREDIT_EXCEEDED;
+                    } else {
+                        // 버킷 강좌는 버킷에서 바로 자리를 받음 (강좌 행 enrolled_count는 정원으로 고정돼 있음)
+                        outcome = claimBucketSeat(conn, studentId, openCourseId, null, limit, 0);
+                        if (outcome == null && seat[1] >= seat[0]) {
+                            outcome = ApplyOutcome.COURSE_FULL;
+                        } else if (outcome == null) {
+                            outcome = ApplyOutcome.SUCCESS;
+                            seat[1]++;
+                            inserted.merge(openCourseId, 1, Integer::sum);
+                            pstmt.setString(1, studentId);
+                            pstmt.setInt(2, openCourseId);
+                            pstmt.addBatch();
+                            hasInsert = true;
+                        }
+                        if (outcome.isSuccess()) {
+                            credits.merge(termKey, course.getCredit(), Double::sum);
+                            existingPairs.add(pair);
+                        }
+                    }
+                }
+                outcomes.add(outcome);
+            }
+            if (hasInsert) {
+                pstmt.executeBatch();
             }
-        } finally {
-            DBConnection.close(rs, pstmtStudentLock, pstmtCourseLock, pstmtInsert);
-            MiniConnectionPool.releaseConnection(newConn); // 연결 반납
         }
+        EnrollmentCounterDAO.adjustAll(conn, inserted);
+        return outcomes;
+    }
 
-        return isSuccess;
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
     }
 
-    private double getCurrentCreditsInTransaction(Connection conn, String studentId) throws SQLException {
-        String sql = "SELECT SUM(c.credit) " +
+    private static int bindAll(PreparedStatement pstmt, int startIndex, Collection<?> values) throws SQLException {
+        int index = startIndex;
+        for (Object value : values) {
+            pstmt.setObject(index++, value);
+        }
+        return index;
+    }
+
+    // 해당 학기 신청 학점 (insertValidated와 같은 기준: APPLIED/APPROVED)
+    private double getTermCreditsInTransaction(Connection conn, String studentId, int year, String term) throws SQLException {
+        String sql = "SELECT NVL(SUM(c.credit), 0) " +
                 "FROM enrollment e " +
                 "JOIN open_course oc ON e.open_course_id = oc.open_course_id " +
                 "JOIN course c ON oc.course_code = c.course_code " +
-                "WHERE e.student_id = ? " +
-                "AND e.status IN ('APPLIED', 'APPROVED', 'CONFIRMED')";
+                "WHERE e.student_id = ? AND oc.year = ? AND oc.term = ? " +
+                "AND e.status IN ('APPLIED', 'APPROVED')";
 
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, studentId);
+            pstmt.setInt(2, year);
+            pstmt.setString(3, term);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) return rs.getDouble(1);
             }
@@ -129,10 +564,500 @@ public class EnrollmentDAO {
         return 0.0;
     }
 
+    //  수강신청 사전 검증 정보 1회 조회 (학생 상태, 강좌 상태/정원, 중복 여부, 해당 학기 신청 학점)
+    //  학생/강좌가 없어도 행 1개가 나오도록 DUAL 기준 LEFT JOIN
+    //  조회 실패 시 null
+    public ValidationSnapshot loadValidationSnapshot(String studentId, int openCourseId) {
+        Map<Integer, ValidationSnapshot> snapshots = loadValidationSnapshots(studentId, Collections.singletonList(openCourseId));
+        return snapshots != null ? snapshots.get(openCourseId) : null;
+    }
+
+    //  여러 강좌의 사전 검증 정보를 한 번에 조회 (장바구니 일괄 신청용)
+    //  강좌 ID 순서대로 담아서 반환, 조회 실패 시 null
+    public Map<Integer, ValidationSnapshot> loadValidationSnapshots(String studentId, List<Integer> openCourseIds) {
+        Map<Integer, ValidationSnapshot> snapshots = new LinkedHashMap<>();
+        if (openCourseIds.isEmpty()) return snapshots;
+
+        String keys = String.join(" UNION ALL ",
+                Collections.nCopies(openCourseIds.size(), "SELECT ? AS student_id, ? AS open_course_id FROM dual"));
+        String sql = "SELECT k.open_course_id AS key_course_id, s.student_id, s.status AS student_status, " +
+                "       oc.open_course_id, oc.year, oc.term, oc.capacity, oc.is_canceled, " +
+                "       oc.enrolled_count - NVL((SELECT SUM(b.remaining) FROM open_course_seat_bucket b " +
+                "         WHERE b.open_course_id = oc.open_course_id), 0) AS enrolled_count, " +
+                "       c.course_code, c.credit, " +
+                "       (SELECT COUNT(*) FROM enrollment d " +
+                "         WHERE d.student_id = k.student_id AND d.open_course_id = k.open_course_id) AS dup_count, " +
+                "       (SELECT NVL(SUM(c2.credit), 0) FROM enrollment e2 " +
+                "          JOIN open_course oc2 ON e2.open_course_id = oc2.open_course_id " +
+                "          JOIN course c2 ON oc2.course_code = c2.course_code " +
+                "         WHERE e2.student_id = k.student_id AND oc2.year = oc.year AND oc2.term = oc.term " +
+                "           AND e2.status IN ('APPLIED', 'APPROVED')) AS term_credits, " +
+                "       (SELECT LISTAGG(oc3.course_code, ',') WITHIN GROUP (ORDER BY oc3.course_code) " +
+                "          FROM enrollment e3 JOIN open_course oc3 ON e3.open_course_id = oc3.open_course_id " +
+                "         WHERE e3.student_id = k.student_id AND oc3.year = oc.year AND oc3.term = oc.term " +
+                "           AND e3.status IN ('APPLIED', 'APPROVED')) AS term_course_codes " +
+                "FROM (" + keys + ") k " +
+                "LEFT JOIN student s ON s.student_id = k.student_id " +
+                "LEFT JOIN open_course oc ON oc.open_course_id = k.open_course_id " +
+                "LEFT JOIN course c ON oc.course_code = c.course_code";
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer openCourseId : openCourseIds) {
+                pstmt.setString(index++, studentId);
+                pstmt.setInt(index++, openCourseId);
+            }
+            Map<Integer, ValidationSnapshot> loaded = new HashMap<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    loaded.put(rs.getInt("key_course_id"), mapResultSetToSnapshot(rs));
+                }
+            }
+            for (Integer openCourseId : openCourseIds) {
+                snapshots.put(openCourseId, loaded.get(openCourseId));
+            }
+            return snapshots;
+        } catch (SQLException e) {
+            System.err.println("수강신청 검증 정보 조회 실패: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private ValidationSnapshot mapResultSetToSnapshot(ResultSet rs) throws SQLException {
+        ValidationSnapshot snapshot = new ValidationSnapshot();
+        snapshot.studentExists = rs.getString("student_id") != null;
+        snapshot.studentStatus = rs.getString("student_status");
+        rs.getInt("open_course_id");
+        snapshot.courseExists = !rs.wasNull();
+        snapshot.year = rs.getInt("year");
+        snapshot.term = rs.getString("term");
+        snapshot.courseCode = rs.getString("course_code");
+        snapshot.capacity = rs.getInt("capacity");
+        snapshot.enrolledCount = rs.getInt("enrolled_count");
+        snapshot.canceled = "Y".equals(rs.getString("is_canceled"));
+        snapshot.credit = rs.getDouble("credit");
+        snapshot.duplicate = rs.getInt("dup_count") > 0;
+        snapshot.termCredits = rs.getDouble("term_credits");
+        String termCourseCodes = rs.getString("term_course_codes");
+        if (termCourseCodes != null) {
+            snapshot.termCourseCodes.addAll(Arrays.asList(termCourseCodes.split(",")));
+        }
+        return snapshot;
+    }
+
+    //  검증된 수강신청 등록 (1회 왕복)
+    //  사전 검증 이후 바뀌었을 수 있는 값(폐강, 정원, 학기 학점)을 학생 → 강좌 락을 잡고 서버에서 다시 확인한 뒤 INSERT
+    //  PL/SQL 안에서 잠그므로 LockManager를 거치지 않지만 순서는 같음 (학생 → 강좌 → 수강신청 행)
+    public ApplyOutcome insertValidated(String studentId, int openCourseId, String createdBy, double maxCredits) {
+        if (seatBuckets.isBucketed(openCourseId)) {
+            ApplyOutcome outcome = applyBucketed(studentId, openCourseId, createdBy, (year, term) -> maxCredits);
+            if (outcome != null) {
+                return outcome;
+            }
+        }
+        if (!seatGate.tryAcquire(openCourseId)) {
+            return ApplyOutcome.COURSE_FULL;
+        }
+
+        String sql = "DECLARE " +
+                "  p_student_id  student.student_id%TYPE := ?; " +
+                "  p_course_id   open_course.open_course_id%TYPE := ?; " +
+                "  p_max_credits NUMBER := ?; " +
+                "  p_created_by  enrollment.created_by%TYPE := ?; " +
+                "  p_app_count   VARCHAR2(1) := ?; " +
+                "  v_student  student.student_id%TYPE; " +
+                "  v_capacity open_course.capacity%TYPE; " +
+                "  v_enrolled open_course.enrolled_count%TYPE; " +
+                "  v_canceled open_course.is_canceled%TYPE; " +
+                "  v_year     open_course.year%TYPE; " +
+                "  v_term     open_course.term%TYPE; " +
+                "  v_credit   course.credit%TYPE; " +
+                "  v_credits  NUMBER; " +
+                "  v_result   NUMBER; " +
+                "BEGIN " +
+                "  BEGIN " +
+                "    SELECT student_id INTO v_student FROM student WHERE student_id = p_student_id " +
+                LOCKS.getPolicy().forUpdate() + "; " +
+                "    SELECT oc.capacity, oc.enrolled_count, oc.is_canceled, oc.year, oc.term, c.credit " +
+                "      INTO v_capacity, v_enrolled, v_canceled, v_year, v_term, v_credit " +
+                "      FROM open_course oc JOIN course c ON oc.course_code = c.course_code " +
+                "     WHERE oc.open_course_id = p_course_id " + LOCKS.getPolicy().forUpdateOf("oc.enrolled_count") + "; " +
+                "    SELECT NVL(SUM(c.credit), 0) INTO v_credits " +
+                "      FROM enrollment e " +
+                "      JOIN open_course oc ON e.open_course_id = oc.open_course_id " +
+                "      JOIN course c ON oc.course_code = c.course_code " +
+                "     WHERE e.student_id = p_student_id AND oc.year = v_year AND oc.term = v_term " +
+                "       AND e.status IN ('APPLIED', 'APPROVED'); " +
+                "    IF v_canceled = 'Y' THEN v_result := 3; " +
+                "    ELSIF v_credits + v_credit > p_max_credits THEN v_result := 4; " +
+                "    ELSIF v_enrolled >= v_capacity THEN v_result := 5; " +
+                "    ELSE " +
+                "      INSERT INTO enrollment (enrollment_id, student_id, open_course_id, requested_at, status, is_retake, created_by) " +
+                "      VALUES (seq_enrollment.NEXTVAL, p_student_id, p_course_id, SYSTIMESTAMP, 'APPROVED', 'N', p_created_by); " +
+                "      IF p_app_count = 'Y' THEN " +
+                "        UPDATE open_course SET enrolled_count = enrolled_count + 1 WHERE open_course_id = p_course_id; " +
+                "      END IF; " +
+                "      v_result := 0; " +
+                "    END IF; " +
+                "  EXCEPTION " +
+                "    WHEN NO_DATA_FOUND THEN v_result := CASE WHEN v_student IS NULL THEN 1 ELSE 2 END; " +
+                "    WHEN DUP_VAL_ON_INDEX THEN v_result := 6; " +
+                "  END; " +
+                "  ? := v_result; " +
+                "END;";
+
+        ApplyOutcome outcome;
+        try {
+            outcome = txTemplate.execute(conn -> {
+                try (CallableStatement cstmt = conn.prepareCall(sql)) {
+                    cstmt.setString(1, studentId);
+                    cstmt.setInt(2, openCourseId);
+                    cstmt.setDouble(3, maxCredits);
+                    cstmt.setString(4, createdBy);
+                    cstmt.setString(5, EnrollmentCounterDAO.isApplicationMaintained() ? "Y" : "N");
+                    cstmt.registerOutParameter(6, Types.INTEGER);
+                    try {
+                        cstmt.execute();
+                    } catch (SQLException e) {
+                        if (LOCKS.isBusy(e)) return ApplyOutcome.BUSY;
+                        throw e;
+                    }
+                    return ApplyOutcome.fromCode(cstmt.getInt(6));
+                }
+            });
+        } catch (SQLException e) {
+            outcome = handleApplyFailure(studentId, e);
+        }
+        seatGate.settle(openCourseId, outcome);
+        return outcome;
+    }
+
+    //  좌석 버킷에서 자리 1개를 받아 신청 (1회 왕복, 강좌 행 락 없음)
+    //  버킷이 없어진 강좌(해제/폐강)면 null → 호출한 쪽에서 일반 경로로 처리
+    //  학점은 해당 학기 신청 학점을 limit이 돌려준 강좌 학기의 최대 학점과 비교
+    private ApplyOutcome applyBucketed(String studentId, int openCourseId, String createdBy,
+                                       SeatBucketDAO.CreditLimit limit) {
+        try {
+            return txTemplate.execute(conn -> {
+                try {
+                    return seatBuckets.claimInTransaction(conn, studentId, openCourseId, createdBy,
+                            limit, 0, LOCKS.getPolicy());
+                } catch (SQLException e) {
+                    if (LOCKS.isBusy(e)) return ApplyOutcome.BUSY;
+                    throw e;
+                }
+            });
+        } catch (SQLException e) {
+            return handleApplyFailure(studentId, e);
+        }
+    }
+
+    //  락을 잡은 트랜잭션 안에서 버킷 강좌 자리 받기 (장바구니/묶음/교체용, 학점 한도는 호출한 쪽에서 계산)
+    //  버킷을 쓰지 않는 강좌면 null → 강좌 행 기준으로 처리
+    private ApplyOutcome claimBucketSeat(Connection conn, String studentId, int openCourseId, String createdBy,
+                                         double maxCredits, int excludedEnrollmentId) throws SQLException {
+        if (!seatBuckets.isBucketed(openCourseId)) {
+            return null;
+        }
+        return seatBuckets.claimInTransaction(conn, studentId, openCourseId, createdBy,
+                (year, term) -> maxCredits, excludedEnrollmentId, LOCKS.getPolicy());
+    }
+
+    //  장바구니 일괄 신청 (트랜잭션 1개)
+    //  LockManager로 학생 락 → 강좌 락(ID순, IN 목록 한 문장) 순서로 잡아서 동시에 여러 장바구니를 결제해도 교착이 생기지 않게 함
+    //  락을 잡은 상태에서 폐강/중복/학기 학점/정원을 다시 확인하고 통과한 건만 executeBatch로 INSERT
+    //  (버킷 강좌는 정원 대신 버킷에서 바로 자리를 받음)
+    //  maxCredits: 강좌별 적용할 최대 학점 (강좌의 학기 기준, 서비스에서 계산)
+    //  결과는 장바구니 순서대로, 트랜잭션이 실패하면 모든 강좌가 같은 실패 결과
+    public Map<Integer, ApplyOutcome> checkoutCart(String studentId, List<Integer> openCourseIds, String createdBy,
+                                                   Map<Integer, Double> maxCredits) {
+        Map<Integer, ApplyOutcome> outcomes;
+        try {
+            outcomes = txTemplate.execute(conn -> {
+                try {
+                    return checkoutInTransaction(conn, studentId, openCourseIds, createdBy, maxCredits);
+                } catch (SQLException e) {
+                    if (!LOCKS.isBusy(e)) throw e;
+                    Map<Integer, ApplyOutcome> busy = new LinkedHashMap<>();
+                    for (Integer openCourseId : openCourseIds) {
+                        busy.put(openCourseId, ApplyOutcome.BUSY);
+                    }
+                    return busy;
+                }
+            });
+        } catch (SQLException e) {
+            ApplyOutcome failure = handleApplyFailure(studentId, e);
+            outcomes = new LinkedHashMap<>();
+            for (Integer openCourseId : openCourseIds) {
+                outcomes.put(openCourseId, failure);
+            }
+        }
+
+        // 관문을 거치지 않고 자리를 썼으므로 다음 요청 때 DB에서 다시 읽게 함
+        for (Map.Entry<Integer, ApplyOutcome> entry : outcomes.entrySet()) {
+            if (entry.getValue().isSuccess()) {
+                seatGate.invalidate(entry.getKey());
+            }
+        }
+        return outcomes;
+    }
+
+    private Map<Integer, ApplyOutcome> checkoutInTransaction(Connection conn, String studentId, List<Integer> openCourseIds,
+                                                             String createdBy, Map<Integer, Double> maxCredits) throws SQLException {
+        Map<Integer, ApplyOutcome> outcomes = new LinkedHashMap<>();
+        if (openCourseIds.isEmpty()) return outcomes;
+
+        // 1. 학생 락
+        if (LOCKS.lockStudents(conn, Collections.singleton(studentId)).isEmpty()) {
+            for (Integer openCourseId : openCourseIds) {
+                outcomes.put(openCourseId, ApplyOutcome.STUDENT_NOT_FOUND);
+            }
+            return outcomes;
+        }
+
+        // 2. 강좌 락 + 정원/학기/학점 (ID순)
+        TreeSet<Integer> courseIds = new TreeSet<>(openCourseIds);
+        Map<Integer, int[]> seats = new HashMap<>();          // {capacity, enrolled}
+        Map<Integer, String> courseTerms = new HashMap<>();   // year#term
+        Map<Integer, Double> courseCredits = new HashMap<>();
+        Set<Integer> canceledCourses = new HashSet<>();
+        for (LockManager.CourseLock course : LOCKS.lockCourses(conn, courseIds).values()) {
+            int id = course.getOpenCourseId();
+            seats.put(id, new int[]{course.getCapacity(), course.getEnrolledCount()});
+            courseTerms.put(id, course.getTermKey());
+            courseCredits.put(id, course.getCredit());
+            if (course.isCanceled()) canceledCourses.add(id);
+        }
+
+        // 3. 이미 신청한 강좌
+        Set<Integer> existing = new HashSet<>();
+        String sqlDuplicate = "SELECT open_course_id FROM enrollment " +
+                "WHERE student_id = ? AND open_course_id IN (" + placeholders(courseIds.size()) + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlDuplicate)) {
+            pstmt.setString(1, studentId);
+            bindAll(pstmt, 2, courseIds);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) existing.add(rs.getInt(1));
+            }
+        }
+
+        // 4. 학기별 신청 학점
+        Map<String, Double> termCredits = new HashMap<>();
+        String sqlCredits = "SELECT oc.year, oc.term, SUM(c.credit) " +
+                "FROM enrollment e " +
+                "JOIN open_course oc ON e.open_course_id = oc.open_course_id " +
+                "JOIN course c ON oc.course_code = c.course_code " +
+                "WHERE e.student_id = ? AND e.status IN ('APPLIED', 'APPROVED') " +
+                "GROUP BY oc.year, oc.term";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlCredits)) {
+            pstmt.setString(1, studentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) termCredits.put(rs.getInt(1) + "#" + rs.getString(2), rs.getDouble(3));
+            }
+        }
+
+        // 5. 장바구니 순서대로 판정 (앞에서 승인된 강좌도 학점/정원에 반영)
+        double defaultMax = SystemParameters.current().getMaxCreditsPerSemester();
+        Map<Integer, Integer> inserted = new HashMap<>();
+        String sqlInsert = "INSERT INTO enrollment (enrollment_id, student_id, open_course_id, requested_at, status, is_retake, created_by) " +
+                "VALUES (seq_enrollment.NEXTVAL, ?, ?, SYSTIMESTAMP, 'APPROVED', 'N', ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlInsert)) {
+            boolean hasInsert = false;
+            for (Integer openCourseId : openCourseIds) {
+                int[] seat = seats.get(openCourseId);
+
+                ApplyOutcome outcome;
+                if (seat == null) {
+                    outcome = ApplyOutcome.COURSE_NOT_FOUND;
+                } else if (canceledCourses.contains(openCourseId)) {
+                    outcome = ApplyOutcome.COURSE_CANCELED;
+                } else if (existing.contains(openCourseId)) {
+                    outcome = ApplyOutcome.DUPLICATE;
+                } else if (termCredits.getOrDefault(courseTerms.get(openCourseId), 0.0) + courseCredits.get(openCourseId)
+                        > maxCredits.getOrDefault(openCourseId, defaultMax)) {
+                    outcome = ApplyOutcome.CREDIT_EXCEEDED;
+                } else {
+                    // 버킷 강좌는 버킷에서 바로 자리를 받음 (강좌 행 enrolled_count는 정원으로 고정돼 있음)
+                    outcome = claimBucketSeat(conn, studentId, openCourseId, createdBy,
+                            maxCredits.getOrDefault(openCourseId, defaultMax), 0);
+                    if (outcome == null && seat[1] >= seat[0]) {
+                        outcome = ApplyOutcome.COURSE_FULL;
+                    } else if (outcome == null) {
+                        outcome = ApplyOutcome.SUCCESS;
+                        seat[1]++;
+                        inserted.merge(openCourseId, 1, Integer::sum);
+                        pstmt.setString(1, studentId);
+                        pstmt.setInt(2, openCourseId);
+                        pstmt.setString(3, createdBy);
+                        pstmt.addBatch();
+                        hasInsert = true;
+                    }
+                    if (outcome.isSuccess()) {
+                        termCredits.merge(courseTerms.get(openCourseId), courseCredits.get(openCourseId), Double::sum);
+                        existing.add(openCourseId);
+                    }
+                }
+                outcomes.put(openCourseId, outcome);
+            }
+            if (hasInsert) {
+                pstmt.executeBatch();
+            }
+        }
+        EnrollmentCounterDAO.adjustAll(conn, inserted);
+        return outcomes;
+    }
+
+    //  강좌 교체 (A 취소 + B 신청을 트랜잭션 1개, 커밋 1번으로)
+    //  학생 → 강좌 A/B(ID순) → 수강신청 A 순서로 잠그고, B 자리를 확보한 뒤에 A를 지움
+    //  → 중간에 다른 학생이 자리를 가져갈 틈이 없고, B가 실패하면 A는 그대로 남음
+    //  B가 버킷 강좌면 락 순서(버킷 행 → 수강신청 행)대로 버킷에서 B 자리를 먼저 받고 A를 잠금
+    //  (A가 교체할 수 없는 상태면 세이브포인트로 B 신청을 되돌림)
+    //  A가 승인 상태였으면 같은 트랜잭션 안에서 A의 대기자를 승격
+    //  maxCredits: B 학기의 최대 학점 (서비스에서 계산), 학점은 A를 뺀 값으로 비교
+    public ApplyOutcome swapCourse(int fromEnrollmentId, String studentId, int fromOpenCourseId,
+                                   int toOpenCourseId, String createdBy, double maxCredits) {
+        List<Enrollment> promoted = new ArrayList<>();
+        ApplyOutcome outcome;
+        try {
+            outcome = txTemplate.execute(conn -> {
+                promoted.clear();
+                try {
+                    return swapInTransaction(conn, fromEnrollmentId, studentId, fromOpenCourseId,
+                            toOpenCourseId, createdBy, maxCredits, promoted);
+                } catch (SQLException e) {
+                    if (LOCKS.isBusy(e)) return ApplyOutcome.BUSY;
+                    throw e;
+                }
+            });
+        } catch (SQLException e) {
+            outcome = handleApplyFailure(studentId, e);
+        }
+
+        if (outcome.isSuccess()) {
+            seatGate.invalidate(fromOpenCourseId);
+            seatGate.invalidate(toOpenCourseId);
+            notifyPromoted(promoted);
+        }
+        return outcome;
+    }
+
+    private ApplyOutcome swapInTransaction(Connection conn, int fromEnrollmentId, String studentId, int fromOpenCourseId,
+                                           int toOpenCourseId, String createdBy, double maxCredits,
+                                           List<Enrollment> promoted) throws SQLException {
+        // 1. 학생 → 강좌 A/B 순서로 잠금
+        if (LOCKS.lockStudents(conn, Collections.singleton(studentId)).isEmpty()) {
+            return ApplyOutcome.STUDENT_NOT_FOUND;
+        }
+        Map<Integer, LockManager.CourseLock> courses =
+                LOCKS.lockCourses(conn, Arrays.asList(fromOpenCourseId, toOpenCourseId));
+        LockManager.CourseLock to = courses.get(toOpenCourseId);
+        if (to == null) {
+            return ApplyOutcome.COURSE_NOT_FOUND;
+        }
+        if (to.isCanceled()) {
+            return ApplyOutcome.COURSE_CANCELED;
+        }
+
+        // 2. B가 버킷 강좌면 버킷에서 자리를 받음 (중복/학점/정원은 버킷 신청이 A를 빼고 확인)
+        Savepoint beforeClaim = null;
+        ApplyOutcome claimed = null;
+        if (seatBuckets.isBucketed(toOpenCourseId)) {
+            beforeClaim = conn.setSavepoint();
+            claimed = claimBucketSeat(conn, studentId, toOpenCourseId, createdBy, maxCredits, fromEnrollmentId);
+            if (claimed != null && !claimed.isSuccess()) {
+                return claimed;
+            }
+        }
+
+        // 3. 수강신청 A 잠금 + 확인 (A가 버킷 강좌면 빈자리를 되돌릴 수 있게 버킷 행을 먼저 잠금)
+        boolean fromBucketed = seatBuckets.isBucketed(fromOpenCourseId)
+                && seatBuckets.lockInTransaction(conn, fromOpenCourseId);
+        Enrollment from = LOCKS.lockEnrollments(conn, Collections.singleton(fromEnrollmentId)).get(fromEnrollmentId);
+        if (from == null || !studentId.equals(from.getStudentId()) || from.getOpenCourseId() != fromOpenCourseId
+                || !("APPLIED".equals(from.getStatus()) || "APPROVED".equals(from.getStatus()))) {
+            if (claimed != null) {
+                conn.rollback(beforeClaim);
+            }
+            return ApplyOutcome.ENROLLMENT_NOT_FOUND;
+        }
+
+        // 4. 버킷을 쓰지 않는 B 확인 (중복/학점/정원) → B 등록 → A 삭제
+        //    (트리거 방식이면 트리거가 양쪽 enrolled_count 반영, 버킷 신청은 B 쪽을 건너뜀)
+        if (claimed == null) {
+            String sqlDuplicate = "SELECT COUNT(*) FROM enrollment WHERE student_id = ? AND open_course_id = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlDuplicate)) {
+                pstmt.setString(1, studentId);
+                pstmt.setInt(2, toOpenCourseId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) > 0) {
+                        return ApplyOutcome.DUPLICATE;
+                    }
+                }
+            }
+
+            double termCredits = 0;
+            String sqlCredits = "SELECT NVL(SUM(c.credit), 0) " +
+                    "FROM enrollment e " +
+                    "JOIN open_course oc ON e.open_course_id = oc.open_course_id " +
+                    "JOIN course c ON oc.course_code = c.course_code " +
+                    "WHERE e.student_id = ? AND oc.year = ? AND oc.term = ? " +
+                    "AND e.status IN ('APPLIED', 'APPROVED') AND e.enrollment_id != ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlCredits)) {
+                pstmt.setString(1, studentId);
+                pstmt.setInt(2, to.getYear());
+                pstmt.setString(3, to.getTerm());
+                pstmt.setInt(4, fromEnrollmentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) termCredits = rs.getDouble(1);
+                }
+            }
+            if (termCredits + to.getCredit() > maxCredits) {
+                return ApplyOutcome.CREDIT_EXCEEDED;
+            }
+            if (to.getEnrolledCount() >= to.getCapacity()) {
+                return ApplyOutcome.COURSE_FULL;
+            }
+
+            String sqlInsert = "INSERT INTO enrollment (enrollment_id, student_id, open_course_id, requested_at, status, is_retake, created_by) " +
+                    "VALUES (seq_enrollment.NEXTVAL, ?, ?, SYSTIMESTAMP, 'APPROVED', 'N', ?)";
+            try (PreparedStatement pstmt = conn.prepareStatement(sqlInsert)) {
+                pstmt.setString(1, studentId);
+                pstmt.setInt(2, toOpenCourseId);
+                pstmt.setString(3, createdBy);
+                pstmt.executeUpdate();
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM enrollment WHERE enrollment_id = ?")) {
+            pstmt.setInt(1, fromEnrollmentId);
+            pstmt.executeUpdate();
+        }
+        boolean releasedSeat = "APPROVED".equals(from.getStatus());
+        Map<Integer, Integer> deltas = new HashMap<>();
+        if (claimed == null) {
+            deltas.put(toOpenCourseId, 1);
+        }
+        if (releasedSeat) {
+            deltas.put(fromOpenCourseId, -1);
+        }
+        EnrollmentCounterDAO.adjustAll(conn, deltas);
+
+        // 5. A에 난 빈자리로 대기자 승격 (강좌 A는 이미 잠겨 있음)
+        //    버킷 강좌면 승격되지 않고 남은 빈자리를 버킷에 되돌림
+        if (releasedSeat) {
+            List<Enrollment> promotedFrom = promoteWaiting(conn, fromOpenCourseId);
+            promoted.addAll(promotedFrom);
+            if (fromBucketed && promotedFrom.isEmpty()) {
+                seatBuckets.releaseInTransaction(conn, fromOpenCourseId);
+            }
+        }
+        return ApplyOutcome.SUCCESS;
+    }
+
     // (Service 에러 해결용)
     public boolean isDuplicate(String studentId, int openCourseId) {
         String sql = "SELECT COUNT(*) FROM enrollment WHERE student_id = ? AND open_course_id = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, studentId);
             pstmt.setInt(2, openCourseId);
             ResultSet rs = pstmt.executeQuery();
@@ -145,12 +1070,20 @@ public class EnrollmentDAO {
 
     public boolean insert(Enrollment enrollment) {
         String sql = "INSERT INTO enrollment (enrollment_id, student_id, open_course_id, status, created_by) VALUES (seq_enrollment.NEXTVAL, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, enrollment.getStudentId());
-            pstmt.setInt(2, enrollment.getOpenCourseId());
-            pstmt.setString(3, enrollment.getStatus());
-            pstmt.setString(4, enrollment.getCreatedBy());
-            return pstmt.executeUpdate() > 0;
+        try {
+            return txTemplate.execute(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, enrollment.getStudentId());
+                    pstmt.setInt(2, enrollment.getOpenCourseId());
+                    pstmt.setString(3, enrollment.getStatus());
+                    pstmt.setString(4, enrollment.getCreatedBy());
+                    if (pstmt.executeUpdate() == 0) return false;
+                }
+                if ("APPROVED".equals(enrollment.getStatus())) {
+                    EnrollmentCounterDAO.adjust(conn, enrollment.getOpenCourseId(), 1);
+                }
+                return true;
+            });
         } catch (SQLException e) {
             return false;
         }
@@ -165,7 +1098,8 @@ public class EnrollmentDAO {
                 "LEFT JOIN course c ON oc.course_code = c.course_code " +
                 "LEFT JOIN professor p ON oc.professor_id = p.professor_id " +
                 "WHERE e.student_id = ? AND oc.year = ? AND oc.term = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, studentId);
             pstmt.setInt(2, year);
             pstmt.setString(3, term);
@@ -186,7 +1120,8 @@ public class EnrollmentDAO {
                 "LEFT JOIN course c ON oc.course_code = c.course_code " +
                 "LEFT JOIN professor p ON oc.professor_id = p.professor_id " +
                 "WHERE e.open_course_id = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, openCourseId);
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) list.add(mapResultSetToEnrollment(rs));
@@ -204,7 +1139,8 @@ public class EnrollmentDAO {
                 "LEFT JOIN course c ON oc.course_code = c.course_code " +
                 "LEFT JOIN professor p ON oc.professor_id = p.professor_id " +
                 "WHERE e.enrollment_id = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, enrollmentId);
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) return mapResultSetToEnrollment(rs);
@@ -214,24 +1150,257 @@ public class EnrollmentDAO {
         return null;
     }
 
+    // 삭제/상태 변경 시 RETURNING으로 강좌 ID를 같이 받아서 잔여석 관문을 갱신 (추가 왕복 없음)
+    // 같은 트랜잭션 안에서 대기자 맨 앞을 승격하므로 빈자리가 새 신청자에게 먼저 가지 않음
     public boolean delete(int enrollmentId) {
-        String sql = "DELETE FROM enrollment WHERE enrollment_id = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, enrollmentId);
-            return pstmt.executeUpdate() > 0;
+        String sql = "BEGIN DELETE FROM enrollment WHERE enrollment_id = ? " +
+                "RETURNING open_course_id INTO ?; END;";
+        return changeAndPromote(enrollmentId, sql, null);
+    }
+
+    public boolean updateStatus(int enrollmentId, String status) {
+        String sql = "BEGIN UPDATE enrollment SET status = ? WHERE enrollment_id = ? " +
+                "RETURNING open_course_id INTO ?; END;";
+        return changeAndPromote(enrollmentId, sql, status);
+    }
+
+    // status가 null이면 삭제 SQL (파라미터: id, out), 아니면 상태 변경 SQL (파라미터: status, id, out)
+    // 전역 락 순서(강좌 → 수강신청 행)를 지키려고 강좌 행을 먼저 잠근 뒤 수강신청 행을 바꿈
+    // (수강신청 행부터 잠그면 트리거/승격이 강좌 행을 나중에 잠가서 폐강 일괄 처리와 교착 가능)
+    private boolean changeAndPromote(int enrollmentId, String sql, String status) {
+        List<Enrollment> promoted = new ArrayList<>();
+        Integer openCourseId;
+        try {
+            openCourseId = txTemplate.execute(conn -> {
+                promoted.clear();
+                Integer lockedCourseId = findOpenCourseId(conn, enrollmentId);
+                if (lockedCourseId == null) return null;
+                LOCKS.lockCourses(conn, Collections.singleton(lockedCourseId));
+                boolean bucketed = seatBuckets.isBucketed(lockedCourseId)
+                        && seatBuckets.lockInTransaction(conn, lockedCourseId);
+
+                int courseId;
+                try (CallableStatement cstmt = conn.prepareCall(sql)) {
+                    int index = 1;
+                    if (status != null) {
+                        cstmt.setString(index++, status);
+                    }
+                    cstmt.setInt(index++, enrollmentId);
+                    cstmt.registerOutParameter(index, Types.INTEGER);
+                    cstmt.execute();
+                    courseId = cstmt.getInt(index);
+                    if (cstmt.wasNull()) return null;
+                }
+                EnrollmentCounterDAO.recount(conn, courseId);
+                if (!"APPROVED".equals(status)) {
+                    promoted.addAll(promoteWaiting(conn, courseId));
+                }
+                // 버킷 강좌는 승격되지 않고 남은 빈자리를 버킷에 되돌림 (버킷 경로에서 다시 신청 가능)
+                if (bucketed && promoted.isEmpty()) {
+                    seatBuckets.releaseInTransaction(conn, courseId);
+                }
+                return courseId;
+            });
         } catch (SQLException e) {
             return false;
         }
+        if (openCourseId == null) return false;
+        seatGate.invalidate(openCourseId);
+        notifyPromoted(promoted);
+        return true;
     }
 
-    public boolean updateStatus(int enrollmentId, String status) {
-        String sql = "UPDATE enrollment SET status = ? WHERE enrollment_id = ?";
+    private Integer findOpenCourseId(Connection conn, int enrollmentId) throws SQLException {
+        String sql = "SELECT open_course_id FROM enrollment WHERE enrollment_id = ?";
         try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, status);
-            pstmt.setInt(2, enrollmentId);
-            return pstmt.executeUpdate() > 0;
+            pstmt.setInt(1, enrollmentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    // ===== 대기자 명단 (status = 'WAITING') =====
+    // 순번은 (requested_at, enrollment_id) 순서로 계산 (별도 순번 컬럼 없이 인덱스로 정렬)
+
+    /**
+     * 대기자 등록
+     *
+     * @return 대기 순번 (1부터), 지금 자리가 있으면 0 (바로 신청하면 됨), 실패 시 -1
+     */
+    public int joinWaitlist(String studentId, int openCourseId) {
+        try {
+            return txTemplate.execute(conn -> {
+                // 승격 처리와 겹치지 않도록 강좌 행을 먼저 잠금
+                String sqlCourseLock = "SELECT capacity, enrolled_count, is_canceled " +
+                        "FROM open_course WHERE open_course_id = ? FOR UPDATE";
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlCourseLock)) {
+                    pstmt.setInt(1, openCourseId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (!rs.next() || "Y".equals(rs.getString("is_canceled"))) return -1;
+                        if (rs.getInt("enrolled_count") < rs.getInt("capacity")) return 0;
+                    }
+                }
+
+                String sqlInsert = "INSERT INTO enrollment (enrollment_id, student_id, open_course_id, requested_at, status) " +
+                        "VALUES (seq_enrollment.NEXTVAL, ?, ?, SYSTIMESTAMP, 'WAITING')";
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlInsert)) {
+                    pstmt.setString(1, studentId);
+                    pstmt.setInt(2, openCourseId);
+                    pstmt.executeUpdate();
+                }
+
+                String sqlPosition = "SELECT COUNT(*) FROM enrollment w " +
+                        "JOIN enrollment me ON me.open_course_id = w.open_course_id " +
+                        "WHERE me.student_id = ? AND me.open_course_id = ? AND w.status = 'WAITING' " +
+                        "AND (w.requested_at < me.requested_at " +
+                        "     OR (w.requested_at = me.requested_at AND w.enrollment_id <= me.enrollment_id))";
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlPosition)) {
+                    pstmt.setString(1, studentId);
+                    pstmt.setInt(2, openCourseId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return rs.next() ? rs.getInt(1) : -1;
+                    }
+                }
+            });
         } catch (SQLException e) {
-            return false;
+            if (e.getErrorCode() != 1) {
+                e.printStackTrace();
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 대기 순번 조회 (대기 중이 아니면 0)
+     */
+    public int getWaitlistPosition(int enrollmentId) {
+        String sql = "SELECT COUNT(*) FROM enrollment w " +
+                "JOIN enrollment me ON me.open_course_id = w.open_course_id " +
+                "WHERE me.enrollment_id = ? AND me.status = 'WAITING' AND w.status = 'WAITING' " +
+                "AND (w.requested_at < me.requested_at " +
+                "     OR (w.requested_at = me.requested_at AND w.enrollment_id <= me.enrollment_id))";
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, enrollmentId);
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) return rs.getInt(1);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * 강좌의 대기자 명단 (순번 순)
+     */
+    public List<Enrollment> selectWaitlist(int openCourseId) {
+        List<Enrollment> list = new ArrayList<>();
+        String sql = "SELECT e.*, s.name_kr AS student_name FROM enrollment e " +
+                "JOIN student s ON e.student_id = s.student_id " +
+                "WHERE e.open_course_id = ? AND e.status = 'WAITING' " +
+                "ORDER BY e.requested_at, e.enrollment_id";
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, openCourseId);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) list.add(mapResultSetToEnrollment(rs));
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return list;
+    }
+
+    /**
+     * 빈자리만큼 대기자를 앞에서부터 승격 (트랜잭션 안에서 호출)
+     * - 강좌 행을 잠가서 승격끼리 / 신규 신청과 직렬화
+     * - 대기 행은 SKIP LOCKED로 읽어서 다른 트랜잭션이 취소 중인 대기자는 건너뜀
+     * - 학점 한도를 넘게 되는 대기자는 승격하지 않고 대기 상태로 둠 (학생 행은 잠그지 않음: 락 순서 역전 방지)
+     *   한도는 강좌 학기 기준 (그 학기 신청 학점 + 강좌 학점 vs TermGpaService 최대 학점, 우수자 한도 포함)
+     *
+     * @return 승격된 수강신청 목록 (알림은 커밋 후 notifyPromoted로)
+     */
+    public List<Enrollment> promoteWaiting(Connection conn, int openCourseId) throws SQLException {
+        List<Enrollment> promoted = new ArrayList<>();
+
+        String sqlCourseLock = "SELECT oc.capacity, oc.enrolled_count, oc.is_canceled, oc.year, oc.term, c.credit " +
+                "FROM open_course oc JOIN course c ON oc.course_code = c.course_code " +
+                "WHERE oc.open_course_id = ? FOR UPDATE OF oc.enrolled_count";
+        int freeSeats;
+        int year;
+        String term;
+        double courseCredit;
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlCourseLock)) {
+            pstmt.setInt(1, openCourseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next() || "Y".equals(rs.getString("is_canceled"))) return promoted;
+                freeSeats = rs.getInt("capacity") - rs.getInt("enrolled_count");
+                year = rs.getInt("year");
+                term = rs.getString("term");
+                courseCredit = rs.getDouble("credit");
+            }
+        }
+        if (freeSeats <= 0) return promoted;
+        TermGpaService termGpa = TermGpaService.getInstance();
+
+        String sqlWaiting = "SELECT enrollment_id, student_id FROM enrollment " +
+                "WHERE open_course_id = ? AND status = 'WAITING' " +
+                "ORDER BY requested_at, enrollment_id FOR UPDATE SKIP LOCKED";
+        String sqlPromote = "UPDATE enrollment SET status = 'APPROVED' WHERE enrollment_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlWaiting);
+             PreparedStatement promote = conn.prepareStatement(sqlPromote)) {
+            pstmt.setInt(1, openCourseId);
+            pstmt.setFetchSize(freeSeats + 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (freeSeats > 0 && rs.next()) {
+                    String studentId = rs.getString("student_id");
+                    if (getTermCreditsInTransaction(conn, studentId, year, term) + courseCredit
+                            > termGpa.getMaxCredits(studentId, year, term)) {
+                        continue;
+                    }
+                    int enrollmentId = rs.getInt("enrollment_id");
+                    promote.setInt(1, enrollmentId);
+                    promote.executeUpdate(); // 트리거 방식이면 트리거가 enrolled_count 증가
+
+                    Enrollment enrollment = new Enrollment();
+                    enrollment.setEnrollmentId(enrollmentId);
+                    enrollment.setStudentId(studentId);
+                    enrollment.setOpenCourseId(openCourseId);
+                    enrollment.setStatus("APPROVED");
+                    promoted.add(enrollment);
+                    freeSeats--;
+                }
+            }
+        }
+        EnrollmentCounterDAO.adjust(conn, openCourseId, promoted.size());
+        return promoted;
+    }
+
+    // ===== 대기자 승격 알림 =====
+
+    private static final List<WaitlistListener> waitlistListeners = new CopyOnWriteArrayList<>();
+
+    public static void addWaitlistListener(WaitlistListener listener) {
+        waitlistListeners.add(listener);
+    }
+
+    public static void removeWaitlistListener(WaitlistListener listener) {
+        waitlistListeners.remove(listener);
+    }
+
+    /**
+     * 승격 알림 발송 (반드시 커밋 이후에 호출)
+     */
+    public static void notifyPromoted(List<Enrollment> promoted) {
+        for (Enrollment enrollment : promoted) {
+            for (WaitlistListener listener : waitlistListeners) {
+                try {
+                    listener.onPromoted(enrollment.getEnrollmentId(), enrollment.getStudentId(),
+                            enrollment.getOpenCourseId());
+                } catch (RuntimeException e) {
+                    System.err.println("대기자 승격 알림 실패: " + e.getMessage());
+                }
+            }
         }
     }
 
@@ -241,7 +1410,8 @@ public class EnrollmentDAO {
                 "JOIN course c ON oc.course_code = c.course_code " +
                 "WHERE e.student_id = ? AND oc.year = ? AND oc.term = ? " +
                 "AND e.status IN ('APPLIED', 'APPROVED')";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, studentId);
             pstmt.setInt(2, year);
             pstmt.setString(3, term);
@@ -266,4 +1436,111 @@ public class EnrollmentDAO {
         enrollment.setStatus(rs.getString("status"));
         return enrollment;
     }
+
+    private static final class CourseTerm {
+        private final int year;
+        private final String term;
+
+        private CourseTerm(int year, String term) {
+            this.year = year;
+            this.term = term;
+        }
+    }
+
+    /**
+     * 묶음 처리용 수강신청 요청 (학번 + 개설강좌 ID)
+     */
+    public static class ApplyRequest {
+        private final String studentId;
+        private final int openCourseId;
+
+        public ApplyRequest(String studentId, int openCourseId) {
+            this.studentId = studentId;
+            this.openCourseId = openCourseId;
+        }
+
+        public String getStudentId() {
+            return studentId;
+        }
+
+        public int getOpenCourseId() {
+            return openCourseId;
+        }
+    }
+
+    /**
+     * 수강신청 사전 검증용 조회 결과 (한 번의 쿼리로 채움)
+     */
+    public static class ValidationSnapshot {
+        private boolean studentExists;
+        private String studentStatus;
+        private boolean courseExists;
+        private int year;
+        private String term;
+        private String courseCode;
+        private int capacity;
+        private int enrolledCount;
+        private boolean canceled;
+        private double credit;
+        private boolean duplicate;
+        private double termCredits;
+        private final Set<String> termCourseCodes = new HashSet<>();
+
+        public boolean isStudentExists() {
+            return studentExists;
+        }
+
+        public String getStudentStatus() {
+            return studentStatus;
+        }
+
+        public boolean isCourseExists() {
+            return courseExists;
+        }
+
+        public int getYear() {
+            return year;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+
+        public String getCourseCode() {
+            return courseCode;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public int getEnrolledCount() {
+            return enrolledCount;
+        }
+
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        public double getCredit() {
+            return credit;
+        }
+
+        public boolean isDuplicate() {
+            return duplicate;
+        }
+
+        public double getTermCredits() {
+            return termCredits;
+        }
+
+        // 같은 학기에 이미 신청한 과목 코드 (동시수강 판단용)
+        public Set<String> getTermCourseCodes() {
+            return termCourseCodes;
+        }
+
+        public boolean isFull() {
+            return enrolledCount >= capacity;
+        }
+    }
 }
\ No newline at end of file
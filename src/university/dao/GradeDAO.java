@@ -1,21 +1,25 @@
 package university.dao;
 
 import university.config.DBConnection;
+import university.config.MiniConnectionPool;
 import university.model.Grade;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 성적 정보 DAO (Data Access Object)
  */
 public class GradeDAO {
 
-    private Connection conn;
+    // 메서드마다 현재 작업 단위의 커넥션을 빌려 씀 (트랜잭션 중이면 그 커넥션)
+    private final DBConnection db;
 
     public GradeDAO() {
-        this.conn = DBConnection.getInstance().getConnection();
+        this.db = DBConnection.getInstance();
     }
 
     /**
@@ -26,7 +30,8 @@ public class GradeDAO {
                 "final_grade, grade_point, grade_confirmed, confirmed_at, confirmed_by) " +
                 "VALUES (seq_grade.NEXTVAL, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, grade.getEnrollmentId());
 
             if (grade.getMidtermScore() != null) {
@@ -77,7 +82,8 @@ public class GradeDAO {
                 "JOIN course c ON oc.course_code = c.course_code " +
                 "WHERE g.enrollment_id = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, enrollmentId);
             ResultSet rs = pstmt.executeQuery();
 
@@ -106,7 +112,8 @@ public class GradeDAO {
                 "WHERE e.student_id = ? AND oc.year = ? AND oc.term = ? " +
                 "ORDER BY c.course_name_kr";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, studentId);
             pstmt.setInt(2, year);
             pstmt.setString(3, term);
@@ -137,7 +144,8 @@ public class GradeDAO {
                 "WHERE e.open_course_id = ? " +
                 "ORDER BY s.student_id";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, openCourseId);
             ResultSet rs = pstmt.executeQuery();
 
@@ -160,7 +168,8 @@ public class GradeDAO {
                 "confirmed_at = ?, confirmed_by = ? " +
                 "WHERE grade_id = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             if (grade.getMidtermScore() != null) {
                 pstmt.setDouble(1, grade.getMidtermScore());
             } else {
@@ -204,11 +213,8 @@ public class GradeDAO {
         boolean isSuccess = false;
 
         try {
-            // 1. 독립 커넥션 생성 (동시성 테스트를 위해 필수 - 스레드간 Connection 공유 방지)
-            String url = "jdbc:oracle:thin:@localhost:1521/xe";
-            String user = "c##park2";
-            String pass = "1234";
-            newConn = DriverManager.getConnection(url, user, pass);
+            // 1. 독립 커넥션 대여 (동시성 테스트를 위해 필수 - 스레드간 Connection 공유 방지)
+            newConn = MiniConnectionPool.getConnection();
 
             // 2. 트랜잭션 시작
             newConn.setAutoCommit(false);
@@ -249,14 +255,14 @@ public class GradeDAO {
                 newConn.rollback();
             }
 
-        } catch (SQLException e) {
+        } catch (Exception e) {
             e.printStackTrace();
             try { if (newConn != null) newConn.rollback(); } catch (SQLException ex) {}
         } finally {
             // 리소스 정리
             try { if (pstmtLock != null) pstmtLock.close(); } catch (Exception e) {}
             try { if (pstmtUpdate != null) pstmtUpdate.close(); } catch (Exception e) {}
-            try { if (newConn != null) newConn.close(); } catch (Exception e) {}
+            MiniConnectionPool.releaseConnection(newConn); // 풀에 반납
         }
         return isSuccess;
     }
@@ -264,7 +270,8 @@ public class GradeDAO {
     // 테스트 편의를 위해 가장 최근 성적 ID를 가져오는 헬퍼 메서드
     public int getLastGradeId() {
         String sql = "SELECT MAX(grade_id) FROM grade";
-        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             if (rs.next()) return rs.getInt(1);
         } catch (SQLException e) {
@@ -280,7 +287,8 @@ public class GradeDAO {
         String sql = "UPDATE grade SET grade_confirmed = 'Y', confirmed_at = SYSTIMESTAMP, " +
                 "confirmed_by = ? WHERE grade_id = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, confirmedBy);
             pstmt.setInt(2, gradeId);
 
@@ -294,6 +302,121 @@ public class GradeDAO {
         }
     }
 
+    /**
+     * 성적 1건이 속한 학생/학기의 평점 스냅샷 갱신 (성적 확정 직후 호출)
+     *
+     * @return 갱신된 평점 (학번, 연도, 학기, 평점), 실패 시 null
+     */
+    public TermGpa refreshTermGpa(int gradeId) {
+        String sql = "BEGIN " +
+                "MERGE INTO term_gpa t " +
+                "USING (SELECT e.student_id, oc.year, oc.term, " +
+                "              ROUND(SUM(g.grade_point * c.credit) / SUM(c.credit), 2) AS gpa, " +
+                "              SUM(c.credit) AS credits " +
+                "         FROM grade g " +
+                "         JOIN enrollment e ON g.enrollment_id = e.enrollment_id " +
+                "         JOIN open_course oc ON e.open_course_id = oc.open_course_id " +
+                "         JOIN course c ON oc.course_code = c.course_code " +
+                "         JOIN (SELECT e0.student_id, oc0.year, oc0.term " +
+                "                 FROM grade g0 " +
+                "                 JOIN enrollment e0 ON g0.enrollment_id = e0.enrollment_id " +
+                "                 JOIN open_course oc0 ON e0.open_course_id = oc0.open_course_id " +
+                "                WHERE g0.grade_id = ?) k " +
+                "           ON k.student_id = e.student_id AND k.year = oc.year AND k.term = oc.term " +
+                "        WHERE g.grade_confirmed = 'Y' AND g.grade_point IS NOT NULL " +
+                "        GROUP BY e.student_id, oc.year, oc.term " +
+                "       HAVING SUM(c.credit) > 0) src " +
+                "ON (t.year = src.year AND t.term = src.term AND t.student_id = src.student_id) " +
+                "WHEN MATCHED THEN UPDATE SET t.gpa = src.gpa, t.credits = src.credits, t.computed_at = SYSTIMESTAMP " +
+                "WHEN NOT MATCHED THEN INSERT (student_id, year, term, gpa, credits) " +
+                "     VALUES (src.student_id, src.year, src.term, src.gpa, src.credits); " +
+                "SELECT t.student_id, t.year, t.term, t.gpa INTO ?, ?, ?, ? " +
+                "  FROM term_gpa t " +
+                "  JOIN enrollment e ON e.student_id = t.student_id " +
+                "  JOIN open_course oc ON e.open_course_id = oc.open_course_id AND oc.year = t.year AND oc.term = t.term " +
+                "  JOIN grade g ON g.enrollment_id = e.enrollment_id " +
+                " WHERE g.grade_id = ?; " +
+                "END;";
+
+        try (Connection conn = db.getConnection();
+             CallableStatement cstmt = conn.prepareCall(sql)) {
+            cstmt.setInt(1, gradeId);
+            cstmt.registerOutParameter(2, Types.VARCHAR);
+            cstmt.registerOutParameter(3, Types.INTEGER);
+            cstmt.registerOutParameter(4, Types.VARCHAR);
+            cstmt.registerOutParameter(5, Types.NUMERIC);
+            cstmt.setInt(6, gradeId);
+            cstmt.execute();
+            return new TermGpa(cstmt.getString(2), cstmt.getInt(3), cstmt.getString(4), cstmt.getDouble(5));
+
+        } catch (SQLException e) {
+            System.err.println("학기 평점 갱신 실패: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 학기 전체 평점 스냅샷 재계산 (성적 일괄 확정 후 등)
+     */
+    public boolean rebuildTermGpa(int year, String term) {
+        String sql = "MERGE INTO term_gpa t " +
+                "USING (SELECT e.student_id, oc.year, oc.term, " +
+                "              ROUND(SUM(g.grade_point * c.credit) / SUM(c.credit), 2) AS gpa, " +
+                "              SUM(c.credit) AS credits " +
+                "         FROM grade g " +
+                "         JOIN enrollment e ON g.enrollment_id = e.enrollment_id " +
+                "         JOIN open_course oc ON e.open_course_id = oc.open_course_id " +
+                "         JOIN course c ON oc.course_code = c.course_code " +
+                "        WHERE oc.year = ? AND oc.term = ? " +
+                "          AND g.grade_confirmed = 'Y' AND g.grade_point IS NOT NULL " +
+                "        GROUP BY e.student_id, oc.year, oc.term " +
+                "       HAVING SUM(c.credit) > 0) src " +
+                "ON (t.year = src.year AND t.term = src.term AND t.student_id = src.student_id) " +
+                "WHEN MATCHED THEN UPDATE SET t.gpa = src.gpa, t.credits = src.credits, t.computed_at = SYSTIMESTAMP " +
+                "WHEN NOT MATCHED THEN INSERT (student_id, year, term, gpa, credits) " +
+                "     VALUES (src.student_id, src.year, src.term, src.gpa, src.credits)";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, year);
+            pstmt.setString(2, term);
+            int result = pstmt.executeUpdate();
+            System.out.println("학기 평점 재계산: " + year + " " + term + " (" + result + "명)");
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("학기 평점 재계산 실패: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 학기 평점 스냅샷 조회 (학번 → 평점)
+     *
+     * @return 조회 실패 시 null
+     */
+    public Map<String, Double> selectTermGpas(int year, String term) {
+        Map<String, Double> gpas = new HashMap<>();
+        String sql = "SELECT student_id, gpa FROM term_gpa WHERE year = ? AND term = ?";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, year);
+            pstmt.setString(2, term);
+            pstmt.setFetchSize(500);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                gpas.put(rs.getString("student_id"), rs.getDouble("gpa"));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("학기 평점 조회 실패: " + e.getMessage());
+            return null;
+        }
+        return gpas;
+    }
+
     /**
      * 학생의 전체 평점 계산
      */
@@ -306,7 +429,8 @@ public class GradeDAO {
                 "WHERE e.student_id = ? AND g.grade_confirmed = 'Y' " +
                 "AND g.grade_point IS NOT NULL";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, studentId);
             ResultSet rs = pstmt.executeQuery();
 
@@ -354,4 +478,37 @@ public class GradeDAO {
         grade.setConfirmedBy(rs.getString("confirmed_by"));
         return grade;
     }
-}
\ No newline at end of file
+
+    /**
+     * 학생 1명의 학기 평점
+     */
+    public static class TermGpa {
+        private final String studentId;
+        private final int year;
+        private final String term;
+        private final double gpa;
+
+        public TermGpa(String studentId, int year, String term, double gpa) {
+            this.studentId = studentId;
+            this.year = year;
+            this.term = term;
+            this.gpa = gpa;
+        }
+
+        public String getStudentId() {
+            return studentId;
+        }
+
+        public int getYear() {
+            return year;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+
+        public double getGpa() {
+            return gpa;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package university.dao;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HYBRID 방식용 강좌별 충돌률 추적
+ * - 낙관적 시도마다 충돌 여부를 지수 이동 평균으로 누적
+ * - 충돌률이 기준을 넘으면 일정 시간 동안 그 강좌는 비관적 락으로 처리
+ *   (인기 강좌는 락 대기가 재시도 폭주보다 싸고, 한산한 강좌는 락이 필요 없음)
+ *
+ * -Denrollment.hybridConflictThreshold=0.3   전환 기준 충돌률
+ * -Denrollment.hybridCooldownMs=5000         비관적 모드 유지 시간
+ */
+public class HybridConflictTracker {
+
+    private static final HybridConflictTracker INSTANCE = new HybridConflictTracker();
+
+    private static final double THRESHOLD =
+            Double.parseDouble(System.getProperty("enrollment.hybridConflictThreshold", "0.3"));
+    private static final long COOLDOWN_MS = Long.getLong("enrollment.hybridCooldownMs", 5000L);
+    private static final double ALPHA = 0.2; // 최근 시도 가중치
+
+    private final Map<Integer, CourseConflict> courses = new ConcurrentHashMap<>();
+
+    // 통계
+    private final AtomicLong switchesToPessimistic = new AtomicLong(0);
+
+    private HybridConflictTracker() {
+    }
+
+    public static HybridConflictTracker getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 이번 요청을 비관적 락으로 처리해야 하는지
+     */
+    public boolean shouldLock(int openCourseId) {
+        CourseConflict conflict = courses.get(openCourseId);
+        return conflict != null && System.currentTimeMillis() < conflict.pessimisticUntil;
+    }
+
+    /**
+     * 낙관적 시도 결과 기록
+     */
+    public void record(int openCourseId, boolean conflicted) {
+        CourseConflict conflict = courses.computeIfAbsent(openCourseId, id -> new CourseConflict());
+        synchronized (conflict) {
+            conflict.rate = conflict.rate * (1 - ALPHA) + (conflicted ? ALPHA : 0.0);
+            if (conflict.rate >= THRESHOLD && System.currentTimeMillis() >= conflict.pessimisticUntil) {
+                conflict.pessimisticUntil = System.currentTimeMillis() + COOLDOWN_MS;
+                conflict.rate = 0.0; // 쿨다운 후에는 새로 측정
+                switchesToPessimistic.incrementAndGet();
+            }
+        }
+    }
+
+    public double getConflictRate(int openCourseId) {
+        CourseConflict conflict = courses.get(openCourseId);
+        return conflict != null ? conflict.rate : 0.0;
+    }
+
+    public long getSwitchCount() {
+        return switchesToPessimistic.get();
+    }
+
+    public String getStats() {
+        return String.format("hybrid[threshold=%.2f, cooldownMs=%d, switches=%d, courses=%d]",
+                THRESHOLD, COOLDOWN_MS, getSwitchCount(), courses.size());
+    }
+
+    /**
+     * 강좌 1개의 충돌률 상태
+     */
+    private static class CourseConflict {
+        private volatile double rate;
+        private volatile long pessimisticUntil;
+    }
+}
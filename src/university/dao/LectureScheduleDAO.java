@@ -0,0 +1,131 @@
+package university.dao;
+
+import university.config.DBConnection;
+import university.model.LectureSchedule;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 강의 시간표 DAO (Data Access Object)
+ */
+public class LectureScheduleDAO {
+
+    // 메서드마다 현재 작업 단위의 커넥션을 빌려 씀 (트랜잭션 중이면 그 커넥션)
+    private final DBConnection db;
+
+    public LectureScheduleDAO() {
+        this.db = DBConnection.getInstance();
+    }
+
+    /**
+     * 시간표 등록
+     */
+    public boolean insert(LectureSchedule schedule) {
+        String sql = "INSERT INTO lecture_schedule (schedule_id, open_course_id, day_of_week, " +
+                "start_period, end_period, is_consecutive) " +
+                "VALUES (seq_lecture_schedule.NEXTVAL, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, schedule.getOpenCourseId());
+            pstmt.setInt(2, schedule.getDayOfWeek());
+            pstmt.setInt(3, schedule.getStartPeriod());
+            pstmt.setInt(4, schedule.getEndPeriod());
+            pstmt.setString(5, schedule.getIsConsecutive() != null ? schedule.getIsConsecutive() : "N");
+
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("시간표 등록 실패: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 개설강좌의 시간표 조회
+     */
+    public List<LectureSchedule> selectByOpenCourse(int openCourseId) {
+        List<LectureSchedule> list = new ArrayList<>();
+        String sql = "SELECT * FROM lecture_schedule WHERE open_course_id = ? " +
+                "ORDER BY day_of_week, start_period";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, openCourseId);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                list.add(mapResultSetToLectureSchedule(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("시간표 조회 실패: " + e.getMessage());
+        }
+        return list;
+    }
+
+    /**
+     * 학생이 해당 학기에 신청한 강좌들의 시간표 조회 (취소/대기 제외)
+     *
+     * @return 조회 실패 시 null (빈 시간표와 구분)
+     */
+    public List<LectureSchedule> selectByStudentTerm(String studentId, int year, String term) {
+        List<LectureSchedule> list = new ArrayList<>();
+        String sql = "SELECT ls.* FROM lecture_schedule ls " +
+                "JOIN enrollment e ON ls.open_course_id = e.open_course_id " +
+                "JOIN open_course oc ON e.open_course_id = oc.open_course_id " +
+                "WHERE e.student_id = ? AND oc.year = ? AND oc.term = ? " +
+                "AND e.status IN ('APPLIED', 'APPROVED')";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, studentId);
+            pstmt.setInt(2, year);
+            pstmt.setString(3, term);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                list.add(mapResultSetToLectureSchedule(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("학생 시간표 조회 실패: " + e.getMessage());
+            return null;
+        }
+        return list;
+    }
+
+    /**
+     * 개설강좌의 시간표 전체 삭제
+     */
+    public boolean deleteByOpenCourse(int openCourseId) {
+        String sql = "DELETE FROM lecture_schedule WHERE open_course_id = ?";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, openCourseId);
+            pstmt.executeUpdate();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("시간표 삭제 실패: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * ResultSet을 LectureSchedule 객체로 매핑
+     */
+    private LectureSchedule mapResultSetToLectureSchedule(ResultSet rs) throws SQLException {
+        LectureSchedule schedule = new LectureSchedule();
+        schedule.setScheduleId(rs.getInt("schedule_id"));
+        schedule.setOpenCourseId(rs.getInt("open_course_id"));
+        schedule.setDayOfWeek(rs.getInt("day_of_week"));
+        schedule.setStartPeriod(rs.getInt("start_period"));
+        schedule.setEndPeriod(rs.getInt("end_period"));
+        schedule.setIsConsecutive(rs.getString("is_consecutive"));
+        return schedule;
+    }
+}
@@ -0,0 +1,531 @@
+package university.dao;
+
+import university.config.DBConnection;
+import university.model.Enrollment;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 여러 행을 잠그는 트랜잭션의 락 관리자
+ *
+ * 전역 락 순서: 학생(학번순) → 개설강좌(ID순) → 수강신청 행
+ * (좌석 버킷 행은 SeatBucketDAO가 PL/SQL 안에서 잠그며 개설강좌와 수강신청 행 사이)
+ * - 한 트랜잭션 안에서 항상 이 순서로만 잠그면 대기 그래프에 순환이 생길 수 없음 (교착이 구조적으로 불가능)
+ * - 종류별로 정렬한 IN 목록 + ORDER BY로 한 문장에 잠금 (행마다 왕복하지 않음)
+ * - 락 대기 정책(LockWaitPolicy)은 모든 잠금 문장에 똑같이 적용
+ *
+ * 대기 그래프 기록 (이 JVM 안의 트랜잭션 기준)
+ * - 트랜잭션별로 잡고 있는 자원과 기다리는 자원을 메모리에 기록, 트랜잭션이 끝나면 정리
+ *   (보유자는 트랜잭션마다 새로 발급하는 번호로 구분, 스레드 이름은 겹칠 수 있어 표시용으로만 씀)
+ * - 기준 시간(-Denrollment.lockGraphThresholdMs, 기본 50) 이상 기다린 경우 "대기자 → 보유자" 간선을 남김
+ * - 이미 잡은 자원보다 순서가 앞선 자원을 잠그려 하면 순서 위반으로 집계
+ * - 기다리기 직전에 보유자 사슬을 따라가서 자기 자신으로 돌아오면 교착 후보로 집계 (순서를 지키면 0이어야 함)
+ */
+public class LockManager {
+
+    private static final LockManager INSTANCE = new LockManager();
+
+    private static final long GRAPH_THRESHOLD_MS = Long.getLong("enrollment.lockGraphThresholdMs", 50L);
+    private static final int MAX_RECENT_EDGES = 200;
+
+    private final DBConnection db = DBConnection.getInstance();
+    private final LockWaitPolicy policy = LockWaitPolicy.configured();
+    private final LockWaitHistogram histogram = LockWaitHistogram.getInstance();
+
+    // 자원 → 보유 트랜잭션, 트랜잭션 → 기다리는 자원
+    private final Map<LockKey, LockOwner> holders = new ConcurrentHashMap<>();
+    private final Map<LockOwner, List<LockKey>> waiting = new ConcurrentHashMap<>();
+    // 현재 스레드에서 진행 중인 트랜잭션 (잡고 있는 자원 포함)
+    private final ThreadLocal<LockOwner> current = new ThreadLocal<>();
+    private final AtomicLong ownerSequence = new AtomicLong(0);
+
+    // 대기 그래프 기록
+    private final Deque<WaitEdge> recentEdges = new ArrayDeque<>();
+    private final Map<String, AtomicLong> waitsByResource = new ConcurrentHashMap<>();
+    private final AtomicLong acquisitions = new AtomicLong(0);
+    private final AtomicLong recordedWaits = new AtomicLong(0);
+    private final AtomicLong orderViolations = new AtomicLong(0);
+    private final AtomicLong potentialDeadlocks = new AtomicLong(0);
+
+    private LockManager() {
+    }
+
+    public static LockManager getInstance() {
+        return INSTANCE;
+    }
+
+    public LockWaitPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * 학생 행 잠금 (학번순, 한 문장)
+     *
+     * @return 실제로 있는 학번
+     */
+    public Set<String> lockStudents(Connection conn, Collection<String> studentIds) throws SQLException {
+        Set<String> locked = new HashSet<>();
+        if (studentIds.isEmpty()) return locked;
+
+        TreeSet<String> sorted = new TreeSet<>(studentIds);
+        List<LockKey> keys = new ArrayList<>();
+        for (String studentId : sorted) {
+            keys.add(LockKey.student(studentId));
+        }
+        String sql = "SELECT student_id FROM student WHERE student_id IN (" + placeholders(sorted.size()) + ") " +
+                "ORDER BY student_id " + policy.forUpdate();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (String studentId : sorted) {
+                pstmt.setString(index++, studentId);
+            }
+            try (ResultSet rs = executeLocking(pstmt, keys)) {
+                while (rs.next()) locked.add(rs.getString(1));
+            }
+        }
+        return locked;
+    }
+
+    /**
+     * 개설강좌 행 잠금 (ID순, 한 문장) + 정원/학기/학점 정보
+     * course 테이블은 읽기만 하고 잠그지 않음 (FOR UPDATE OF)
+     *
+     * @return 강좌 ID순으로 정렬된 잠금 결과 (없는 강좌는 빠짐)
+     */
+    public Map<Integer, CourseLock> lockCourses(Connection conn, Collection<Integer> openCourseIds) throws SQLException {
+        Map<Integer, CourseLock> locked = new TreeMap<>();
+        if (openCourseIds.isEmpty()) return locked;
+
+        TreeSet<Integer> sorted = new TreeSet<>(openCourseIds);
+        List<LockKey> keys = new ArrayList<>();
+        for (Integer openCourseId : sorted) {
+            keys.add(LockKey.course(openCourseId));
+        }
+        String sql = "SELECT oc.open_course_id, oc.year, oc.term, oc.capacity, oc.enrolled_count, oc.is_canceled, c.credit " +
+                "FROM open_course oc " +
+                "JOIN course c ON oc.course_code = c.course_code " +
+                "WHERE oc.open_course_id IN (" + placeholders(sorted.size()) + ") " +
+                "ORDER BY oc.open_course_id " +
+                policy.forUpdateOf("oc.enrolled_count");
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer openCourseId : sorted) {
+                pstmt.setInt(index++, openCourseId);
+            }
+            try (ResultSet rs = executeLocking(pstmt, keys)) {
+                while (rs.next()) {
+                    CourseLock course = new CourseLock(rs.getInt("open_course_id"), rs.getInt("year"),
+                            rs.getString("term"), rs.getInt("capacity"), rs.getInt("enrolled_count"),
+                            "Y".equals(rs.getString("is_canceled")), rs.getDouble("credit"));
+                    locked.put(course.getOpenCourseId(), course);
+                }
+            }
+        }
+        return locked;
+    }
+
+    /**
+     * 수강신청 행 잠금 (ID순, 한 문장) - 학생/강좌 락을 잡은 뒤에 호출
+     *
+     * @return 수강신청 ID → 학번/강좌/상태 (없는 행은 빠짐)
+     */
+    public Map<Integer, Enrollment> lockEnrollments(Connection conn, Collection<Integer> enrollmentIds) throws SQLException {
+        Map<Integer, Enrollment> locked = new TreeMap<>();
+        if (enrollmentIds.isEmpty()) return locked;
+
+        TreeSet<Integer> sorted = new TreeSet<>(enrollmentIds);
+        List<LockKey> keys = new ArrayList<>();
+        for (Integer enrollmentId : sorted) {
+            keys.add(LockKey.enrollment(enrollmentId));
+        }
+        String sql = "SELECT enrollment_id, student_id, open_course_id, status FROM enrollment " +
+                "WHERE enrollment_id IN (" + placeholders(sorted.size()) + ") " +
+                "ORDER BY enrollment_id " + policy.forUpdate();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer enrollmentId : sorted) {
+                pstmt.setInt(index++, enrollmentId);
+            }
+            try (ResultSet rs = executeLocking(pstmt, keys)) {
+                while (rs.next()) {
+                    Enrollment enrollment = new Enrollment();
+                    enrollment.setEnrollmentId(rs.getInt("enrollment_id"));
+                    enrollment.setStudentId(rs.getString("student_id"));
+                    enrollment.setOpenCourseId(rs.getInt("open_course_id"));
+                    enrollment.setStatus(rs.getString("status"));
+                    locked.put(enrollment.getEnrollmentId(), enrollment);
+                }
+            }
+        }
+        return locked;
+    }
+
+    /**
+     * 락 대기 정책에 상한이 있고, 락을 못 잡아서 난 오류인지
+     */
+    public boolean isBusy(SQLException e) {
+        return policy.isBounded() && LockWaitPolicy.isLockBusy(e);
+    }
+
+    // 잠금 문장 실행 (FOR UPDATE는 커서를 열 때 락을 잡으므로 executeQuery 시간 = 락 대기 시간)
+    private ResultSet executeLocking(PreparedStatement pstmt, List<LockKey> keys) throws SQLException {
+        LockOwner me = currentOwner();
+        checkOrder(me, keys);
+
+        // 기다리기 전의 보유자 (오래 기다렸을 때 간선으로 남김)
+        Map<LockKey, LockOwner> observed = new LinkedHashMap<>();
+        for (LockKey key : keys) {
+            LockOwner owner = holders.get(key);
+            if (owner != null && owner != me) {
+                observed.put(key, owner);
+            }
+        }
+        waiting.put(me, keys);
+        if (!observed.isEmpty() && hasCycle(me)) {
+            potentialDeadlocks.incrementAndGet();
+            System.err.println("락 대기 순환 감지: " + me + " → " + observed);
+        }
+
+        long start = System.nanoTime();
+        LockWaitHistogram.Outcome outcome = LockWaitHistogram.Outcome.FAILED;
+        try {
+            ResultSet rs = pstmt.executeQuery();
+            outcome = LockWaitHistogram.Outcome.ACQUIRED;
+            return rs;
+        } catch (SQLException e) {
+            // 어떤 오류든 락은 잡지 못함 (보유 기록에 남기지 않음)
+            outcome = LockWaitPolicy.isLockBusy(e) ? LockWaitHistogram.Outcome.BUSY : LockWaitHistogram.Outcome.FAILED;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            waiting.remove(me);
+            histogram.record(elapsed, outcome);
+            acquisitions.incrementAndGet();
+            if (elapsed / 1_000_000 >= GRAPH_THRESHOLD_MS) {
+                recordWait(me, keys, observed, elapsed / 1_000_000);
+            }
+            if (outcome == LockWaitHistogram.Outcome.ACQUIRED) {
+                track(me, keys);
+            }
+        }
+    }
+
+    // 현재 트랜잭션의 보유자 (트랜잭션 중이면 끝날 때 잡은 자원과 함께 정리, auto-commit이면 이번 문장만)
+    private LockOwner currentOwner() {
+        LockOwner owner = current.get();
+        if (owner != null) {
+            return owner;
+        }
+        LockOwner created = new LockOwner(ownerSequence.incrementAndGet(), Thread.currentThread().getName());
+        if (db.isInTransaction()) {
+            current.set(created);
+            db.onCompletion(() -> {
+                for (LockKey key : created.held) {
+                    holders.remove(key, created);
+                }
+                current.remove();
+            });
+        }
+        return created;
+    }
+
+    // 이미 잡은 자원보다 앞 순서의 자원을 요청하면 순서 위반
+    private void checkOrder(LockOwner me, List<LockKey> keys) {
+        TreeSet<LockKey> mine = me.held;
+        if (mine.isEmpty()) {
+            return;
+        }
+        LockKey first = Collections.min(keys);
+        LockKey highest = mine.last();
+        if (first.compareTo(highest) < 0 && !mine.containsAll(keys)) {
+            orderViolations.incrementAndGet();
+            System.err.println("락 순서 위반: " + highest + " 보유 중 " + first + " 요청");
+        }
+    }
+
+    // 나 → (내가 기다리는 자원의 보유자) → (그가 기다리는 자원의 보유자) ... 가 나로 돌아오는지
+    private boolean hasCycle(LockOwner me) {
+        Set<LockOwner> visited = new HashSet<>();
+        Deque<LockOwner> stack = new ArrayDeque<>();
+        stack.push(me);
+        while (!stack.isEmpty()) {
+            LockOwner waiter = stack.pop();
+            List<LockKey> wanted = waiting.get(waiter);
+            if (wanted == null) continue;
+            for (LockKey key : wanted) {
+                LockOwner owner = holders.get(key);
+                if (owner == null || owner == waiter) continue;
+                if (owner == me) return true;
+                if (visited.add(owner)) stack.push(owner);
+            }
+        }
+        return false;
+    }
+
+    private void recordWait(LockOwner me, List<LockKey> keys, Map<LockKey, LockOwner> observed, long waitedMs) {
+        recordedWaits.incrementAndGet();
+        for (LockKey key : keys) {
+            waitsByResource.computeIfAbsent(key.getType().name(), k -> new AtomicLong()).incrementAndGet();
+        }
+        synchronized (recentEdges) {
+            if (observed.isEmpty()) {
+                // 다른 JVM/세션이 잡고 있던 락 (보유자를 모름)
+                recentEdges.addLast(new WaitEdge(me.toString(), null, keys.get(0), waitedMs));
+            }
+            for (Map.Entry<LockKey, LockOwner> entry : observed.entrySet()) {
+                recentEdges.addLast(new WaitEdge(me.toString(), entry.getValue().toString(), entry.getKey(), waitedMs));
+            }
+            while (recentEdges.size() > MAX_RECENT_EDGES) {
+                recentEdges.removeFirst();
+            }
+        }
+    }
+
+    // 잡은 자원 기록 (트랜잭션이 끝나면 currentOwner에서 등록한 정리 작업이 지움)
+    private void track(LockOwner me, List<LockKey> keys) {
+        if (current.get() != me) {
+            return; // auto-commit이면 문장이 끝나면서 락도 풀림
+        }
+        for (LockKey key : keys) {
+            me.held.add(key);
+            holders.put(key, me);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    // ===== 통계 조회 =====
+
+    public long getAcquisitionCount() {
+        return acquisitions.get();
+    }
+
+    public long getOrderViolationCount() {
+        return orderViolations.get();
+    }
+
+    public long getPotentialDeadlockCount() {
+        return potentialDeadlocks.get();
+    }
+
+    /**
+     * 최근 기록된 대기 간선 (오래된 것부터)
+     */
+    public List<WaitEdge> getRecentWaits() {
+        synchronized (recentEdges) {
+            return new ArrayList<>(recentEdges);
+        }
+    }
+
+    public String getStats() {
+        Map<String, Long> byResource = new TreeMap<>();
+        waitsByResource.forEach((type, count) -> byResource.put(type, count.get()));
+        return String.format("locks[policy=%s, acquisitions=%d, waits>=%dms=%d, byResource=%s, " +
+                        "orderViolations=%d, potentialDeadlocks=%d, held=%d]",
+                policy, getAcquisitionCount(), GRAPH_THRESHOLD_MS, recordedWaits.get(), byResource,
+                getOrderViolationCount(), getPotentialDeadlockCount(), holders.size());
+    }
+
+    /**
+     * 자원 종류 (선언 순서 = 전역 락 순서)
+     */
+    public enum ResourceType {
+        STUDENT,
+        OPEN_COURSE,
+        ENROLLMENT
+    }
+
+    /**
+     * 잠그는 자원 1개 (종류 → ID 순으로 정렬)
+     */
+    public static final class LockKey implements Comparable<LockKey> {
+        private final ResourceType type;
+        private final String textId;
+        private final long numericId;
+
+        private LockKey(ResourceType type, String textId, long numericId) {
+            this.type = type;
+            this.textId = textId;
+            this.numericId = numericId;
+        }
+
+        public static LockKey student(String studentId) {
+            return new LockKey(ResourceType.STUDENT, studentId, 0);
+        }
+
+        public static LockKey course(int openCourseId) {
+            return new LockKey(ResourceType.OPEN_COURSE, null, openCourseId);
+        }
+
+        public static LockKey enrollment(int enrollmentId) {
+            return new LockKey(ResourceType.ENROLLMENT, null, enrollmentId);
+        }
+
+        public ResourceType getType() {
+            return type;
+        }
+
+        @Override
+        public int compareTo(LockKey other) {
+            int byType = type.compareTo(other.type);
+            if (byType != 0) return byType;
+            if (textId != null && other.textId != null) return textId.compareTo(other.textId);
+            return Long.compare(numericId, other.numericId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LockKey)) return false;
+            return compareTo((LockKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return type.hashCode() * 31 + (textId != null ? textId.hashCode() : Long.hashCode(numericId));
+        }
+
+        @Override
+        public String toString() {
+            return type + "#" + (textId != null ? textId : String.valueOf(numericId));
+        }
+    }
+
+    /**
+     * 잠금 당시 개설강좌 정보
+     */
+    public static class CourseLock {
+        private final int openCourseId;
+        private final int year;
+        private final String term;
+        private final int capacity;
+        private final int enrolledCount;
+        private final boolean canceled;
+        private final double credit;
+
+        CourseLock(int openCourseId, int year, String term, int capacity, int enrolledCount,
+                   boolean canceled, double credit) {
+            this.openCourseId = openCourseId;
+            this.year = year;
+            this.term = term;
+            this.capacity = capacity;
+            this.enrolledCount = enrolledCount;
+            this.canceled = canceled;
+            this.credit = credit;
+        }
+
+        public int getOpenCourseId() {
+            return openCourseId;
+        }
+
+        public int getYear() {
+            return year;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public int getEnrolledCount() {
+            return enrolledCount;
+        }
+
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        public double getCredit() {
+            return credit;
+        }
+
+        // year#term (학기별 학점 합계 키)
+        public String getTermKey() {
+            return year + "#" + term;
+        }
+    }
+
+    /**
+     * 락을 잡는 트랜잭션 1개 (번호로 구분, 스레드 이름은 표시용)
+     */
+    private static final class LockOwner {
+        private final long id;
+        private final String threadName;
+        private final TreeSet<LockKey> held = new TreeSet<>();
+
+        private LockOwner(long id, String threadName) {
+            this.id = id;
+            this.threadName = threadName;
+        }
+
+        @Override
+        public String toString() {
+            return threadName + "#" + id;
+        }
+    }
+
+    /**
+     * 관찰된 대기 간선 (holder가 null이면 이 JVM 밖의 보유자)
+     */
+    public static class WaitEdge {
+        private final String waiter;
+        private final String holder;
+        private final LockKey resource;
+        private final long waitedMs;
+        private final long observedAt;
+
+        WaitEdge(String waiter, String holder, LockKey resource, long waitedMs) {
+            this.waiter = waiter;
+            this.holder = holder;
+            this.resource = resource;
+            this.waitedMs = waitedMs;
+            this.observedAt = System.currentTimeMillis();
+        }
+
+        public String getWaiter() {
+            return waiter;
+        }
+
+        public String getHolder() {
+            return holder;
+        }
+
+        public LockKey getResource() {
+            return resource;
+        }
+
+        public long getWaitedMs() {
+            return waitedMs;
+        }
+
+        public long getObservedAt() {
+            return observedAt;
+        }
+
+        @Override
+        public String toString() {
+            return waiter + " → " + (holder != null ? holder : "(외부)") + " on " + resource + " " + waitedMs + "ms";
+        }
+    }
+}
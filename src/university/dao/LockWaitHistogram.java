@@ -0,0 +1,103 @@
+package university.dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 수강신청 행 락 대기 시간 분포
+ * - 락을 거는 SELECT ... FOR UPDATE 문장의 실행 시간을 구간별로 집계
+ * - 락을 못 잡고 BUSY로 끝난 건수(NOWAIT/WAIT 초과)와 그 밖의 오류로 끝난 건수를 따로 셈
+ */
+public class LockWaitHistogram {
+
+    private static final LockWaitHistogram INSTANCE = new LockWaitHistogram();
+
+    // 구간 상한 (ms), 마지막 구간은 그 이상
+    private static final long[] BOUNDS_MS = {1, 5, 10, 50, 100, 500, 1000, 5000};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MS.length + 1);
+    private final AtomicLong samples = new AtomicLong(0);
+    private final AtomicLong busy = new AtomicLong(0);
+    private final AtomicLong failed = new AtomicLong(0);
+    private final AtomicLong totalNanos = new AtomicLong(0);
+    private final AtomicLong maxNanos = new AtomicLong(0);
+
+    private LockWaitHistogram() {
+    }
+
+    public static LockWaitHistogram getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 락 문장 1회 기록
+     */
+    public void record(long elapsedNanos, Outcome outcome) {
+        long elapsedMs = elapsedNanos / 1_000_000;
+        int index = 0;
+        while (index < BOUNDS_MS.length && elapsedMs >= BOUNDS_MS[index]) {
+            index++;
+        }
+        buckets.incrementAndGet(index);
+        samples.incrementAndGet();
+        totalNanos.addAndGet(elapsedNanos);
+        maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        if (outcome == Outcome.BUSY) {
+            busy.incrementAndGet();
+        } else if (outcome == Outcome.FAILED) {
+            failed.incrementAndGet();
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        samples.set(0);
+        busy.set(0);
+        failed.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    // ===== 통계 조회 =====
+
+    public long getSampleCount() {
+        return samples.get();
+    }
+
+    public long getBusyCount() {
+        return busy.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public String getStats() {
+        StringBuilder sb = new StringBuilder("lockWait[samples=").append(samples.get())
+                .append(", busy=").append(busy.get())
+                .append(", failed=").append(failed.get());
+        long count = samples.get();
+        if (count > 0) {
+            sb.append(String.format(", avg=%.2fms, max=%.2fms",
+                    totalNanos.get() / 1_000_000.0 / count, maxNanos.get() / 1_000_000.0));
+        }
+        sb.append(", buckets={");
+        for (int i = 0; i < buckets.length(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(i < BOUNDS_MS.length ? "<" + BOUNDS_MS[i] + "ms" : ">=" + BOUNDS_MS[BOUNDS_MS.length - 1] + "ms")
+                    .append('=').append(buckets.get(i));
+        }
+        return sb.append("}]").toString();
+    }
+
+    /**
+     * 락 문장 결과
+     */
+    public enum Outcome {
+        ACQUIRED,  // 락을 잡음
+        BUSY,      // NOWAIT/WAIT 초과로 못 잡음
+        FAILED     // 그 밖의 오류 (교착 감지, 연결 끊김 등)
+    }
+}
@@ -0,0 +1,130 @@
+package university.dao;
+
+import university.config.TransactionTemplate;
+
+import java.sql.SQLException;
+
+/**
+ * 수강신청 행 락 대기 정책
+ * - BLOCK: FOR UPDATE (락이 풀릴 때까지 줄 서서 기다림, 기존 방식)
+ * - NOWAIT: FOR UPDATE NOWAIT (잠겨 있으면 바로 ApplyOutcome.BUSY)
+ * - WAIT n: FOR UPDATE WAIT n (n초까지만 기다리고 ApplyOutcome.BUSY)
+ *
+ * -Denrollment.lockWait=block|nowait|wait_3 (기본 block)
+ * 제한이 있는 정책에서 락 대기 실패는 트랜잭션 재시도 없이 바로 BUSY로 돌려줌 (응답 시간 상한 = 설정값)
+ */
+public final class LockWaitPolicy {
+
+    public enum Kind {
+        BLOCK,
+        NOWAIT,
+        WAIT
+    }
+
+    public static final LockWaitPolicy BLOCK = new LockWaitPolicy(Kind.BLOCK, 0);
+    public static final LockWaitPolicy NOWAIT = new LockWaitPolicy(Kind.NOWAIT, 0);
+
+    private final Kind kind;
+    private final int waitSeconds;
+
+    private LockWaitPolicy(Kind kind, int waitSeconds) {
+        this.kind = kind;
+        this.waitSeconds = waitSeconds;
+    }
+
+    public static LockWaitPolicy waitSeconds(int seconds) {
+        return seconds <= 0 ? NOWAIT : new LockWaitPolicy(Kind.WAIT, seconds);
+    }
+
+    /**
+     * JVM 옵션에 설정된 정책 (잘못된 값이면 BLOCK)
+     */
+    public static LockWaitPolicy configured() {
+        return parse(System.getProperty("enrollment.lockWait"), BLOCK);
+    }
+
+    /**
+     * "block", "nowait", "wait_3" / "wait 3" / "wait3" 형식
+     */
+    public static LockWaitPolicy parse(String value, LockWaitPolicy defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        String normalized = value.trim().toUpperCase().replace("_", "").replace(" ", "");
+        if ("BLOCK".equals(normalized)) {
+            return BLOCK;
+        }
+        if ("NOWAIT".equals(normalized)) {
+            return NOWAIT;
+        }
+        if (normalized.startsWith("WAIT")) {
+            try {
+                return waitSeconds(Integer.parseInt(normalized.substring(4)));
+            } catch (NumberFormatException e) {
+                // 아래에서 기본값 사용
+            }
+        }
+        System.err.println("알 수 없는 락 대기 정책: " + value + " (" + defaultValue + " 사용)");
+        return defaultValue;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getWaitSeconds() {
+        return waitSeconds;
+    }
+
+    /**
+     * 대기 시간에 상한이 있는 정책인지 (BLOCK이 아니면 true)
+     */
+    public boolean isBounded() {
+        return kind != Kind.BLOCK;
+    }
+
+    /**
+     * SELECT 끝에 붙일 잠금 절 (예: "FOR UPDATE WAIT 3")
+     */
+    public String forUpdate() {
+        return "FOR UPDATE" + suffix();
+    }
+
+    /**
+     * 특정 컬럼 기준 잠금 절 (예: "FOR UPDATE OF oc.enrolled_count NOWAIT")
+     */
+    public String forUpdateOf(String column) {
+        return "FOR UPDATE OF " + column + suffix();
+    }
+
+    private String suffix() {
+        switch (kind) {
+            case NOWAIT:
+                return " NOWAIT";
+            case WAIT:
+                return " WAIT " + waitSeconds;
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * 락을 못 잡아서 난 오류인지 (ORA-00054 NOWAIT, ORA-30006 WAIT 시간 초과, 원인 체인까지 확인)
+     */
+    public static boolean isLockBusy(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                int code = ((SQLException) t).getErrorCode();
+                if (code == TransactionTemplate.ORA_RESOURCE_BUSY || code == TransactionTemplate.ORA_LOCK_WAIT_TIMEOUT) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.WAIT ? "WAIT " + waitSeconds : kind.name();
+    }
+}
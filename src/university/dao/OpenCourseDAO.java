@@ -1,10 +1,13 @@
 package university.dao;
 
 import university.config.DBConnection;
+import university.config.TransactionTemplate;
 import university.model.OpenCourse;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -12,10 +15,15 @@ import java.util.List;
  */
 public class OpenCourseDAO {
 
-    private Connection conn;
+    // 좌석 버킷에 옮겨 둔 잔여석 (화면에는 enrolled_count에서 빼서 실제 신청 인원으로 보여 줌)
+    private static final String BUCKET_SEATS = "NVL((SELECT SUM(b.remaining) FROM open_course_seat_bucket b " +
+            "WHERE b.open_course_id = oc.open_course_id), 0) AS bucket_seats";
+
+    // 메서드마다 현재 작업 단위의 커넥션을 빌려 씀 (트랜잭션 중이면 그 커넥션)
+    private final DBConnection db;
 
     public OpenCourseDAO() {
-        this.conn = DBConnection.getInstance().getConnection();
+        this.db = DBConnection.getInstance();
     }
 
     /**
@@ -26,7 +34,8 @@ public class OpenCourseDAO {
                 "section, professor_id, room, capacity, enrolled_count, is_canceled) " +
                 "VALUES (seq_open_course.NEXTVAL, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, openCourse.getYear());
             pstmt.setString(2, openCourse.getTerm());
             pstmt.setString(3, openCourse.getCourseCode());
@@ -52,13 +61,14 @@ public class OpenCourseDAO {
      * 개설강좌 ID로 조회
      */
     public OpenCourse selectById(int openCourseId) {
-        String sql = "SELECT oc.*, c.course_name_kr, c.credit, p.name_kr as professor_name " +
+        String sql = "SELECT oc.*, c.course_name_kr, c.credit, p.name_kr as professor_name, " + BUCKET_SEATS + " " +
                 "FROM open_course oc " +
                 "LEFT JOIN course c ON oc.course_code = c.course_code " +
                 "LEFT JOIN professor p ON oc.professor_id = p.professor_id " +
                 "WHERE oc.open_course_id = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, openCourseId);
             ResultSet rs = pstmt.executeQuery();
 
@@ -77,14 +87,15 @@ public class OpenCourseDAO {
      */
     public List<OpenCourse> selectByYearAndTerm(int year, String term) {
         List<OpenCourse> list = new ArrayList<>();
-        String sql = "SELECT oc.*, c.course_name_kr, c.credit, p.name_kr as professor_name " +
+        String sql = "SELECT oc.*, c.course_name_kr, c.credit, p.name_kr as professor_name, " + BUCKET_SEATS + " " +
                 "FROM open_course oc " +
                 "LEFT JOIN course c ON oc.course_code = c.course_code " +
                 "LEFT JOIN professor p ON oc.professor_id = p.professor_id " +
                 "WHERE oc.year = ? AND oc.term = ? AND oc.is_canceled = 'N' " +
                 "ORDER BY oc.course_code, oc.section";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, year);
             pstmt.setString(2, term);
             ResultSet rs = pstmt.executeQuery();
@@ -104,14 +115,15 @@ public class OpenCourseDAO {
      */
     public List<OpenCourse> selectByProfessor(String professorId, int year, String term) {
         List<OpenCourse> list = new ArrayList<>();
-        String sql = "SELECT oc.*, c.course_name_kr, c.credit, p.name_kr as professor_name " +
+        String sql = "SELECT oc.*, c.course_name_kr, c.credit, p.name_kr as professor_name, " + BUCKET_SEATS + " " +
                 "FROM open_course oc " +
                 "LEFT JOIN course c ON oc.course_code = c.course_code " +
                 "LEFT JOIN professor p ON oc.professor_id = p.professor_id " +
                 "WHERE oc.professor_id = ? AND oc.year = ? AND oc.term = ? " +
                 "ORDER BY oc.course_code";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, professorId);
             pstmt.setInt(2, year);
             pstmt.setString(3, term);
@@ -132,7 +144,7 @@ public class OpenCourseDAO {
      */
     public List<OpenCourse> searchByCourseName(int year, String term, String keyword) {
         List<OpenCourse> list = new ArrayList<>();
-        String sql = "SELECT oc.*, c.course_name_kr, c.credit, p.name_kr as professor_name " +
+        String sql = "SELECT oc.*, c.course_name_kr, c.credit, p.name_kr as professor_name, " + BUCKET_SEATS + " " +
                 "FROM open_course oc " +
                 "LEFT JOIN course c ON oc.course_code = c.course_code " +
                 "LEFT JOIN professor p ON oc.professor_id = p.professor_id " +
@@ -140,7 +152,8 @@ public class OpenCourseDAO {
                 "AND oc.is_canceled = 'N' " +
                 "ORDER BY oc.course_code, oc.section";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, year);
             pstmt.setString(2, term);
             pstmt.setString(3, "%" + keyword + "%");
@@ -158,26 +171,48 @@ public class OpenCourseDAO {
 
     /**
      * 개설강좌 정보 수정
+     * - 강좌 행을 잠그고 수정 (전역 락 순서: 강좌 → 버킷 행)
+     * - 좌석 버킷을 쓰는 강좌면 같은 트랜잭션에서 버킷 잔여석을 새 정원에 맞춤
      */
     public boolean update(OpenCourse openCourse) {
         String sql = "UPDATE open_course SET year = ?, term = ?, course_code = ?, " +
                 "section = ?, professor_id = ?, room = ?, capacity = ?, " +
                 "is_canceled = ? WHERE open_course_id = ?";
-
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, openCourse.getYear());
-            pstmt.setString(2, openCourse.getTerm());
-            pstmt.setString(3, openCourse.getCourseCode());
-            pstmt.setString(4, openCourse.getSection());
-            pstmt.setString(5, openCourse.getProfessorId());
-            pstmt.setString(6, openCourse.getRoom());
-            pstmt.setInt(7, openCourse.getCapacity());
-            pstmt.setString(8, openCourse.getIsCanceled());
-            pstmt.setInt(9, openCourse.getOpenCourseId());
-
-            int result = pstmt.executeUpdate();
+        int openCourseId = openCourse.getOpenCourseId();
+        SeatBucketDAO seatBuckets = SeatBucketDAO.getInstance();
+
+        try {
+            boolean updated = TransactionTemplate.getDefault().execute(conn -> {
+                LockManager.CourseLock course = LockManager.getInstance()
+                        .lockCourses(conn, Collections.singleton(openCourseId)).get(openCourseId);
+                if (course == null) {
+                    return false;
+                }
+                seatBuckets.resizeInTransaction(conn, course, openCourse.getCapacity());
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, openCourse.getYear());
+                    pstmt.setString(2, openCourse.getTerm());
+                    pstmt.setString(3, openCourse.getCourseCode());
+                    pstmt.setString(4, openCourse.getSection());
+                    pstmt.setString(5, openCourse.getProfessorId());
+                    pstmt.setString(6, openCourse.getRoom());
+                    pstmt.setInt(7, openCourse.getCapacity());
+                    pstmt.setString(8, openCourse.getIsCanceled());
+                    pstmt.setInt(9, openCourseId);
+                    return pstmt.executeUpdate() > 0;
+                }
+            });
+            if (!updated) {
+                System.err.println("개설강좌 정보 수정 실패: 존재하지 않는 강좌 (" + openCourseId + ")");
+                return false;
+            }
             System.out.println("개설강좌 정보 수정 성공");
-            return result > 0;
+            SeatAdmissionGate.getInstance().invalidate(openCourseId); // 정원 변경 반영
+            if (seatBuckets.isBucketed(openCourseId)) {
+                seatBuckets.refresh(); // 학기 변경 반영 (학점 한도 계산용)
+            }
+            return true;
 
         } catch (SQLException e) {
             System.err.println("개설강좌 정보 수정 실패: " + e.getMessage());
@@ -186,21 +221,81 @@ public class OpenCourseDAO {
     }
 
     /**
-     * 개설강좌 폐강 처리
+     * 개설강좌 폐강 처리 (수강신청까지 함께 취소)
      */
     public boolean cancel(int openCourseId) {
-        String sql = "UPDATE open_course SET is_canceled = 'Y' WHERE open_course_id = ?";
-
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, openCourseId);
+        return cancelWithEnrollments(openCourseId) != null;
+    }
 
-            int result = pstmt.executeUpdate();
-            System.out.println("개설강좌 폐강 처리 성공");
-            return result > 0;
+    /**
+     * 개설강좌 폐강 + 수강신청 일괄 취소 (잠금 1회 + PL/SQL 1회 왕복)
+     * - LockManager로 강좌 행을 먼저 잠그고 (전역 락 순서: 강좌 → 수강신청 행) 폐강 표시와 함께 신청 인원을 0으로 맞춤
+     * - 좌석 버킷이 있으면 먼저 지움 (버킷에서 자리를 받는 중인 신청이 끝날 때까지 기다린 뒤 함께 취소됨)
+     * - 남아 있는 신청(승인/대기 등)은 UPDATE 한 문장으로 CANCELLED 처리
+     *   (pkg_enrollment_ctx 플래그로 행마다 도는 정원 트리거를 건너뜀)
+     * - 취소된 학생 학번은 RETURNING BULK COLLECT로 모아서 쉼표로 이은 CLOB 한 개로 받음
+     *
+     * @return 신청이 취소된 학생 학번 목록 (없는 강좌/실패 시 null)
+     */
+    public List<String> cancelWithEnrollments(int openCourseId) {
+        String sql = "DECLARE " +
+                "  p_course_id open_course.open_course_id%TYPE := ?; " +
+                "  TYPE t_students IS TABLE OF enrollment.student_id%TYPE; " +
+                "  v_students t_students; " +
+                "  v_found    NUMBER; " +
+                "  v_list     CLOB; " +
+                "BEGIN " +
+                "  UPDATE open_course SET is_canceled = 'Y', enrolled_count = 0 " +
+                "   WHERE open_course_id = p_course_id; " +
+                "  v_found := SQL%ROWCOUNT; " +
+                "  IF v_found > 0 THEN " +
+                "    DELETE FROM open_course_seat_bucket WHERE open_course_id = p_course_id; " +
+                "    pkg_enrollment_ctx.g_suppress_count := TRUE; " +
+                "    UPDATE enrollment SET status = 'CANCELLED' " +
+                "     WHERE open_course_id = p_course_id AND status != 'CANCELLED' " +
+                "    RETURNING student_id BULK COLLECT INTO v_students; " +
+                "    pkg_enrollment_ctx.g_suppress_count := FALSE; " +
+                "    FOR i IN 1 .. v_students.COUNT LOOP " +
+                "      v_list := v_list || CASE WHEN i > 1 THEN ',' END || v_students(i); " +
+                "    END LOOP; " +
+                "  END IF; " +
+                "  ? := v_found; " +
+                "  ? := v_list; " +
+                "EXCEPTION " +
+                "  WHEN OTHERS THEN " +
+                "    pkg_enrollment_ctx.g_suppress_count := FALSE; " +
+                "    RAISE; " +
+                "END;";
+
+        try {
+            List<String> students = TransactionTemplate.getDefault().execute(conn -> {
+                if (LockManager.getInstance().lockCourses(conn, Collections.singleton(openCourseId)).isEmpty()) {
+                    return null;
+                }
+                try (CallableStatement cstmt = conn.prepareCall(sql)) {
+                    cstmt.setInt(1, openCourseId);
+                    cstmt.registerOutParameter(2, Types.INTEGER);
+                    cstmt.registerOutParameter(3, Types.CLOB);
+                    cstmt.execute();
+                    if (cstmt.getInt(2) == 0) {
+                        return null;
+                    }
+                    String list = cstmt.getString(3);
+                    return list == null ? new ArrayList<String>() : new ArrayList<>(Arrays.asList(list.split(",")));
+                }
+            });
+            if (students == null) {
+                System.err.println("개설강좌 폐강 처리 실패: 존재하지 않는 강좌 (" + openCourseId + ")");
+                return null;
+            }
+            System.out.println("개설강좌 폐강 처리 성공 (수강신청 " + students.size() + "건 취소)");
+            SeatAdmissionGate.getInstance().invalidate(openCourseId);
+            SeatBucketDAO.getInstance().forget(openCourseId);
+            return students;
 
         } catch (SQLException e) {
             System.err.println("개설강좌 폐강 처리 실패: " + e.getMessage());
-            return false;
+            return null;
         }
     }
 
@@ -210,7 +305,8 @@ public class OpenCourseDAO {
     public boolean delete(int openCourseId) {
         String sql = "DELETE FROM open_course WHERE open_course_id = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, openCourseId);
 
             int result = pstmt.executeUpdate();
@@ -239,7 +335,7 @@ public class OpenCourseDAO {
         oc.setProfessorName(rs.getString("professor_name"));
         oc.setRoom(rs.getString("room"));
         oc.setCapacity(rs.getInt("capacity"));
-        oc.setEnrolledCount(rs.getInt("enrolled_count"));
+        oc.setEnrolledCount(rs.getInt("enrolled_count") - rs.getInt("bucket_seats"));
         oc.setIsCanceled(rs.getString("is_canceled"));
         return oc;
     }
@@ -0,0 +1,119 @@
+package university.dao;
+
+import university.config.DBConnection;
+import university.model.Prerequisite;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 선수과목/동시수강 관계 DAO (Data Access Object)
+ */
+public class PrerequisiteDAO {
+
+    // 메서드마다 현재 작업 단위의 커넥션을 빌려 씀 (트랜잭션 중이면 그 커넥션)
+    private final DBConnection db;
+
+    public PrerequisiteDAO() {
+        this.db = DBConnection.getInstance();
+    }
+
+    /**
+     * 선수과목 관계 등록
+     */
+    public boolean insert(Prerequisite prerequisite) {
+        String sql = "INSERT INTO prerequisite (course_code, prereq_course_code, coreq_flag) VALUES (?, ?, ?)";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, prerequisite.getCourseCode());
+            pstmt.setString(2, prerequisite.getPrereqCourseCode());
+            pstmt.setString(3, prerequisite.isCorequisite() ? "Y" : "N");
+
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("선수과목 등록 실패: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 선수과목 관계 삭제
+     */
+    public boolean delete(String courseCode, String prereqCourseCode) {
+        String sql = "DELETE FROM prerequisite WHERE course_code = ? AND prereq_course_code = ?";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, courseCode);
+            pstmt.setString(2, prereqCourseCode);
+
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("선수과목 삭제 실패: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 전체 선수과목 관계 조회
+     *
+     * @return 조회 실패 시 null
+     */
+    public List<Prerequisite> selectAll() {
+        List<Prerequisite> list = new ArrayList<>();
+        String sql = "SELECT * FROM prerequisite ORDER BY course_code, prereq_course_code";
+
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                list.add(new Prerequisite(
+                        rs.getString("course_code"),
+                        rs.getString("prereq_course_code"),
+                        rs.getString("coreq_flag")));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("선수과목 조회 실패: " + e.getMessage());
+            return null;
+        }
+        return list;
+    }
+
+    /**
+     * 학생이 이수한 과목 코드 (성적 확정 + F 아님)
+     *
+     * @return 조회 실패 시 null
+     */
+    public Set<String> selectPassedCourseCodes(String studentId) {
+        Set<String> passed = new HashSet<>();
+        String sql = "SELECT DISTINCT oc.course_code " +
+                "FROM grade g " +
+                "JOIN enrollment e ON g.enrollment_id = e.enrollment_id " +
+                "JOIN open_course oc ON e.open_course_id = oc.open_course_id " +
+                "WHERE e.student_id = ? AND g.grade_confirmed = 'Y' " +
+                "AND g.final_grade IS NOT NULL AND g.final_grade <> 'F'";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, studentId);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                passed.add(rs.getString(1));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("이수 과목 조회 실패: " + e.getMessage());
+            return null;
+        }
+        return passed;
+    }
+}
@@ -12,10 +12,11 @@ import java.util.List;
  */
 public class ProfessorDAO {
 
-    private Connection conn;
+    // 메서드마다 현재 작업 단위의 커넥션을 빌려 씀 (트랜잭션 중이면 그 커넥션)
+    private final DBConnection db;
 
     public ProfessorDAO() {
-        this.conn = DBConnection.getInstance().getConnection();
+        this.db = DBConnection.getInstance();
     }
 
     /**
@@ -26,7 +27,8 @@ public class ProfessorDAO {
                 "dept_code, position, office_location, office_phone, email, hire_date) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, professor.getProfessorId());
             pstmt.setString(2, professor.getNameKr());
             pstmt.setString(3, professor.getNameEn());
@@ -58,7 +60,8 @@ public class ProfessorDAO {
                 "LEFT JOIN department d ON p.dept_code = d.dept_code " +
                 "WHERE p.professor_id = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, professorId);
             ResultSet rs = pstmt.executeQuery();
 
@@ -81,7 +84,8 @@ public class ProfessorDAO {
                 "LEFT JOIN department d ON p.dept_code = d.dept_code " +
                 "ORDER BY p.professor_id";
 
-        try (Statement stmt = conn.createStatement();
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
@@ -103,7 +107,8 @@ public class ProfessorDAO {
                 "LEFT JOIN department d ON p.dept_code = d.dept_code " +
                 "WHERE p.dept_code = ? ORDER BY p.professor_id";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, deptCode);
             ResultSet rs = pstmt.executeQuery();
 
@@ -127,7 +132,8 @@ public class ProfessorDAO {
                 "WHERE p.name_kr LIKE ? OR p.name_en LIKE ? " +
                 "ORDER BY p.professor_id";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             String searchKeyword = "%" + keyword + "%";
             pstmt.setString(1, searchKeyword);
             pstmt.setString(2, searchKeyword);
@@ -151,7 +157,8 @@ public class ProfessorDAO {
                 "dept_code = ?, position = ?, office_location = ?, office_phone = ?, " +
                 "email = ?, hire_date = ? WHERE professor_id = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, professor.getNameKr());
             pstmt.setString(2, professor.getNameEn());
             pstmt.setString(3, professor.getRrn());
@@ -181,7 +188,8 @@ public class ProfessorDAO {
     public boolean delete(String professorId) {
         String sql = "DELETE FROM professor WHERE professor_id = ?";
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, professorId);
 
             int result = pstmt.executeUpdate();
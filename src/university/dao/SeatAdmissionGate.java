@@ -0,0 +1,233 @@
+package university.dao;
+
+import university.config.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 개설강좌별 잔여석 입장 관문 (JVM 메모리)
+ * - open_course_id별 잔여석 카운터 (capacity - enrolled_count 로 초기화)
+ * - 잔여석이 0인 강좌 요청은 커넥션 풀/행 락을 건드리기 전에 바로 거절
+ * - 최종 판단은 항상 DB: 관문을 통과해도 DB에서 정원 초과면 실패하고 카운터를 0으로 맞춤
+ * - 자리가 0인 카운터는 일정 시간마다 DB에서 다시 읽어서 취소로 생긴 빈자리를 반영
+ *
+ * -Denrollment.admissionGate=false 로 끌 수 있음
+ */
+public class SeatAdmissionGate {
+
+    private static final SeatAdmissionGate INSTANCE = new SeatAdmissionGate();
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("enrollment.admissionGate", "true"));
+    // 매진된 강좌를 DB와 다시 맞춰보는 최소 간격 (요청마다 DB를 보지 않도록)
+    private static final long RECHECK_INTERVAL_MS = Long.getLong("enrollment.admissionRecheckMs", 1000L);
+
+    private final DBConnection db = DBConnection.getInstance();
+    private final Map<Integer, SeatCounter> counters = new ConcurrentHashMap<>();
+
+    // 통계
+    private final AtomicLong admitted = new AtomicLong(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+    private final AtomicLong reloads = new AtomicLong(0);
+
+    private SeatAdmissionGate() {
+    }
+
+    public static SeatAdmissionGate getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 자리 1개 예약 시도
+     *
+     * @return false면 매진 (DB까지 갈 필요 없음)
+     */
+    public boolean tryAcquire(int openCourseId) {
+        if (!ENABLED) {
+            return true;
+        }
+
+        SeatCounter counter = getOrLoad(openCourseId);
+        if (counter == null) {
+            // 없는 강좌/폐강/조회 실패 → DB가 정확한 사유를 판단하도록 통과
+            admitted.incrementAndGet();
+            return true;
+        }
+
+        if (counter.tryTake() || (refreshIfStale(openCourseId, counter) && counter.tryTake())) {
+            admitted.incrementAndGet();
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * DB 처리 결과를 반영
+     * - SUCCESS: 예약한 자리가 실제로 쓰임
+     * - COURSE_FULL: DB 기준 매진 → 카운터 0
+     * - 그 외: 자리를 쓰지 않았으므로 반환
+     */
+    public void settle(int openCourseId, ApplyOutcome outcome) {
+        if (!ENABLED || outcome == ApplyOutcome.SUCCESS) {
+            return;
+        }
+        SeatCounter counter = counters.get(openCourseId);
+        if (counter == null) {
+            return;
+        }
+        if (outcome == ApplyOutcome.COURSE_FULL) {
+            counter.remaining.set(0);
+        } else {
+            counter.remaining.incrementAndGet();
+        }
+    }
+
+    /**
+     * 자리가 생김 (수강 취소 등)
+     */
+    public void release(int openCourseId) {
+        SeatCounter counter = counters.get(openCourseId);
+        if (counter != null) {
+            counter.remaining.incrementAndGet();
+        }
+    }
+
+    /**
+     * 캐시 제거 (정원 변경, 폐강 등) → 다음 요청 때 DB에서 다시 읽음
+     */
+    public void invalidate(int openCourseId) {
+        counters.remove(openCourseId);
+    }
+
+    /**
+     * 캐시된 모든 강좌를 DB 값으로 다시 맞춤
+     */
+    public void reconcileAll() {
+        for (Integer openCourseId : counters.keySet()) {
+            Integer remaining = loadRemaining(openCourseId);
+            if (remaining == null) {
+                counters.remove(openCourseId);
+            } else {
+                SeatCounter counter = counters.get(openCourseId);
+                if (counter != null) {
+                    counter.reset(remaining);
+                }
+            }
+        }
+    }
+
+    private SeatCounter getOrLoad(int openCourseId) {
+        SeatCounter counter = counters.get(openCourseId);
+        if (counter != null) {
+            return counter;
+        }
+        Integer remaining = loadRemaining(openCourseId);
+        if (remaining == null) {
+            return null;
+        }
+        SeatCounter loaded = new SeatCounter(remaining);
+        SeatCounter existing = counters.putIfAbsent(openCourseId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // 매진 상태가 오래됐으면 한 스레드만 DB에서 다시 읽음
+    private boolean refreshIfStale(int openCourseId, SeatCounter counter) {
+        if (System.currentTimeMillis() - counter.loadedAt < RECHECK_INTERVAL_MS
+                || !counter.refreshing.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            Integer remaining = loadRemaining(openCourseId);
+            if (remaining == null) {
+                counters.remove(openCourseId, counter);
+                return false;
+            }
+            counter.reset(remaining);
+            return remaining > 0;
+        } finally {
+            counter.refreshing.set(false);
+        }
+    }
+
+    // 잔여석 조회 (폐강/없는 강좌는 null → 관문에서 관리하지 않음)
+    private Integer loadRemaining(int openCourseId) {
+        String sql = "SELECT capacity - enrolled_count AS remaining, is_canceled " +
+                "FROM open_course WHERE open_course_id = ?";
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, openCourseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                reloads.incrementAndGet();
+                if (rs.next() && !"Y".equals(rs.getString("is_canceled"))) {
+                    return Math.max(0, rs.getInt("remaining"));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("잔여석 조회 실패: " + e.getMessage());
+        }
+        return null;
+    }
+
+    // ===== 통계 조회 =====
+
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public long getAdmittedCount() {
+        return admitted.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getReloadCount() {
+        return reloads.get();
+    }
+
+    public String getStats() {
+        return String.format("gate[enabled=%s, admitted=%d, rejected=%d, reloads=%d, courses=%d]",
+                ENABLED, getAdmittedCount(), getRejectedCount(), getReloadCount(), counters.size());
+    }
+
+    /**
+     * 강좌 1개의 잔여석 카운터
+     */
+    private static class SeatCounter {
+        private final AtomicInteger remaining;
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+        private volatile long loadedAt;
+
+        SeatCounter(int remaining) {
+            this.remaining = new AtomicInteger(remaining);
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        boolean tryTake() {
+            while (true) {
+                int current = remaining.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void reset(int value) {
+            remaining.set(value);
+            loadedAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package university.dao;
+
+import university.config.DBConnection;
+import university.config.TransactionTemplate;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 인기 강좌 좌석 버킷 DAO (open_course_seat_bucket)
+ * - 신청이 몰리는 강좌의 남은 자리를 N개 버킷 행으로 나눔 → 모든 신청이 open_course 행 하나에서 줄 서지 않음
+ * - 버킷을 켜면 남은 자리를 버킷으로 옮기고 enrolled_count = capacity 로 둠
+ *   (단건/원자적/장바구니/묶음/교체 신청은 버킷 강좌면 claimInTransaction으로 보내고,
+ *    open_course 행 기준으로만 보는 경로는 매진으로 보므로 버킷 자리와 이중으로 팔리지 않음)
+ * - 신청은 임의의 버킷에서 1자리를 가져가고, 그 버킷이 비었으면 가장 많이 남은 버킷에서 가져옴 (재분배)
+ *   버킷에서 자리를 받은 신청은 enrolled_count를 바꾸지 않음 (트리거 건너뜀)
+ *   → 항상 enrolled_count = APPROVED 행 수 + 버킷 잔여석, 버킷 잔여석은 0 미만이 안 되므로 정원 초과 불가
+ * - 승인된 신청이 취소/삭제되어 강좌 행에 빈자리가 생기면 대기자 승격 후 남은 자리를 버킷에 되돌림
+ *   (releaseInTransaction, 되돌리지 않으면 버킷 경로는 매진인데 대기 등록은 "자리 있음"이 됨)
+ * - 버킷을 끄면 잔여석을 enrolled_count에 되돌림 (fold)
+ *
+ * 락 순서: 학생 → 개설강좌 → 버킷 행 → 수강신청 행 (신청은 강좌 행을 잠그지 않음)
+ *
+ * -Denrollment.seatBuckets=8 (enable에서 버킷 수를 지정하지 않았을 때)
+ * -Denrollment.seatBucketRefreshMs=5000 (버킷 사용 강좌 목록을 DB에서 다시 읽는 간격)
+ */
+public class SeatBucketDAO {
+
+    private static final SeatBucketDAO INSTANCE = new SeatBucketDAO();
+
+    private static final int DEFAULT_BUCKETS = Math.max(1, Integer.getInteger("enrollment.seatBuckets", 8));
+    private static final long REFRESH_MS = Long.getLong("enrollment.seatBucketRefreshMs", 5000L);
+
+    // PL/SQL 결과: 버킷 없음 / 메모리 목록의 학기와 DB 학기가 다름
+    private static final int NOT_BUCKETED = -1;
+    private static final int TERM_CHANGED = -2;
+
+    private final DBConnection db = DBConnection.getInstance();
+    private final TransactionTemplate txTemplate = TransactionTemplate.getDefault();
+    // 개설강좌 ID → 버킷 수/학기 (학기는 학점 한도 계산용)
+    private volatile Map<Integer, BucketedCourse> bucketedCourses = Collections.emptyMap();
+    private volatile long loadedAt = -1;
+
+    // 통계
+    private final AtomicLong claims = new AtomicLong(0);
+    private final AtomicLong rebalances = new AtomicLong(0);
+    private final AtomicLong soldOut = new AtomicLong(0);
+    private final AtomicLong released = new AtomicLong(0);
+
+    private SeatBucketDAO() {
+    }
+
+    public static SeatBucketDAO getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 버킷을 쓰는 강좌인지 (메모리 목록 기준, 일정 간격으로 DB와 맞춤)
+     */
+    public boolean isBucketed(int openCourseId) {
+        if (System.currentTimeMillis() - loadedAt >= REFRESH_MS) {
+            reload();
+        }
+        return bucketedCourses.containsKey(openCourseId);
+    }
+
+    private void reload() {
+        reload(false);
+    }
+
+    private synchronized void reload(boolean force) {
+        if (!force && System.currentTimeMillis() - loadedAt < REFRESH_MS) {
+            return;
+        }
+        Map<Integer, BucketedCourse> loaded = new ConcurrentHashMap<>();
+        String sql = "SELECT b.open_course_id, COUNT(*), oc.year, oc.term " +
+                "FROM open_course_seat_bucket b JOIN open_course oc ON oc.open_course_id = b.open_course_id " +
+                "GROUP BY b.open_course_id, oc.year, oc.term";
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                loaded.put(rs.getInt(1), new BucketedCourse(rs.getInt(2), rs.getInt(3), rs.getString(4)));
+            }
+            bucketedCourses = loaded;
+        } catch (SQLException e) {
+            System.err.println("좌석 버킷 목록 조회 실패: " + e.getMessage());
+        }
+        loadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 버킷 켜기 (기본 버킷 수)
+     */
+    public boolean enable(int openCourseId) {
+        return enable(openCourseId, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * 버킷 켜기: 강좌 행을 잠그고 남은 자리를 버킷 수만큼 고르게 나눠 옮김
+     *
+     * @return false면 없는/폐강된 강좌, 이미 버킷 사용 중, 실패
+     */
+    public boolean enable(int openCourseId, int buckets) {
+        int count = Math.max(1, buckets);
+        try {
+            LockManager.CourseLock enabled = txTemplate.execute(conn -> {
+                LockManager.CourseLock course = LockManager.getInstance()
+                        .lockCourses(conn, Collections.singleton(openCourseId)).get(openCourseId);
+                if (course == null || course.isCanceled() || countBuckets(conn, openCourseId) > 0) {
+                    return null;
+                }
+                int free = Math.max(0, course.getCapacity() - course.getEnrolledCount());
+
+                String sqlInsert = "INSERT INTO open_course_seat_bucket (open_course_id, bucket_no, remaining) VALUES (?, ?, ?)";
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlInsert)) {
+                    for (int bucket = 0; bucket < count; bucket++) {
+                        pstmt.setInt(1, openCourseId);
+                        pstmt.setInt(2, bucket);
+                        pstmt.setInt(3, free / count + (bucket < free % count ? 1 : 0));
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                String sqlPark = "UPDATE open_course SET enrolled_count = enrolled_count + ? WHERE open_course_id = ?";
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlPark)) {
+                    pstmt.setInt(1, free);
+                    pstmt.setInt(2, openCourseId);
+                    pstmt.executeUpdate();
+                }
+                return course;
+            });
+            if (enabled == null) {
+                return false;
+            }
+            remember(openCourseId, new BucketedCourse(count, enabled.getYear(), enabled.getTerm()));
+            SeatAdmissionGate.getInstance().invalidate(openCourseId);
+            System.out.println("좌석 버킷 사용: 강좌 " + openCourseId + " (" + count + "개)");
+            return true;
+        } catch (SQLException e) {
+            System.err.println("좌석 버킷 설정 실패: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 버킷 끄기: 강좌 행 → 버킷 행 순서로 잠그고 잔여석을 enrolled_count에서 빼서 되돌린 뒤 버킷 삭제
+     *
+     * @return 되돌린 자리 수 (버킷이 없으면 0, 실패 시 -1)
+     */
+    public int disable(int openCourseId) {
+        try {
+            int returned = txTemplate.execute(conn -> {
+                if (LockManager.getInstance().lockCourses(conn, Collections.singleton(openCourseId)).isEmpty()) {
+                    return 0;
+                }
+                int seats = 0;
+                String sqlLock = "SELECT remaining FROM open_course_seat_bucket WHERE open_course_id = ? " +
+                        "ORDER BY bucket_no FOR UPDATE";
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlLock)) {
+                    pstmt.setInt(1, openCourseId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) seats += rs.getInt(1);
+                    }
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "DELETE FROM open_course_seat_bucket WHERE open_course_id = ?")) {
+                    pstmt.setInt(1, openCourseId);
+                    pstmt.executeUpdate();
+                }
+                String sqlFold = "UPDATE open_course SET enrolled_count = GREATEST(enrolled_count - ?, 0) " +
+                        "WHERE open_course_id = ?";
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlFold)) {
+                    pstmt.setInt(1, seats);
+                    pstmt.setInt(2, openCourseId);
+                    pstmt.executeUpdate();
+                }
+                return seats;
+            });
+            forget(openCourseId);
+            SeatAdmissionGate.getInstance().invalidate(openCourseId);
+            return returned;
+        } catch (SQLException e) {
+            System.err.println("좌석 버킷 해제 실패: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * 정원 변경 반영 (트랜잭션 안에서, 강좌 행을 잠근 뒤 호출)
+     * 버킷 행을 잠그고 새 정원 기준 잔여석(정원 - 승인 인원)을 버킷에 다시 고르게 나눈 뒤
+     * enrolled_count = 승인 인원 + 버킷 잔여석 으로 맞춤 (새 정원이 승인 인원보다 작으면 잔여석 0)
+     *
+     * @return 버킷을 쓰지 않는 강좌면 false
+     */
+    boolean resizeInTransaction(Connection conn, LockManager.CourseLock course, int newCapacity) throws SQLException {
+        int openCourseId = course.getOpenCourseId();
+        List<Integer> bucketNos = new ArrayList<>();
+        int seats = 0;
+        String sqlLock = "SELECT bucket_no, remaining FROM open_course_seat_bucket WHERE open_course_id = ? " +
+                "ORDER BY bucket_no FOR UPDATE";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlLock)) {
+            pstmt.setInt(1, openCourseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bucketNos.add(rs.getInt(1));
+                    seats += rs.getInt(2);
+                }
+            }
+        }
+        if (bucketNos.isEmpty()) {
+            return false;
+        }
+
+        int approved = course.getEnrolledCount() - seats;
+        int free = Math.max(0, newCapacity - approved);
+        int count = bucketNos.size();
+        String sqlResize = "UPDATE open_course_seat_bucket SET remaining = ? WHERE open_course_id = ? AND bucket_no = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlResize)) {
+            for (int i = 0; i < count; i++) {
+                pstmt.setInt(1, free / count + (i < free % count ? 1 : 0));
+                pstmt.setInt(2, openCourseId);
+                pstmt.setInt(3, bucketNos.get(i));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        String sqlCount = "UPDATE open_course SET enrolled_count = ? WHERE open_course_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlCount)) {
+            pstmt.setInt(1, approved + free);
+            pstmt.setInt(2, openCourseId);
+            pstmt.executeUpdate();
+        }
+        return true;
+    }
+
+    /**
+     * 버킷 행 잠금 (트랜잭션 안에서, 강좌 행을 잠근 뒤 수강신청 행을 바꾸기 전에 호출)
+     * 취소/삭제 후 releaseInTransaction을 부를 때 락 순서(강좌 → 버킷 → 수강신청)를 지키기 위함
+     *
+     * @return 버킷을 쓰지 않는 강좌면 false
+     */
+    boolean lockInTransaction(Connection conn, int openCourseId) throws SQLException {
+        String sqlLock = "SELECT bucket_no FROM open_course_seat_bucket WHERE open_course_id = ? " +
+                "ORDER BY bucket_no FOR UPDATE";
+        boolean locked = false;
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlLock)) {
+            pstmt.setInt(1, openCourseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) locked = true;
+            }
+        }
+        return locked;
+    }
+
+    /**
+     * 빈자리를 버킷에 되돌림 (트랜잭션 안에서, lockInTransaction으로 버킷 행을 잠근 뒤 호출)
+     * 승인 취소/삭제로 강좌 행에 생긴 빈자리(정원 - enrolled_count)를 가장 적게 남은 버킷에 더하고
+     * 같은 수만큼 enrolled_count를 올려서 enrolled_count = 승인 인원 + 버킷 잔여석 을 유지
+     * (버킷/강좌 행만 바꾸고 수강신청 행은 건드리지 않으므로 정원 트리거가 다시 세지 않음)
+     *
+     * @return 되돌린 자리 수 (버킷이 없거나 빈자리가 없으면 0)
+     */
+    int releaseInTransaction(Connection conn, int openCourseId) throws SQLException {
+        int free = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT capacity - enrolled_count FROM open_course WHERE open_course_id = ?")) {
+            pstmt.setInt(1, openCourseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) free = rs.getInt(1);
+            }
+        }
+        if (free <= 0) {
+            return 0;
+        }
+
+        String sqlRelease = "UPDATE open_course_seat_bucket SET remaining = remaining + ? " +
+                "WHERE open_course_id = ? AND bucket_no = (" +
+                "  SELECT MIN(bucket_no) KEEP (DENSE_RANK FIRST ORDER BY remaining) " +
+                "  FROM open_course_seat_bucket WHERE open_course_id = ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlRelease)) {
+            pstmt.setInt(1, free);
+            pstmt.setInt(2, openCourseId);
+            pstmt.setInt(3, openCourseId);
+            if (pstmt.executeUpdate() == 0) {
+                return 0;
+            }
+        }
+        String sqlPark = "UPDATE open_course SET enrolled_count = enrolled_count + ? WHERE open_course_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlPark)) {
+            pstmt.setInt(1, free);
+            pstmt.setInt(2, openCourseId);
+            pstmt.executeUpdate();
+        }
+        released.addAndGet(free);
+        return free;
+    }
+
+    /**
+     * 강좌 학기가 바뀌었을 수 있을 때 버킷 사용 강좌 목록을 바로 다시 읽음
+     */
+    void refresh() {
+        reload(true);
+    }
+
+    /**
+     * 버킷에서 자리 1개를 받아 수강신청 (트랜잭션 안에서 호출, 보통 1회 왕복)
+     * - 학생 락 → 폐강/학기 학점 확인 (강좌 행은 잠그지 않음) → 임의 버킷 차감 → INSERT
+     * - 고른 버킷이 비었으면 가장 많이 남은 버킷에서 차감, 모두 비었으면 COURSE_FULL
+     * - 학점 한도는 메모리 목록의 강좌 학기로 limit에서 받아 넘기고, DB의 학기와 다르면
+     *   (다른 JVM에서 학기를 바꾼 경우) 목록을 다시 읽고 한 번 더 시도
+     * - excludedEnrollmentId: 학기 학점 합계에서 뺄 수강신청 (강좌 교체 시 지울 A, 없으면 0)
+     *
+     * @return 처리 결과, 버킷을 쓰지 않는 강좌면 null (호출한 쪽에서 일반 경로로 처리)
+     */
+    ApplyOutcome claimInTransaction(Connection conn, String studentId, int openCourseId, String createdBy,
+                                    CreditLimit limit, int excludedEnrollmentId,
+                                    LockWaitPolicy policy) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            BucketedCourse course = bucketedCourses.get(openCourseId);
+            if (course == null) {
+                return null;
+            }
+            int result = claim(conn, studentId, openCourseId, createdBy, course,
+                    limit.forTerm(course.year, course.term), excludedEnrollmentId, policy);
+            if (result != TERM_CHANGED) {
+                return result < 0 ? null : ApplyOutcome.fromCode(result);
+            }
+            if (attempt >= 2) {
+                return ApplyOutcome.ERROR;
+            }
+            reload(true);
+        }
+    }
+
+    private int claim(Connection conn, String studentId, int openCourseId, String createdBy,
+                      BucketedCourse course, double maxCredits, int excludedEnrollmentId,
+                      LockWaitPolicy policy) throws SQLException {
+        String sql = "DECLARE " +
+                "  p_student_id  student.student_id%TYPE := ?; " +
+                "  p_course_id   open_course.open_course_id%TYPE := ?; " +
+                "  p_max_credits NUMBER := ?; " +
+                "  p_created_by  enrollment.created_by%TYPE := ?; " +
+                "  p_start       NUMBER := ?; " +
+                "  p_year        open_course.year%TYPE := ?; " +
+                "  p_term        open_course.term%TYPE := ?; " +
+                "  p_excluded    enrollment.enrollment_id%TYPE := ?; " +
+                "  v_student  student.student_id%TYPE; " +
+                "  v_canceled open_course.is_canceled%TYPE; " +
+                "  v_year     open_course.year%TYPE; " +
+                "  v_term     open_course.term%TYPE; " +
+                "  v_credit   course.credit%TYPE; " +
+                "  v_credits  NUMBER; " +
+                "  v_buckets  NUMBER; " +
+                "  v_bucket   NUMBER; " +
+                "  v_stolen   NUMBER := 0; " +
+                "  v_result   NUMBER; " +
+                "BEGIN " +
+                "  SELECT COUNT(*) INTO v_buckets FROM open_course_seat_bucket WHERE open_course_id = p_course_id; " +
+                "  IF v_buckets = 0 THEN " +
+                "    v_result := -1; " +
+                "  ELSE " +
+                "    BEGIN " +
+                "      SELECT student_id INTO v_student FROM student WHERE student_id = p_student_id " +
+                policy.forUpdate() + "; " +
+                "      SELECT oc.is_canceled, oc.year, oc.term, c.credit " +
+                "        INTO v_canceled, v_year, v_term, v_credit " +
+                "        FROM open_course oc JOIN course c ON oc.course_code = c.course_code " +
+                "       WHERE oc.open_course_id = p_course_id; " +
+                "      SELECT NVL(SUM(c.credit), 0) INTO v_credits " +
+                "        FROM enrollment e " +
+                "        JOIN open_course oc ON e.open_course_id = oc.open_course_id " +
+                "        JOIN course c ON oc.course_code = c.course_code " +
+                "       WHERE e.student_id = p_student_id AND oc.year = v_year AND oc.term = v_term " +
+                "         AND e.status IN ('APPLIED', 'APPROVED') AND e.enrollment_id != p_excluded; " +
+                "      IF v_year != p_year OR v_term != p_term THEN v_result := -2; " +
+                "      ELSIF v_canceled = 'Y' THEN v_result := 3; " +
+                "      ELSIF v_credits + v_credit > p_max_credits THEN v_result := 4; " +
+                "      ELSE " +
+                "        SAVEPOINT sp_seat_bucket; " +
+                "        v_bucket := MOD(p_start, v_buckets); " +
+                "        UPDATE open_course_seat_bucket SET remaining = remaining - 1 " +
+                "         WHERE open_course_id = p_course_id AND bucket_no = v_bucket AND remaining > 0; " +
+                "        IF SQL%ROWCOUNT = 0 THEN " +
+                "          v_stolen := 1; " +
+                "          LOOP " +
+                "            BEGIN " +
+                "              SELECT bucket_no INTO v_bucket FROM ( " +
+                "                SELECT bucket_no FROM open_course_seat_bucket " +
+                "                 WHERE open_course_id = p_course_id AND remaining > 0 " +
+                "                 ORDER BY remaining DESC) WHERE ROWNUM = 1; " +
+                "            EXCEPTION WHEN NO_DATA_FOUND THEN v_bucket := NULL; " +
+                "            END; " +
+                "            EXIT WHEN v_bucket IS NULL; " +
+                "            UPDATE open_course_seat_bucket SET remaining = remaining - 1 " +
+                "             WHERE open_course_id = p_course_id AND bucket_no = v_bucket AND remaining > 0; " +
+                "            EXIT WHEN SQL%ROWCOUNT > 0; " +
+                "          END LOOP; " +
+                "        END IF; " +
+                "        IF v_bucket IS NULL THEN " +
+                "          v_result := 5; " +
+                "        ELSE " +
+                "          pkg_enrollment_ctx.g_suppress_count := TRUE; " +
+                "          INSERT INTO enrollment (enrollment_id, student_id, open_course_id, requested_at, status, is_retake, created_by) " +
+                "          VALUES (seq_enrollment.NEXTVAL, p_student_id, p_course_id, SYSTIMESTAMP, 'APPROVED', 'N', p_created_by); " +
+                "          pkg_enrollment_ctx.g_suppress_count := FALSE; " +
+                "          v_result := 0; " +
+                "        END IF; " +
+                "      END IF; " +
+                "    EXCEPTION " +
+                "      WHEN NO_DATA_FOUND THEN v_result := CASE WHEN v_student IS NULL THEN 1 ELSE 2 END; " +
+                "      WHEN DUP_VAL_ON_INDEX THEN " +
+                "        pkg_enrollment_ctx.g_suppress_count := FALSE; " +
+                "        ROLLBACK TO sp_seat_bucket; " +
+                "        v_result := 6; " +
+                "    END; " +
+                "  END IF; " +
+                "  ? := v_result; " +
+                "  ? := v_stolen; " +
+                "EXCEPTION " +
+                "  WHEN OTHERS THEN " +
+                "    pkg_enrollment_ctx.g_suppress_count := FALSE; " +
+                "    RAISE; " +
+                "END;";
+
+        try (CallableStatement cstmt = conn.prepareCall(sql)) {
+            cstmt.setString(1, studentId);
+            cstmt.setInt(2, openCourseId);
+            cstmt.setDouble(3, maxCredits);
+            cstmt.setString(4, createdBy);
+            cstmt.setInt(5, ThreadLocalRandom.current().nextInt(1 << 16));
+            cstmt.setInt(6, course.year);
+            cstmt.setString(7, course.term);
+            cstmt.setInt(8, excludedEnrollmentId);
+            cstmt.registerOutParameter(9, Types.INTEGER);
+            cstmt.registerOutParameter(10, Types.INTEGER);
+            cstmt.execute();
+
+            int result = cstmt.getInt(9);
+            if (result == NOT_BUCKETED) {
+                forget(openCourseId);
+                return result;
+            }
+            if (result == TERM_CHANGED) {
+                return result;
+            }
+            claims.incrementAndGet();
+            if (cstmt.getInt(10) == 1) {
+                rebalances.incrementAndGet();
+            }
+            if (result == ApplyOutcome.COURSE_FULL.getCode()) {
+                soldOut.incrementAndGet();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 폐강 등으로 버킷이 지워졌을 때 메모리 목록에서도 제거
+     */
+    public void forget(int openCourseId) {
+        if (bucketedCourses.containsKey(openCourseId)) {
+            Map<Integer, BucketedCourse> updated = new ConcurrentHashMap<>(bucketedCourses);
+            updated.remove(openCourseId);
+            bucketedCourses = updated;
+        }
+    }
+
+    private void remember(int openCourseId, BucketedCourse course) {
+        Map<Integer, BucketedCourse> updated = new ConcurrentHashMap<>(bucketedCourses);
+        updated.put(openCourseId, course);
+        bucketedCourses = updated;
+    }
+
+    private int countBuckets(Connection conn, int openCourseId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT COUNT(*) FROM open_course_seat_bucket WHERE open_course_id = ?")) {
+            pstmt.setInt(1, openCourseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // ===== 통계 조회 =====
+
+    public long getClaimCount() {
+        return claims.get();
+    }
+
+    public long getRebalanceCount() {
+        return rebalances.get();
+    }
+
+    public String getStats() {
+        return String.format("seatBuckets[courses=%d, claims=%d, rebalances=%d, soldOut=%d, released=%d]",
+                bucketedCourses.size(), getClaimCount(), getRebalanceCount(), soldOut.get(), released.get());
+    }
+
+    /**
+     * 학기별 최대 신청 학점 (버킷 신청 시 강좌 학기로 호출)
+     */
+    interface CreditLimit {
+        double forTerm(int year, String term);
+    }
+
+    private static final class BucketedCourse {
+        private final int buckets;
+        private final int year;
+        private final String term;
+
+        private BucketedCourse(int buckets, int year, String term) {
+            this.buckets = buckets;
+            this.year = year;
+            this.term = term;
+        }
+    }
+}
@@ -1,22 +1,26 @@
 package university.dao;
 
 import university.config.DBConnection;
-import university.config.MiniConnectionPool; // 커넥션 풀 임포트
+import university.config.TransactionTemplate;
 import university.model.Student;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 학생 정보 DAO (Data Access Object)
  * - SQL Injection 방어 (PreparedStatement 사용)
- * - 성능 최적화 (MiniConnectionPool 사용)
+ * - 성능 최적화 (DBConnection을 통해 커넥션 풀 사용)
  */
 public class StudentDAO {
 
     // 생성자에서 연결을 미리 맺지 않음 (풀에서 그때그때 빌려 씀)
+    private final DBConnection db;
+
     public StudentDAO() {
+        this.db = DBConnection.getInstance();
     }
 
     /**
@@ -30,7 +34,7 @@ public class StudentDAO {
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         try {
-            conn = MiniConnectionPool.getConnection(); // 풀에서 대여
+            conn = db.getConnection(); // 풀에서 대여 (트랜잭션 중이면 그 커넥션)
             pstmt = conn.prepareStatement(sql);
 
             pstmt.setString(1, student.getStudentId());
@@ -55,8 +59,7 @@ public class StudentDAO {
             System.err.println("학생 등록 실패: " + e.getMessage());
             return false;
         } finally {
-            DBConnection.close(null, pstmt, null);
-            MiniConnectionPool.releaseConnection(conn); // ★ 풀에 반납
+            DBConnection.close(null, pstmt, conn); // ★ 풀에 반납
         }
     }
 
@@ -72,7 +75,7 @@ public class StudentDAO {
                 "WHERE s.student_id = ?";
 
         try {
-            conn = MiniConnectionPool.getConnection();
+            conn = db.getConnection();
             pstmt = conn.prepareStatement(sql);
             pstmt.setString(1, studentId);
             rs = pstmt.executeQuery();
@@ -83,8 +86,7 @@ public class StudentDAO {
         } catch (Exception e) {
             System.err.println("학생 조회 실패: " + e.getMessage());
         } finally {
-            DBConnection.close(rs, pstmt, null);
-            MiniConnectionPool.releaseConnection(conn);
+            DBConnection.close(rs, pstmt, conn);
         }
         return null;
     }
@@ -102,7 +104,7 @@ public class StudentDAO {
                 "ORDER BY s.student_id";
 
         try {
-            conn = MiniConnectionPool.getConnection();
+            conn = db.getConnection();
             pstmt = conn.prepareStatement(sql);
             rs = pstmt.executeQuery();
 
@@ -112,8 +114,7 @@ public class StudentDAO {
         } catch (Exception e) {
             System.err.println("학생 목록 조회 실패: " + e.getMessage());
         } finally {
-            DBConnection.close(rs, pstmt, null);
-            MiniConnectionPool.releaseConnection(conn);
+            DBConnection.close(rs, pstmt, conn);
         }
         return list;
     }
@@ -134,7 +135,7 @@ public class StudentDAO {
                 "ORDER BY s.student_id";
 
         try {
-            conn = MiniConnectionPool.getConnection();
+            conn = db.getConnection();
             pstmt = conn.prepareStatement(sql);
 
             // 검색어에 %를 붙여서 바인딩 (특수문자가 들어와도 문자로 인식됨)
@@ -151,8 +152,7 @@ public class StudentDAO {
         } catch (Exception e) {
             System.err.println("학생 검색 실패: " + e.getMessage());
         } finally {
-            DBConnection.close(rs, pstmt, null);
-            MiniConnectionPool.releaseConnection(conn);
+            DBConnection.close(rs, pstmt, conn);
         }
         return list;
     }
@@ -168,7 +168,7 @@ public class StudentDAO {
                 "address = ?, phone = ?, email = ? WHERE student_id = ?";
 
         try {
-            conn = MiniConnectionPool.getConnection();
+            conn = db.getConnection();
             pstmt = conn.prepareStatement(sql);
 
             pstmt.setString(1, student.getNameKr());
@@ -191,32 +191,32 @@ public class StudentDAO {
             System.err.println("학생 정보 수정 실패: " + e.getMessage());
             return false;
         } finally {
-            DBConnection.close(null, pstmt, null);
-            MiniConnectionPool.releaseConnection(conn);
+            DBConnection.close(null, pstmt, conn);
         }
     }
 
     /**
      * 학생 삭제
+     * - 신청 인원을 APPLICATION 방식으로 유지 중이면 수강신청이 FK CASCADE로 같이 지워져도 트리거가 세지 않으므로
+     *   같은 트랜잭션에서 그 학생이 승인받았던 강좌 인원을 다시 셈
      */
     public boolean delete(String studentId) {
-        Connection conn = null;
-        PreparedStatement pstmt = null;
         String sql = "DELETE FROM student WHERE student_id = ?";
 
         try {
-            conn = MiniConnectionPool.getConnection();
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, studentId);
-
-            int result = pstmt.executeUpdate();
-            return result > 0;
-        } catch (Exception e) {
+            return TransactionTemplate.getDefault().execute(conn -> {
+                Set<Integer> courses = EnrollmentCounterDAO.approvedCoursesOf(conn, studentId);
+                int result;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, studentId);
+                    result = pstmt.executeUpdate();
+                }
+                EnrollmentCounterDAO.recountAll(conn, courses);
+                return result > 0;
+            });
+        } catch (SQLException e) {
             System.err.println("학생 삭제 실패: " + e.getMessage());
             return false;
-        } finally {
-            DBConnection.close(null, pstmt, null);
-            MiniConnectionPool.releaseConnection(conn);
         }
     }
 
@@ -0,0 +1,63 @@
+package university.dao;
+
+import university.config.DBConnection;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 시스템 파라미터 DAO (Data Access Object)
+ */
+public class SystemParameterDAO {
+
+    // 메서드마다 현재 작업 단위의 커넥션을 빌려 씀 (트랜잭션 중이면 그 커넥션)
+    private final DBConnection db;
+
+    public SystemParameterDAO() {
+        this.db = DBConnection.getInstance();
+    }
+
+    /**
+     * 전체 파라미터 조회 (key → value)
+     *
+     * @return 조회 실패 시 null
+     */
+    public Map<String, String> selectAll() {
+        Map<String, String> params = new HashMap<>();
+        String sql = "SELECT param_key, param_value FROM system_parameter";
+
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                params.put(rs.getString("param_key"), rs.getString("param_value"));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("시스템 파라미터 조회 실패: " + e.getMessage());
+            return null;
+        }
+        return params;
+    }
+
+    /**
+     * 파라미터 값 변경
+     */
+    public boolean update(String key, String value) {
+        String sql = "UPDATE system_parameter SET param_value = ? WHERE param_key = ?";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, value);
+            pstmt.setString(2, key);
+
+            return pstmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("시스템 파라미터 변경 실패: " + e.getMessage());
+            return false;
+        }
+    }
+}
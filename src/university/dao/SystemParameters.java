@@ -0,0 +1,176 @@
+package university.dao;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 시스템 파라미터 캐시 (system_parameter 테이블)
+ * - 전체 행을 불변 스냅샷 1개로 읽어서 AtomicReference로 통째로 교체 → 읽는 쪽은 락/DB 조회 없음
+ * - 일정 간격마다 백그라운드 스레드가 다시 읽고, refresh()로 즉시 갱신도 가능
+ * - 행이 없거나 값이 숫자가 아니면 기본값 사용
+ *
+ * 사용 예)
+ *   double max = SystemParameters.current().getMaxCreditsPerSemester();
+ *
+ * 갱신 간격: -Dparam.refreshMs=60000 (0이면 자동 갱신 안 함)
+ */
+public class SystemParameters {
+
+    public static final String MAX_CREDITS_PER_SEMESTER = "max_credits_per_semester";
+    public static final String MAX_CREDITS_EXCELLENCE = "max_credits_excellence";
+    public static final String EXCELLENCE_GPA = "excellence_gpa";
+    public static final String RETAKE_GRADE_THRESHOLD = "retake_grade_threshold";
+    public static final String MIN_GRADUATION_GPA = "min_graduation_gpa";
+
+    private static final long REFRESH_INTERVAL_MS = Long.getLong("param.refreshMs", 60_000L);
+
+    private static final SystemParameterDAO parameterDAO = new SystemParameterDAO();
+    private static final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private static final AtomicLong loads = new AtomicLong(0);
+    private static Thread refresher;
+
+    private SystemParameters() {
+    }
+
+    /**
+     * 현재 스냅샷 (처음 호출 시 한 번 읽음)
+     */
+    public static Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current != null) {
+            return current;
+        }
+        synchronized (SystemParameters.class) {
+            if (snapshot.get() == null) {
+                refresh();
+                startRefresher();
+            }
+        }
+        return snapshot.get();
+    }
+
+    /**
+     * DB에서 다시 읽어서 스냅샷 교체
+     * 조회에 실패하면 기존 스냅샷 유지 (처음이면 기본값)
+     */
+    public static void refresh() {
+        Map<String, String> rows = parameterDAO.selectAll();
+        if (rows == null) {
+            snapshot.compareAndSet(null, new Snapshot(Collections.emptyMap()));
+            return;
+        }
+        loads.incrementAndGet();
+        snapshot.set(new Snapshot(rows));
+    }
+
+    /**
+     * 파라미터 변경 후 즉시 반영
+     */
+    public static boolean update(String key, String value) {
+        boolean success = parameterDAO.update(key, value);
+        if (success) {
+            refresh();
+        }
+        return success;
+    }
+
+    public static long getLoadCount() {
+        return loads.get();
+    }
+
+    private static void startRefresher() {
+        if (REFRESH_INTERVAL_MS <= 0 || refresher != null) {
+            return;
+        }
+        refresher = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(REFRESH_INTERVAL_MS);
+                    refresh();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (RuntimeException e) {
+                    System.err.println("시스템 파라미터 갱신 오류: " + e.getMessage());
+                }
+            }
+        }, "system-parameter-refresher");
+        refresher.setDaemon(true);
+        refresher.start();
+    }
+
+    /**
+     * 파라미터 스냅샷 (불변, 값은 생성 시 한 번만 파싱)
+     */
+    public static class Snapshot {
+        private final Map<String, String> values;
+        private final double maxCreditsPerSemester;
+        private final double maxCreditsExcellence;
+        private final double excellenceGpa;
+        private final double retakeGradeThreshold;
+        private final double minGraduationGpa;
+        private final long loadedAt = System.currentTimeMillis();
+
+        Snapshot(Map<String, String> rows) {
+            this.values = Collections.unmodifiableMap(new HashMap<>(rows));
+            this.maxCreditsPerSemester = parse(MAX_CREDITS_PER_SEMESTER, 18.0);
+            this.maxCreditsExcellence = parse(MAX_CREDITS_EXCELLENCE, 21.0);
+            this.excellenceGpa = parse(EXCELLENCE_GPA, 4.0);
+            this.retakeGradeThreshold = parse(RETAKE_GRADE_THRESHOLD, 2.5);
+            this.minGraduationGpa = parse(MIN_GRADUATION_GPA, 2.0);
+        }
+
+        private double parse(String key, double defaultValue) {
+            String value = values.get(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("시스템 파라미터 형식 오류: " + key + "=" + value + " (기본값 " + defaultValue + " 사용)");
+                return defaultValue;
+            }
+        }
+
+        // 학기당 최대 신청 학점
+        public double getMaxCreditsPerSemester() {
+            return maxCreditsPerSemester;
+        }
+
+        // 우수자 최대 신청 학점
+        public double getMaxCreditsExcellence() {
+            return maxCreditsExcellence;
+        }
+
+        // 우수자 기준 평점 (직전 학기)
+        public double getExcellenceGpa() {
+            return excellenceGpa;
+        }
+
+        // 재수강 허용 기준 평점 (이 값 이하만 재수강 가능)
+        public double getRetakeGradeThreshold() {
+            return retakeGradeThreshold;
+        }
+
+        // 최소 졸업 평점
+        public double getMinGraduationGpa() {
+            return minGraduationGpa;
+        }
+
+        public String get(String key) {
+            return values.get(key);
+        }
+
+        public long getLoadedAt() {
+            return loadedAt;
+        }
+
+        @Override
+        public String toString() {
+            return "SystemParameters" + values;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package university.dao;
+
+/**
+ * 대기자 승격 알림 수신자
+ * 빈자리가 생겨 WAITING → APPROVED 로 바뀐 뒤(커밋 이후) 호출됨
+ */
+@FunctionalInterface
+public interface WaitlistListener {
+
+    void onPromoted(int enrollmentId, String studentId, int openCourseId);
+}
@@ -0,0 +1,100 @@
+package university.model;
+
+/**
+ * 강의 시간표 VO (Value Object)
+ * 개설강좌 1개에 요일별로 여러 행이 있을 수 있음
+ */
+public class LectureSchedule {
+
+    private int scheduleId;          // 시간표 ID (PK, Sequence)
+    private int openCourseId;        // 개설강좌 ID
+    private int dayOfWeek;           // 요일 (1=월 ~ 7=일)
+    private int startPeriod;         // 시작 교시
+    private int endPeriod;           // 종료 교시
+    private String isConsecutive;    // 연강 여부 (Y/N)
+
+    // 기본 생성자
+    public LectureSchedule() {
+    }
+
+    // 전체 필드 생성자
+    public LectureSchedule(int scheduleId, int openCourseId, int dayOfWeek,
+                           int startPeriod, int endPeriod, String isConsecutive) {
+        this.scheduleId = scheduleId;
+        this.openCourseId = openCourseId;
+        this.dayOfWeek = dayOfWeek;
+        this.startPeriod = startPeriod;
+        this.endPeriod = endPeriod;
+        this.isConsecutive = isConsecutive;
+    }
+
+    // Getters and Setters
+    public int getScheduleId() {
+        return scheduleId;
+    }
+
+    public void setScheduleId(int scheduleId) {
+        this.scheduleId = scheduleId;
+    }
+
+    public int getOpenCourseId() {
+        return openCourseId;
+    }
+
+    public void setOpenCourseId(int openCourseId) {
+        this.openCourseId = openCourseId;
+    }
+
+    public int getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public void setDayOfWeek(int dayOfWeek) {
+        this.dayOfWeek = dayOfWeek;
+    }
+
+    public int getStartPeriod() {
+        return startPeriod;
+    }
+
+    public void setStartPeriod(int startPeriod) {
+        this.startPeriod = startPeriod;
+    }
+
+    public int getEndPeriod() {
+        return endPeriod;
+    }
+
+    public void setEndPeriod(int endPeriod) {
+        this.endPeriod = endPeriod;
+    }
+
+    public String getIsConsecutive() {
+        return isConsecutive;
+    }
+
+    public void setIsConsecutive(String isConsecutive) {
+        this.isConsecutive = isConsecutive;
+    }
+
+    /**
+     * 요일 한글 변환
+     */
+    public String getDayKorean() {
+        switch (dayOfWeek) {
+            case 1: return "월";
+            case 2: return "화";
+            case 3: return "수";
+            case 4: return "목";
+            case 5: return "금";
+            case 6: return "토";
+            case 7: return "일";
+            default: return String.valueOf(dayOfWeek);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getDayKorean() + " " + startPeriod + "-" + endPeriod + "교시";
+    }
+}
@@ -0,0 +1,59 @@
+package university.model;
+
+/**
+ * 선수과목/동시수강 관계 VO (Value Object)
+ */
+public class Prerequisite {
+
+    private String courseCode;        // 과목 코드
+    private String prereqCourseCode;  // 선수 과목 코드
+    private String coreqFlag;         // N=선이수필수, Y=동시수강허용
+
+    // 기본 생성자
+    public Prerequisite() {
+    }
+
+    // 전체 필드 생성자
+    public Prerequisite(String courseCode, String prereqCourseCode, String coreqFlag) {
+        this.courseCode = courseCode;
+        this.prereqCourseCode = prereqCourseCode;
+        this.coreqFlag = coreqFlag;
+    }
+
+    // Getters and Setters
+    public String getCourseCode() {
+        return courseCode;
+    }
+
+    public void setCourseCode(String courseCode) {
+        this.courseCode = courseCode;
+    }
+
+    public String getPrereqCourseCode() {
+        return prereqCourseCode;
+    }
+
+    public void setPrereqCourseCode(String prereqCourseCode) {
+        this.prereqCourseCode = prereqCourseCode;
+    }
+
+    public String getCoreqFlag() {
+        return coreqFlag;
+    }
+
+    public void setCoreqFlag(String coreqFlag) {
+        this.coreqFlag = coreqFlag;
+    }
+
+    /**
+     * 같은 학기에 함께 수강해도 되는지 (동시수강 허용)
+     */
+    public boolean isCorequisite() {
+        return "Y".equals(coreqFlag);
+    }
+
+    @Override
+    public String toString() {
+        return courseCode + " ← " + prereqCourseCode + (isCorequisite() ? " (동시수강 허용)" : "");
+    }
+}
@@ -0,0 +1,102 @@
+package university.model;
+
+import java.util.Collection;
+
+/**
+ * 주간 시간표 비트마스크 (요일 × 교시)
+ * - 7일 × 18교시 = 126비트를 long 2개에 담음
+ * - 비트 위치 = (요일 - 1) * 18 + (교시 - 1)
+ * - 시간 충돌 검사는 비트 AND 두 번으로 끝남
+ *
+ * 불변 객체 (합치면 새 객체를 돌려줌)
+ */
+public final class TimetableMask {
+
+    public static final int DAYS = 7;
+    public static final int PERIODS_PER_DAY = 18;
+
+    public static final TimetableMask EMPTY = new TimetableMask(0L, 0L);
+
+    private final long low;   // 비트 0 ~ 63
+    private final long high;  // 비트 64 ~ 125
+
+    private TimetableMask(long low, long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * 시간표 행 목록 → 마스크 (범위를 벗어난 요일/교시는 무시)
+     */
+    public static TimetableMask of(Collection<LectureSchedule> schedules) {
+        long low = 0L;
+        long high = 0L;
+        for (LectureSchedule schedule : schedules) {
+            int day = schedule.getDayOfWeek();
+            if (day < 1 || day > DAYS) {
+                continue;
+            }
+            int from = Math.max(1, schedule.getStartPeriod());
+            int to = Math.min(PERIODS_PER_DAY, schedule.getEndPeriod());
+            for (int period = from; period <= to; period++) {
+                int bit = (day - 1) * PERIODS_PER_DAY + (period - 1);
+                if (bit < 64) {
+                    low |= 1L << bit;
+                } else {
+                    high |= 1L << (bit - 64);
+                }
+            }
+        }
+        return new TimetableMask(low, high);
+    }
+
+    /**
+     * 겹치는 시간이 있는지
+     */
+    public boolean intersects(TimetableMask other) {
+        return (low & other.low) != 0 || (high & other.high) != 0;
+    }
+
+    /**
+     * 두 시간표를 합친 마스크
+     */
+    public TimetableMask union(TimetableMask other) {
+        return new TimetableMask(low | other.low, high | other.high);
+    }
+
+    /**
+     * other의 시간을 뺀 마스크 (한 학생의 같은 학기 강좌끼리는 겹치지 않으므로 강좌 1개를 빼는 데 씀)
+     */
+    public TimetableMask without(TimetableMask other) {
+        return new TimetableMask(low & ~other.low, high & ~other.high);
+    }
+
+    public boolean isEmpty() {
+        return low == 0L && high == 0L;
+    }
+
+    /**
+     * 사용 중인 교시 수
+     */
+    public int slotCount() {
+        return Long.bitCount(low) + Long.bitCount(high);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TimetableMask)) return false;
+        TimetableMask that = (TimetableMask) o;
+        return low == that.low && high == that.high;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(low) * 31 + Long.hashCode(high);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TimetableMask[%016x%016x, slots=%d]", high, low, slotCount());
+    }
+}
@@ -2,6 +2,10 @@ package university.scenario;
 
 import university.dao.EnrollmentDAO;
 import university.model.Enrollment;
+import university.service.EnrollmentService;
+import university.service.EnrollmentService.EnrollmentResult;
+
+import java.util.UUID;
 
 public class CancelRetryTest {
 
@@ -12,46 +16,59 @@ public class CancelRetryTest {
     public static void main(String[] args) throws InterruptedException {
         System.out.println("===  취소 및 정원 복구 테스트  ===");
         System.out.println("조건: 정원 1명 (Student A 선점 -> 취소 -> Student B 진입)");
+        System.out.println("재전송: 같은 요청 키로 다시 보낸 신청/취소는 DB를 거치지 않고 처음 결과를 받아야 함");
         System.out.println("---------------------------------------------");
 
+        EnrollmentService service = new EnrollmentService();
         EnrollmentDAO dao = new EnrollmentDAO();
 
-        // 1. Student A 수강신청
+        // 1. Student A 수강신청 (같은 키로 한 번 더 = 더블클릭)
         System.out.println("[Step 1] 학생 A(" + STUDENT_A + ") 수강신청 시도");
-        boolean resultA = dao.applyCourse(STUDENT_A, TARGET_COURSE_ID);
-        if (resultA) System.out.println("-> 학생 A 신청 성공 (정원 1/1 마감)");
+        String enrollKeyA = UUID.randomUUID().toString();
+        EnrollmentResult resultA = service.enrollOnce(enrollKeyA, STUDENT_A, TARGET_COURSE_ID, STUDENT_A, false);
+        if (resultA.isSuccess()) System.out.println("-> 학생 A 신청 성공 (정원 1/1 마감)");
         else {
-            System.out.println("-> 학생 A 신청 실패 (테스트 중단)");
+            System.out.println("-> 학생 A 신청 실패: " + resultA.getMessage() + " (테스트 중단)");
             return;
         }
+        EnrollmentResult resentA = service.enrollOnce(enrollKeyA, STUDENT_A, TARGET_COURSE_ID, STUDENT_A, false);
+        if (resentA == resultA) System.out.println("-> 같은 키 재전송: 처음 결과 반환 (중복 신청 시도 없음)");
+        else System.out.println("-> 같은 키 재전송이 다시 처리됨 (버그): " + resentA.getMessage());
+
+        // 같은 키를 다른 학생 요청에 쓰면 처음 결과가 아니라 거절이어야 함
+        EnrollmentResult reusedKey = service.enrollOnce(enrollKeyA, STUDENT_B, TARGET_COURSE_ID, STUDENT_B, false);
+        if (!reusedKey.isSuccess()) System.out.println("-> 다른 요청에 같은 키: 거절 (" + reusedKey.getMessage() + ")");
+        else System.out.println("-> 다른 요청에 같은 키: 처음 결과를 받음 (버그)");
 
         Thread.sleep(1000);
 
         // 2. Student B 수강신청 (실패해야 함)
         System.out.println("\n[Step 2] 학생 B(" + STUDENT_B + ") 수강신청 시도 (정원 초과 예상)");
-        boolean resultB1 = dao.applyCourse(STUDENT_B, TARGET_COURSE_ID);
-        if (!resultB1) System.out.println("-> 학생 B 신청 실패 (정상: 정원 초과)");
+        EnrollmentResult resultB1 = service.enrollOnce(UUID.randomUUID().toString(),
+                STUDENT_B, TARGET_COURSE_ID, STUDENT_B, false);
+        if (!resultB1.isSuccess()) System.out.println("-> 학생 B 신청 실패 (정상: " + resultB1.getMessage() + ")");
         else System.out.println("-> 학생 B 신청 성공 (버그: 정원 초과인데 뚫림)");
 
         Thread.sleep(1000);
 
-        // 3. Student A 수강 취소
+        // 3. Student A 수강 취소 (같은 키로 한 번 더)
         System.out.println("\n[Step 3] 학생 A(" + STUDENT_A + ") 수강 취소 시도");
 
-        // DAO에 delete 기능이 있지만, 정원 감소(-1) 로직이 트리거에 있는지 확인 필요.
-        // 여기서는 delete 메서드 사용 후, 트리거가 없다면 Java 로직 테스트가 어려울 수 있음.
-        // 일단 삭제 시도.
-
-        // A의 enrollment_id를 알아야 삭제 가능 -> 조회
+        // A의 enrollment_id를 알아야 취소 가능 -> 조회
         Enrollment enrollA = dao.selectByStudent(STUDENT_A, 2025, "2학기").stream()
                 .filter(e -> e.getOpenCourseId() == TARGET_COURSE_ID)
                 .findFirst()
                 .orElse(null);
 
         if (enrollA != null) {
-            boolean deleteResult = dao.delete(enrollA.getEnrollmentId());
-            if (deleteResult) System.out.println("-> 학생 A 취소 완료 (정원 복구되어야 함)");
-            else System.out.println("-> 학생 A 취소 실패");
+            String cancelKeyA = UUID.randomUUID().toString();
+            EnrollmentResult cancelResult = service.cancelEnrollmentOnce(cancelKeyA, enrollA.getEnrollmentId());
+            if (cancelResult.isSuccess()) System.out.println("-> 학생 A 취소 완료 (정원 복구되어야 함)");
+            else System.out.println("-> 학생 A 취소 실패: " + cancelResult.getMessage());
+
+            EnrollmentResult resentCancel = service.cancelEnrollmentOnce(cancelKeyA, enrollA.getEnrollmentId());
+            if (resentCancel == cancelResult) System.out.println("-> 같은 키 재전송: 처음 결과 반환");
+            else System.out.println("-> 같은 키 재전송이 다시 처리됨 (버그): " + resentCancel.getMessage());
         } else {
             System.out.println("-> 학생 A 신청 내역을 찾을 수 없음");
             return;
@@ -59,13 +76,15 @@ public class CancelRetryTest {
 
         Thread.sleep(1000);
 
-        // 4. Student B 다시 시도 (성공해야 함)
+        // 4. Student B 다시 시도 (새 요청이므로 새 키, 성공해야 함)
         System.out.println("\n[Step 4] 학생 B(" + STUDENT_B + ") 재시도");
-        boolean resultB2 = dao.applyCourse(STUDENT_B, TARGET_COURSE_ID);
-        if (resultB2) System.out.println("-> 학생 B 신청 성공! (빈 자리 차지함)");
-        else System.out.println("-> 학생 B 신청 실패 (정원 복구 안됨 or 락 문제)");
+        EnrollmentResult resultB2 = service.enrollOnce(UUID.randomUUID().toString(),
+                STUDENT_B, TARGET_COURSE_ID, STUDENT_B, false);
+        if (resultB2.isSuccess()) System.out.println("-> 학생 B 신청 성공! (빈 자리 차지함)");
+        else System.out.println("-> 학생 B 신청 실패: " + resultB2.getMessage() + " (정원 복구 안됨 or 락 문제)");
 
         System.out.println("---------------------------------------------");
+        System.out.println(EnrollmentService.getIdempotencyStats());
         System.out.println("=== 테스트 종료 ===");
     }
-}
\ No newline at end of file
+}
@@ -10,9 +10,7 @@ public class CascadeDeleteTest {
     public static void main(String[] args) {
         System.out.println("===  참조 무결성 및 CASCADE 삭제 테스트 ===");
 
-        Connection conn = DBConnection.getInstance().getConnection();
-
-        try {
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
             // 1. 교수 삭제 -> 개설 강좌 삭제 확인
             System.out.println("\n[Test 1] 교수(PROF001) 삭제 시도");
             System.out.println("   -> 예상: 해당 교수의 강의(99999)와 수강신청 내역이 같이 삭제되거나, 에러 발생");
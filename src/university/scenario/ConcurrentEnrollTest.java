@@ -1,7 +1,14 @@
 package university.scenario;
 
+import university.dao.ConcurrencyStrategy;
 import university.dao.EnrollmentDAO;
+import university.dao.LockManager;
+import university.dao.LockWaitHistogram;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -16,8 +23,19 @@ public class ConcurrentEnrollTest {
     // 결과 집계용 (스레드 안전한 카운터)
     private static final AtomicInteger successCount = new AtomicInteger(0);
     private static final AtomicInteger failCount = new AtomicInteger(0);
+    private static final ConcurrentLinkedQueue<Long> responseTimes = new ConcurrentLinkedQueue<>();
+
+    // 실행 인자로 신청 방식 선택: pessimistic (기본, 4회 왕복) / optimistic / hybrid / atomic (프로시저 1회 왕복)
+    private static String mode = "pessimistic";
+    private static ConcurrencyStrategy strategy = ConcurrencyStrategy.PESSIMISTIC;
 
     public static void main(String[] args) throws InterruptedException {
+        if (args.length > 0) {
+            mode = args[0];
+            if (!"atomic".equals(mode)) {
+                strategy = ConcurrencyStrategy.parse(mode, ConcurrencyStrategy.PESSIMISTIC);
+            }
+        }
         System.out.println("===  동시성 테스트 시작 (With Pessimistic Lock) ===");
         System.out.println("대상 강의 ID: " + TARGET_COURSE_ID + " (정원 30명)");
         System.out.println("참가 학생 수: " + THREAD_COUNT + "명 (20250001 ~ 20250100)");
@@ -47,7 +65,11 @@ public class ConcurrentEnrollTest {
 
                     // 3. === [핵심] 수강신청 시도 ===
                     // insert() 대신, 락(Lock)이 적용된 applyCourse()를 호출합니다.
-                    boolean success = dao.applyCourse(studentId, TARGET_COURSE_ID);
+                    long startTime = System.nanoTime();
+                    boolean success = "atomic".equals(mode)
+                            ? dao.applyCourseAtomic(studentId, TARGET_COURSE_ID).isSuccess()
+                            : dao.applyCourseWithStrategy(studentId, TARGET_COURSE_ID, strategy).isSuccess();
+                    responseTimes.add((System.nanoTime() - startTime) / 1_000_000);
 
                     if (success) {
                         successCount.incrementAndGet();
@@ -72,11 +94,13 @@ public class ConcurrentEnrollTest {
         System.out.println("모든 스레드 준비 완료. 3초 후 시작");
         Thread.sleep(3000);
 
-        System.out.println("시작! (Lock 적용됨)");
+        System.out.println("시작! (Lock 적용됨, 방식: " + mode + ")");
+        long testStart = System.currentTimeMillis();
         startLatch.countDown(); // (100개 스레드 동시 진입)
 
         // 모든 스레드가 끝날 때까지 대기
         doneLatch.await();
+        long testEnd = System.currentTimeMillis();
         executorService.shutdown();
 
         // 결과 출력
@@ -85,6 +109,10 @@ public class ConcurrentEnrollTest {
         System.out.println("총 시도: " + THREAD_COUNT);
         System.out.println("성공: " + successCount.get());
         System.out.println("실패: " + failCount.get());
+        printLatency(testEnd - testStart);
+        System.out.println("동시성 제어: " + EnrollmentDAO.getStrategyStats());
+        System.out.println("락 대기 (" + EnrollmentDAO.getLockWaitPolicy() + "): " + LockWaitHistogram.getInstance().getStats());
+        System.out.println("락 순서/대기 그래프: " + LockManager.getInstance().getStats());
         System.out.println("---------------------------------------------");
 
         // 검증 로직
@@ -98,4 +126,25 @@ public class ConcurrentEnrollTest {
             System.out.println("[기타] 정원 미달 (" + successCount.get() + "명). 로직이나 데이터를 확인하세요.");
         }
     }
+
+    /**
+     * 응답 시간 요약 출력 (처리량, P50/P99)
+     */
+    private static void printLatency(long elapsedMs) {
+        List<Long> timeList = new ArrayList<>(responseTimes);
+        if (timeList.isEmpty()) {
+            return;
+        }
+        Collections.sort(timeList);
+        System.out.println("신청 방식: " + mode);
+        System.out.println("처리량: " + String.format("%.2f", (timeList.size() * 1000.0) / Math.max(elapsedMs, 1)) + " req/s");
+        System.out.println("응답 시간 P50: " + getPercentile(timeList, 50) + "ms, P99: " + getPercentile(timeList, 99)
+                + "ms, Max: " + timeList.get(timeList.size() - 1) + "ms");
+    }
+
+    private static long getPercentile(List<Long> sortedList, int percentile) {
+        int index = (int) Math.ceil(sortedList.size() * percentile / 100.0) - 1;
+        index = Math.max(0, Math.min(index, sortedList.size() - 1));
+        return sortedList.get(index);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package university.scenario;
+
+import university.config.DBConnection;
+import university.config.MiniConnectionPool;
+import university.dao.ApplyOutcome;
+import university.dao.CounterMode;
+import university.dao.EnrollmentCounterDAO;
+import university.dao.EnrollmentDAO;
+import university.service.EnrollmentBatchWriter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 신청 인원(enrolled_count) 유지 방식 비교
+ * - row_trigger (기존 trg_enrollment_count) / statement_trigger (trg_enrollment_count_stmt) / application
+ * - 방식마다 같은 부하를 돌리고 소요 시간, redo 발생량, 정합성 점검 결과를 출력
+ *   1) 단건 신청: 스레드 여러 개가 같은 강좌에 동시 신청 (같은 강좌 행 경합)
+ *   2) 묶음 신청: 그룹 커밋으로 여러 강좌에 한꺼번에 신청 (executeBatch)
+ *   3) 정리: 테스트 신청을 한 문장으로 삭제 (다건 DELETE)
+ *
+ * 실행 인자로 비교할 방식을 고를 수 있음 (예: row_trigger application), 끝나면 row_trigger로 되돌림
+ * redo 발생량은 v$sysstat 조회 권한이 있어야 나옴 (다른 세션 작업도 섞이므로 단독 실행 권장)
+ */
+public class CounterMaintenanceBenchmark {
+
+    private static final int THREAD_COUNT = 100;
+    private static final int SINGLE_COURSE_ID = 99999;
+    private static final int[] BATCH_COURSE_IDS = {881, 882, 883, 884};
+    private static final String STUDENT_FROM = "20250001";
+    private static final String STUDENT_TO = "20251000";
+
+    public static void main(String[] args) throws Exception {
+        List<CounterMode> modes = new ArrayList<>();
+        for (String arg : args) {
+            modes.add(CounterMode.parse(arg, CounterMode.ROW_TRIGGER));
+        }
+        if (modes.isEmpty()) {
+            modes.addAll(Arrays.asList(CounterMode.values()));
+        }
+
+        System.out.println("=================================================================");
+        System.out.println("신청 인원 유지 방식 비교: " + modes);
+        System.out.println("=================================================================\n");
+
+        MiniConnectionPool.warmUp();
+        MiniConnectionPool.awaitReady(30, TimeUnit.SECONDS);
+
+        EnrollmentCounterDAO counterDAO = new EnrollmentCounterDAO();
+        try {
+            for (CounterMode mode : modes) {
+                if (!counterDAO.switchMode(mode)) {
+                    System.out.println("[SKIP] " + mode + " 전환 실패\n");
+                    continue;
+                }
+                cleanUp();
+                runMode(mode, counterDAO);
+            }
+        } finally {
+            cleanUp();
+            counterDAO.switchMode(CounterMode.ROW_TRIGGER);
+            EnrollmentBatchWriter.getInstance().shutdown();
+        }
+    }
+
+    private static void runMode(CounterMode mode, EnrollmentCounterDAO counterDAO) throws Exception {
+        System.out.println("-----------------------------------------------------------------");
+        System.out.println("방식: " + mode);
+
+        // 1) 단건 동시 신청
+        long redoBefore = getRedoSize();
+        long start = System.currentTimeMillis();
+        int singleSuccess = runSingleApply();
+        long singleMs = System.currentTimeMillis() - start;
+        long redoSingle = diff(redoBefore, getRedoSize());
+
+        // 2) 묶음 신청
+        redoBefore = getRedoSize();
+        start = System.currentTimeMillis();
+        int batchSuccess = runBatchApply();
+        long batchMs = System.currentTimeMillis() - start;
+        long redoBatch = diff(redoBefore, getRedoSize());
+
+        // 정합성 점검 (정리 전에 확인)
+        List<EnrollmentCounterDAO.CounterDrift> drift = counterDAO.findDrift();
+
+        // 3) 다건 삭제
+        redoBefore = getRedoSize();
+        start = System.currentTimeMillis();
+        int deleted = deleteTestEnrollments();
+        long deleteMs = System.currentTimeMillis() - start;
+        long redoDelete = diff(redoBefore, getRedoSize());
+        if (mode == CounterMode.APPLICATION) {
+            // 정리 DELETE는 DAO를 거치지 않으므로 직접 맞춤
+            counterDAO.repairAll();
+        }
+        List<EnrollmentCounterDAO.CounterDrift> driftAfterDelete = counterDAO.findDrift();
+
+        System.out.println("  단건 신청: 성공 " + singleSuccess + "건, " + singleMs + "ms, redo " + format(redoSingle));
+        System.out.println("  묶음 신청: 성공 " + batchSuccess + "건, " + batchMs + "ms, redo " + format(redoBatch));
+        System.out.println("  다건 삭제: " + deleted + "건, " + deleteMs + "ms, redo " + format(redoDelete));
+        printDrift("신청 후", drift);
+        printDrift("삭제 후", driftAfterDelete);
+        System.out.println();
+    }
+
+    private static int runSingleApply() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(THREAD_COUNT);
+        AtomicInteger success = new AtomicInteger(0);
+        EnrollmentDAO dao = new EnrollmentDAO();
+
+        for (int i = 1; i <= THREAD_COUNT; i++) {
+            String studentId = "2025" + String.format("%04d", i);
+            executor.submit(() -> {
+                try {
+                    startLatch.await();
+                    if (dao.applyCoursePessimistic(studentId, SINGLE_COURSE_ID).isSuccess()) {
+                        success.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    doneLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        doneLatch.await();
+        executor.shutdown();
+        return success.get();
+    }
+
+    private static int runBatchApply() throws Exception {
+        List<CompletableFuture<ApplyOutcome>> futures = new ArrayList<>();
+        for (int i = 101; i <= 100 + THREAD_COUNT * 2; i++) {
+            String studentId = "2025" + String.format("%04d", i);
+            for (int courseId : BATCH_COURSE_IDS) {
+                futures.add(EnrollmentBatchWriter.getInstance().submit(studentId, courseId));
+            }
+        }
+        int success = 0;
+        for (CompletableFuture<ApplyOutcome> future : futures) {
+            if (future.get().isSuccess()) {
+                success++;
+            }
+        }
+        return success;
+    }
+
+    private static int deleteTestEnrollments() throws SQLException {
+        String sql = "DELETE FROM enrollment WHERE student_id BETWEEN ? AND ?";
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, STUDENT_FROM);
+            pstmt.setString(2, STUDENT_TO);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private static void cleanUp() {
+        try {
+            deleteTestEnrollments();
+            new EnrollmentCounterDAO().repairAll();
+        } catch (SQLException e) {
+            System.err.println("테스트 데이터 정리 실패: " + e.getMessage());
+        }
+    }
+
+    // 인스턴스 전체 redo 발생량 (조회 권한이 없으면 -1)
+    private static long getRedoSize() {
+        String sql = "SELECT value FROM v$sysstat WHERE name = 'redo size'";
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : -1;
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    private static long diff(long before, long after) {
+        return before < 0 || after < 0 ? -1 : after - before;
+    }
+
+    private static String format(long redoBytes) {
+        return redoBytes < 0 ? "n/a" : String.format("%,d bytes", redoBytes);
+    }
+
+    private static void printDrift(String label, List<EnrollmentCounterDAO.CounterDrift> drift) {
+        if (drift == null) {
+            System.out.println("  정합성(" + label + "): 점검 실패");
+        } else if (drift.isEmpty()) {
+            System.out.println("  [PASS] 정합성(" + label + "): enrolled_count = APPROVED 행 수");
+        } else {
+            System.out.println("  [FAIL] 정합성(" + label + "): " + drift.size() + "개 강좌 불일치");
+            for (EnrollmentCounterDAO.CounterDrift d : drift) {
+                System.out.println("    " + d);
+            }
+        }
+    }
+}
@@ -1,10 +1,23 @@
 package university.scenario;
 
+import university.config.MiniConnectionPool;
+import university.config.TransactionTemplate;
+import university.dao.ConcurrencyStrategy;
 import university.dao.EnrollmentDAO;
-
+import university.dao.LockManager;
+import university.dao.LockWaitHistogram;
+import university.dao.SeatAdmissionGate;
+import university.dao.SeatBucketDAO;
+import university.service.EnrollmentBatchWriter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class MassiveLoadTest {
@@ -16,14 +29,36 @@ public class MassiveLoadTest {
     private static final AtomicInteger successCount = new AtomicInteger(0);
     private static final AtomicInteger failCount = new AtomicInteger(0);
     private static final AtomicInteger errorCount = new AtomicInteger(0); // DB 연결 에러 카운트
+    private static final ConcurrentLinkedQueue<Long> responseTimes = new ConcurrentLinkedQueue<>();
+
+    // 실행 인자로 신청 방식 선택: pessimistic (기본, 4회 왕복) / optimistic / hybrid / atomic (프로시저 1회 왕복) / batch (그룹 커밋)
+    //                           / bucket (좌석 버킷, -Denrollment.seatBuckets개로 나눠서 시작하고 끝나면 해제)
+    private static String mode = "pessimistic";
+    private static ConcurrencyStrategy strategy = ConcurrencyStrategy.PESSIMISTIC;
 
     public static void main(String[] args) throws InterruptedException {
+        if (args.length > 0) {
+            mode = args[0];
+            if (!"atomic".equals(mode) && !"batch".equals(mode) && !"bucket".equals(mode)) {
+                strategy = ConcurrencyStrategy.parse(mode, ConcurrencyStrategy.PESSIMISTIC);
+            }
+        }
         System.out.println("=== 1,000명 대규모 부하 테스트 (Connection 안정화 버전) ===");
         System.out.println("대상: 99999번 강의 (정원 30명)");
         System.out.println("참가자: 1,000명 (20250001 ~ 20251000)");
         System.out.println("전략: 랜덤 딜레이(0~300ms)를 주어 리스너 폭주(ORA-12541) 방지");
         System.out.println("---------------------------------------------");
 
+        // 커넥션 풀 워밍업 (병렬 생성) 후 시작
+        MiniConnectionPool.warmUp();
+        if (!MiniConnectionPool.awaitReady(30, TimeUnit.SECONDS)) {
+            System.out.println("[경고] 커넥션 풀 준비가 30초 안에 끝나지 않았습니다.");
+        }
+        System.out.println("커넥션 풀 준비 시간: " + MiniConnectionPool.getWarmUpMillis() + "ms");
+        if ("bucket".equals(mode) && !SeatBucketDAO.getInstance().enable(TARGET_COURSE_ID)) {
+            System.out.println("[경고] 좌석 버킷을 켜지 못했습니다. (일반 경로로 진행)");
+        }
+
         // 1,000개의 스레드를 감당할 풀 생성
         ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
 
@@ -49,7 +84,16 @@ public class MassiveLoadTest {
                     Thread.sleep(sleepTime);
 
                     // 수강신청 시도 (트랜잭션 & 락 작동)
-                    boolean success = dao.applyCourse(studentId, TARGET_COURSE_ID);
+                    long startTime = System.nanoTime();
+                    boolean success;
+                    if ("atomic".equals(mode)) {
+                        success = dao.applyCourseAtomic(studentId, TARGET_COURSE_ID).isSuccess();
+                    } else if ("batch".equals(mode)) {
+                        success = EnrollmentBatchWriter.getInstance().submit(studentId, TARGET_COURSE_ID).get().isSuccess();
+                    } else {
+                        success = dao.applyCourseWithStrategy(studentId, TARGET_COURSE_ID, strategy).isSuccess();
+                    }
+                    responseTimes.add((System.nanoTime() - startTime) / 1_000_000);
 
                     if (success) {
                         successCount.incrementAndGet();
@@ -89,6 +133,20 @@ public class MassiveLoadTest {
         System.out.println("성공 (수강신청 완료): " + successCount.get());
         System.out.println("실패 (정원초과/거절): " + failCount.get());
         System.out.println("에러 (DB 접속 불가 등): " + errorCount.get());
+        printLatency(attackEnd - attackStart);
+        System.out.println("커넥션 풀: " + MiniConnectionPool.getStats());
+        System.out.println("트랜잭션 재시도: " + TransactionTemplate.getDefault().getStats());
+        System.out.println("잔여석 관문: " + SeatAdmissionGate.getInstance().getStats());
+        if ("batch".equals(mode)) {
+            System.out.println("그룹 커밋: " + EnrollmentBatchWriter.getInstance().getStats());
+        }
+        if ("bucket".equals(mode)) {
+            System.out.println("좌석 버킷: " + SeatBucketDAO.getInstance().getStats());
+            System.out.println("좌석 버킷 해제 (되돌린 자리: " + SeatBucketDAO.getInstance().disable(TARGET_COURSE_ID) + ")");
+        }
+        System.out.println("동시성 제어: " + EnrollmentDAO.getStrategyStats());
+        System.out.println("락 대기 (" + EnrollmentDAO.getLockWaitPolicy() + "): " + LockWaitHistogram.getInstance().getStats());
+        System.out.println("락 순서/대기 그래프: " + LockManager.getInstance().getStats());
         System.out.println("---------------------------------------------");
 
         // 검증 로직
@@ -103,4 +161,25 @@ public class MassiveLoadTest {
             System.out.println("[FAIL] 정원 초과 또는 로직 실패 발생! (성공 수: " + successCount.get() + ")");
         }
     }
+
+    /**
+     * 응답 시간 요약 출력 (처리량, P50/P99)
+     */
+    private static void printLatency(long elapsedMs) {
+        List<Long> timeList = new ArrayList<>(responseTimes);
+        if (timeList.isEmpty()) {
+            return;
+        }
+        Collections.sort(timeList);
+        System.out.println("신청 방식: " + mode);
+        System.out.println("처리량: " + String.format("%.2f", (timeList.size() * 1000.0) / Math.max(elapsedMs, 1)) + " req/s");
+        System.out.println("응답 시간 P50: " + getPercentile(timeList, 50) + "ms, P99: " + getPercentile(timeList, 99)
+                + "ms, Max: " + timeList.get(timeList.size() - 1) + "ms");
+    }
+
+    private static long getPercentile(List<Long> sortedList, int percentile) {
+        int index = (int) Math.ceil(sortedList.size() * percentile / 100.0) - 1;
+        index = Math.max(0, Math.min(index, sortedList.size() - 1));
+        return sortedList.get(index);
+    }
 }
\ No newline at end of file
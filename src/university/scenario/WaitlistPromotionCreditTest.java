@@ -0,0 +1,99 @@
+package university.scenario;
+
+import university.dao.EnrollmentDAO;
+import university.model.Enrollment;
+
+/**
+ * 대기자 승격 학점 기준 테스트
+
+ * 목적:
+ * - 대기자 승격 시 학점 한도를 "승격되는 강좌의 학기" 기준으로 판단하는지 검증
+ * - 이전 학기에 이미 한도만큼 신청한 학생도 이번 학기 학점이 남아 있으면 승격되어야 함
+
+ * 테스트 시나리오:
+ * 1. 학생 B는 이전 학기(2025 1학기)에 최대 학점만큼 신청/승인된 상태로 준비
+ * 2. 학생 A가 정원 1명 강좌(2025 2학기)에 신청 → 마감
+ * 3. 학생 B가 대기자로 등록
+ * 4. 학생 A 취소 → 같은 트랜잭션에서 대기자 승격
+ * 5. 학생 B가 APPROVED로 바뀌어야 함 (전체 학기 합계로 비교하면 승격되지 않음)
+
+ * 실행 전 준비:
+ * 1. TARGET_COURSE_ID는 2025 2학기, 정원 1명 강좌
+ * 2. STUDENT_B는 2025 1학기 신청 학점이 최대 학점 이상, 2025 2학기 신청 내역 없음
+ */
+public class WaitlistPromotionCreditTest {
+
+    // 실제 ID로 교체 필요
+    private static final int TARGET_COURSE_ID = 99998;
+    private static final String STUDENT_A = "20250001"; // 자리를 비울 학생
+    private static final String STUDENT_B = "20250003"; // 이전 학기 학점이 찬 대기자
+
+    private static final int YEAR = 2025;
+    private static final String EARLIER_TERM = "1학기";
+    private static final String TARGET_TERM = "2학기";
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("=================================================================");
+        System.out.println(" 대기자 승격 학점 기준 테스트");
+        System.out.println("=================================================================");
+        System.out.println("조건: 학생 B는 " + YEAR + " " + EARLIER_TERM + " 학점이 한도까지 찬 상태");
+        System.out.println("예상: " + YEAR + " " + TARGET_TERM + " 강좌 대기자 승격은 성공");
+        System.out.println("-----------------------------------------------------------------");
+
+        EnrollmentDAO dao = new EnrollmentDAO();
+
+        // Step 0: 학기별 신청 학점 확인
+        double earlierCredits = dao.getTotalCredits(STUDENT_B, YEAR, EARLIER_TERM);
+        double targetCredits = dao.getTotalCredits(STUDENT_B, YEAR, TARGET_TERM);
+        System.out.println("[Step 0] 학생 B 신청 학점: " + EARLIER_TERM + " " + earlierCredits
+                + "학점, " + TARGET_TERM + " " + targetCredits + "학점");
+
+        // Step 1: 학생 A 신청 (정원 1/1 마감)
+        System.out.println("\n[Step 1] 학생 A(" + STUDENT_A + ") 수강신청 시도");
+        if (!dao.applyCourse(STUDENT_A, TARGET_COURSE_ID)) {
+            System.out.println("-> 학생 A 신청 실패 (테스트 중단)");
+            return;
+        }
+        System.out.println("-> 학생 A 신청 성공 (정원 마감)");
+
+        // Step 2: 학생 B 대기자 등록
+        System.out.println("\n[Step 2] 학생 B(" + STUDENT_B + ") 대기자 등록");
+        int position = dao.joinWaitlist(STUDENT_B, TARGET_COURSE_ID);
+        if (position <= 0) {
+            System.out.println("-> 대기자 등록 실패 (결과: " + position + ", 테스트 중단)");
+            return;
+        }
+        System.out.println("-> 대기 순번 " + position + "번");
+
+        Thread.sleep(500);
+
+        // Step 3: 학생 A 취소 → 대기자 승격
+        System.out.println("\n[Step 3] 학생 A 수강 취소");
+        Enrollment enrollA = findEnrollment(dao, STUDENT_A);
+        if (enrollA == null || !dao.delete(enrollA.getEnrollmentId())) {
+            System.out.println("-> 학생 A 취소 실패 (테스트 중단)");
+            return;
+        }
+        System.out.println("-> 학생 A 취소 완료");
+
+        // Step 4: 학생 B 상태 확인
+        Enrollment enrollB = findEnrollment(dao, STUDENT_B);
+        String status = enrollB != null ? enrollB.getStatus() : "없음";
+        System.out.println("\n[Step 4] 학생 B 상태: " + status);
+
+        System.out.println("\n=================================================================");
+        if ("APPROVED".equals(status)) {
+            System.out.println(" [PASS] 이전 학기 학점과 무관하게 이번 학기 기준으로 승격됨");
+        } else {
+            System.out.println(" [FAIL] 승격되지 않음 (학점 합계가 전체 학기 기준인지 확인 필요)");
+        }
+        System.out.println("=================================================================\n");
+    }
+
+    private static Enrollment findEnrollment(EnrollmentDAO dao, String studentId) {
+        return dao.selectByStudent(studentId, YEAR, TARGET_TERM).stream()
+                .filter(e -> e.getOpenCourseId() == TARGET_COURSE_ID)
+                .findFirst()
+                .orElse(null);
+    }
+}
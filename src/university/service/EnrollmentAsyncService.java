@@ -0,0 +1,147 @@
+package university.service;
+
+import university.config.MiniConnectionPool;
+import university.service.EnrollmentService.EnrollmentResult;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 수강신청 비동기 서비스 (EnrollmentService를 감싼 CompletableFuture API)
+ * - 호출한 스레드(Swing EDT, 부하 테스트 스레드)를 JDBC 대기로 묶지 않음
+ * - 작업 스레드 수 = 커넥션 풀 최대 크기 (그 이상 돌려도 커넥션을 기다릴 뿐)
+ * - 대기열도 크기를 제한해서 넘치면 바로 실패 결과로 완료 (메모리에 무한히 쌓지 않음)
+ *
+ * -Denrollment.asyncQueueSize=1000 (대기열 크기)
+ */
+public class EnrollmentAsyncService {
+
+    private static EnrollmentAsyncService instance;
+
+    private final EnrollmentService enrollmentService;
+    private final ThreadPoolExecutor executor;
+
+    // 통계
+    private final AtomicLong submitted = new AtomicLong(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+
+    public EnrollmentAsyncService(EnrollmentService enrollmentService, int threads, int queueSize) {
+        this.enrollmentService = enrollmentService;
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "enrollment-async-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 기본 설정으로 만든 공용 인스턴스 (스레드 수 = 커넥션 풀 최대 크기)
+     */
+    public static synchronized EnrollmentAsyncService getInstance() {
+        if (instance == null) {
+            instance = new EnrollmentAsyncService(new EnrollmentService(),
+                    MiniConnectionPool.getMaxSize(),
+                    Integer.getInteger("enrollment.asyncQueueSize", 1000));
+        }
+        return instance;
+    }
+
+    /**
+     * 수강신청 (비동기)
+     */
+    public CompletableFuture<EnrollmentResult> enroll(String studentId, int openCourseId, String createdBy) {
+        return submit(() -> enrollmentService.enroll(studentId, openCourseId, createdBy));
+    }
+
+    /**
+     * 수강신청 (비동기, 정원 초과 시 대기자 등록 여부 지정)
+     */
+    public CompletableFuture<EnrollmentResult> enroll(String studentId, int openCourseId, String createdBy,
+                                                      boolean joinWaitlist) {
+        return submit(() -> enrollmentService.enroll(studentId, openCourseId, createdBy, joinWaitlist));
+    }
+
+    /**
+     * 수강신청 (비동기, 요청 키 지정 → 같은 키의 재요청은 처음 결과를 돌려받음)
+     */
+    public CompletableFuture<EnrollmentResult> enrollOnce(String requestKey, String studentId, int openCourseId,
+                                                          String createdBy, boolean joinWaitlist) {
+        return submit(() -> enrollmentService.enrollOnce(requestKey, studentId, openCourseId, createdBy, joinWaitlist));
+    }
+
+    /**
+     * 수강신청 취소 (비동기, 요청 키 지정)
+     */
+    public CompletableFuture<EnrollmentResult> cancelEnrollmentOnce(String requestKey, int enrollmentId) {
+        return submit(() -> enrollmentService.cancelEnrollmentOnce(requestKey, enrollmentId));
+    }
+
+    /**
+     * 수강신청 취소 (비동기)
+     */
+    public CompletableFuture<EnrollmentResult> cancelEnrollment(int enrollmentId) {
+        return submit(() -> enrollmentService.cancelEnrollment(enrollmentId));
+    }
+
+    /**
+     * 수강신청 상태 변경 (비동기)
+     */
+    public CompletableFuture<EnrollmentResult> changeStatus(int enrollmentId, String newStatus) {
+        return submit(() -> enrollmentService.changeStatus(enrollmentId, newStatus));
+    }
+
+    // 예외/대기열 초과도 실패 결과로 완료 (호출한 쪽은 결과 메시지만 보면 됨)
+    private CompletableFuture<EnrollmentResult> submit(Supplier<EnrollmentResult> task) {
+        submitted.incrementAndGet();
+        try {
+            return CompletableFuture.supplyAsync(task, executor)
+                    .exceptionally(e -> {
+                        System.err.println("수강신청 비동기 처리 오류: " + e.getMessage());
+                        return new EnrollmentResult(false, "수강신청 처리 중 오류가 발생했습니다.", true);
+                    });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            return CompletableFuture.completedFuture(
+                    new EnrollmentResult(false, "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도하세요.", true));
+        }
+    }
+
+    /**
+     * 작업 스레드 종료 (대기열에 있는 작업은 마저 처리)
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===== 통계 조회 =====
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public String getStats() {
+        return String.format("async[threads=%d, active=%d, queued=%d, submitted=%d, rejected=%d]",
+                executor.getMaximumPoolSize(), executor.getActiveCount(), executor.getQueue().size(),
+                getSubmittedCount(), getRejectedCount());
+    }
+}
@@ -0,0 +1,241 @@
+package university.service;
+
+import university.config.TransactionTemplate;
+import university.dao.ApplyOutcome;
+import university.dao.EnrollmentDAO;
+import university.dao.EnrollmentDAO.ApplyRequest;
+import university.dao.SeatAdmissionGate;
+import university.dao.SeatBucketDAO;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 수강신청 그룹 커밋 처리기
+ * - 요청은 큐에 넣고 바로 Future를 돌려받음
+ * - 전용 스레드 1개가 큐를 묶음(batch) 단위로 꺼내서 한 트랜잭션으로 검증 + executeBatch INSERT
+ * - 요청 1,000건이 커밋 1,000번(로그 동기화 1,000번)이 아니라 묶음 수만큼만 커밋됨
+ * - 각 요청의 Future는 자기 결과(ApplyOutcome)로 완료됨
+ *
+ * 설정값 (JVM 옵션)
+ *   -Denrollment.batchSize=50      묶음 최대 크기
+ *   -Denrollment.batchLingerMs=5   첫 요청 이후 묶음을 더 채우기 위해 기다리는 시간
+ */
+public class EnrollmentBatchWriter {
+
+    private static final int MAX_BATCH_SIZE_LIMIT = 1000; // IN 목록 길이 제한 (Oracle 최대 1000개)
+
+    private static EnrollmentBatchWriter instance;
+
+    private final EnrollmentDAO enrollmentDAO = new EnrollmentDAO();
+    private final TransactionTemplate txTemplate = TransactionTemplate.getDefault();
+    private final SeatAdmissionGate seatGate = SeatAdmissionGate.getInstance();
+    private final SeatBucketDAO seatBuckets = SeatBucketDAO.getInstance();
+
+    private final int batchSize;
+    private final long lingerMs;
+    private final BlockingQueue<PendingRequest> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    // 통계
+    private final AtomicLong batches = new AtomicLong(0);
+    private final AtomicLong requests = new AtomicLong(0);
+    private final AtomicLong failedBatches = new AtomicLong(0);
+    private volatile int maxObservedBatchSize = 0;
+
+    public EnrollmentBatchWriter(int batchSize, long lingerMs) {
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE_LIMIT));
+        this.lingerMs = Math.max(0, lingerMs);
+        this.writerThread = new Thread(this::writeLoop, "enrollment-batch-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 기본 설정으로 만든 공용 인스턴스
+     */
+    public static synchronized EnrollmentBatchWriter getInstance() {
+        if (instance == null) {
+            instance = new EnrollmentBatchWriter(
+                    Integer.getInteger("enrollment.batchSize", 50),
+                    Long.getLong("enrollment.batchLingerMs", 5L));
+        }
+        return instance;
+    }
+
+    /**
+     * 수강신청 요청 등록
+     * 잔여석 관문에서 막히면 큐에 넣지 않고 바로 COURSE_FULL로 완료
+     * (버킷 강좌는 강좌 행이 매진으로 보이므로 관문을 거치지 않고 묶음 처리에서 버킷 자리를 받음)
+     */
+    public CompletableFuture<ApplyOutcome> submit(String studentId, int openCourseId) {
+        if (!running) {
+            return CompletableFuture.completedFuture(ApplyOutcome.ERROR);
+        }
+        PendingRequest pending = new PendingRequest(new ApplyRequest(studentId, openCourseId));
+        if (!seatBuckets.isBucketed(openCourseId)) {
+            if (!seatGate.tryAcquire(openCourseId)) {
+                return CompletableFuture.completedFuture(ApplyOutcome.COURSE_FULL);
+            }
+            pending.future.whenComplete((outcome, e) ->
+                    seatGate.settle(openCourseId, outcome != null ? outcome : ApplyOutcome.ERROR));
+        }
+        queue.add(pending);
+        // 넣는 사이에 종료되어 처리기가 마지막 정리를 끝냈으면 아무도 꺼내지 않으므로 직접 오류로 완료
+        // (꺼내지 못했으면 처리기가 이미 가져간 것 → 처리기가 완료함, 관문 자리는 whenComplete에서 정산)
+        if (!running && queue.remove(pending)) {
+            pending.future.complete(ApplyOutcome.ERROR);
+        }
+        return pending.future;
+    }
+
+    private void writeLoop() {
+        List<PendingRequest> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                // 처리기 스레드가 죽으면 이후 요청이 모두 멈추므로 잡아서 계속 진행
+                System.err.println("수강신청 묶음 처리 오류: " + e.getMessage());
+                completeAll(batch, ApplyOutcome.ERROR);
+            } finally {
+                batch.clear();
+            }
+        }
+        // 종료 시 남은 요청은 오류로 완료
+        List<PendingRequest> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        completeAll(remaining, ApplyOutcome.ERROR);
+    }
+
+    // 첫 요청 이후 linger 시간 동안 batchSize까지 더 모음
+    private void fillBatch(List<PendingRequest> batch) throws InterruptedException {
+        queue.drainTo(batch, batchSize - batch.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        while (batch.size() < batchSize) {
+            long waitNanos = deadline - System.nanoTime();
+            if (waitNanos <= 0) {
+                break;
+            }
+            PendingRequest next = queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void writeBatch(List<PendingRequest> batch) {
+        List<ApplyRequest> applyRequests = new ArrayList<>(batch.size());
+        for (PendingRequest pending : batch) {
+            applyRequests.add(pending.request);
+        }
+
+        batches.incrementAndGet();
+        requests.addAndGet(batch.size());
+        if (batch.size() > maxObservedBatchSize) {
+            maxObservedBatchSize = batch.size();
+        }
+
+        try {
+            List<ApplyOutcome> outcomes = txTemplate.execute(
+                    conn -> enrollmentDAO.applyBatchInTransaction(conn, applyRequests));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(outcomes.get(i));
+            }
+        } catch (SQLException e) {
+            failedBatches.incrementAndGet();
+            System.err.println("수강신청 묶음 처리 실패 (" + batch.size() + "건): " + e.getMessage());
+            completeAll(batch, ApplyOutcome.ERROR);
+        }
+    }
+
+    private static void completeAll(List<PendingRequest> batch, ApplyOutcome outcome) {
+        for (PendingRequest pending : batch) {
+            pending.future.complete(outcome);
+        }
+    }
+
+    /**
+     * 처리기 종료 (큐에 남은 요청은 처리 후 종료)
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===== 통계 조회 =====
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getLingerMs() {
+        return lingerMs;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getFailedBatchCount() {
+        return failedBatches.get();
+    }
+
+    public int getMaxObservedBatchSize() {
+        return maxObservedBatchSize;
+    }
+
+    public double getAverageBatchSize() {
+        long count = batches.get();
+        return count == 0 ? 0.0 : (double) requests.get() / count;
+    }
+
+    public String getStats() {
+        return String.format("batch[size=%d, lingerMs=%d, batches=%d, requests=%d, avg=%.1f, max=%d, failed=%d, queued=%d]",
+                batchSize, lingerMs, getBatchCount(), getRequestCount(), getAverageBatchSize(),
+                getMaxObservedBatchSize(), getFailedBatchCount(), getQueueSize());
+    }
+
+    /**
+     * 큐에 들어간 요청 1건과 결과 Future
+     */
+    private static class PendingRequest {
+        private final ApplyRequest request;
+        private final CompletableFuture<ApplyOutcome> future = new CompletableFuture<>();
+
+        PendingRequest(ApplyRequest request) {
+            this.request = request;
+        }
+    }
+}
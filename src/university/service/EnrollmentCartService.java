@@ -0,0 +1,324 @@
+package university.service;
+
+import university.dao.ApplyOutcome;
+import university.dao.EnrollmentDAO;
+import university.model.Prerequisite;
+import university.model.Student;
+import university.model.TimetableMask;
+import university.service.EnrollmentService.EnrollmentResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 수강신청 장바구니 서비스
+ * - 신청 기간 전에 학생별로 개설강좌 ID를 담아 둠 (JVM 메모리)
+ * - 결제(checkout) 한 번으로 담은 강좌 전체를 함께 검증 (학점, 시간표 충돌, 중복, 선수과목)
+ *   장바구니 안의 강좌끼리 시간이 겹치거나 학점 합계가 넘는 경우도 걸러냄
+ * - 통과한 강좌는 트랜잭션 1개로 학생 → 강좌(ID순) 락을 잡고 다시 확인한 뒤 한 번에 INSERT
+ *   (장바구니의 다른 강좌를 동시수강 선수과목으로 기대는 강좌는 그 강좌가 실제로 신청된 뒤 다음 트랜잭션에서)
+ * - 결과는 강좌별로 돌려주고, 신청된 강좌는 장바구니에서 빠짐
+ *
+ * -Denrollment.cartMaxSize=20 (장바구니 최대 강좌 수)
+ */
+public class EnrollmentCartService {
+
+    private static final EnrollmentCartService INSTANCE = new EnrollmentCartService();
+
+    private static final int MAX_CART_SIZE = Math.max(1, Integer.getInteger("enrollment.cartMaxSize", 20));
+
+    private final EnrollmentDAO enrollmentDAO = new EnrollmentDAO();
+    private final TimetableService timetableService = TimetableService.getInstance();
+    private final PrerequisiteService prerequisiteService = PrerequisiteService.getInstance();
+    // 학번 → 담은 강좌 ID (담은 순서 유지)
+    private final Map<String, Set<Integer>> carts = new ConcurrentHashMap<>();
+
+    // 통계
+    private final AtomicLong checkouts = new AtomicLong(0);
+    private final AtomicLong approved = new AtomicLong(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+
+    private EnrollmentCartService() {
+    }
+
+    public static EnrollmentCartService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 장바구니에 강좌 담기
+     *
+     * @return false면 이미 담았거나 장바구니가 가득 참
+     */
+    public boolean addToCart(String studentId, int openCourseId) {
+        Set<Integer> cart = carts.computeIfAbsent(studentId, k -> new LinkedHashSet<>());
+        synchronized (cart) {
+            if (cart.size() >= MAX_CART_SIZE) {
+                return false;
+            }
+            return cart.add(openCourseId);
+        }
+    }
+
+    public boolean removeFromCart(String studentId, int openCourseId) {
+        Set<Integer> cart = carts.get(studentId);
+        if (cart == null) {
+            return false;
+        }
+        synchronized (cart) {
+            return cart.remove(openCourseId);
+        }
+    }
+
+    public List<Integer> getCart(String studentId) {
+        Set<Integer> cart = carts.get(studentId);
+        if (cart == null) {
+            return Collections.emptyList();
+        }
+        synchronized (cart) {
+            return new ArrayList<>(cart);
+        }
+    }
+
+    public void clearCart(String studentId) {
+        carts.remove(studentId);
+    }
+
+    /**
+     * 장바구니 일괄 신청
+     *
+     * @return 개설강좌 ID → 처리 결과 (장바구니 순서)
+     */
+    public Map<Integer, EnrollmentResult> checkout(String studentId, String createdBy) {
+        checkouts.incrementAndGet();
+        List<Integer> courseIds = getCart(studentId);
+        Map<Integer, EnrollmentResult> results = new LinkedHashMap<>();
+        if (courseIds.isEmpty()) {
+            return results;
+        }
+
+        // 1. 담은 강좌 전체의 검증 정보를 한 번에 조회
+        Map<Integer, EnrollmentDAO.ValidationSnapshot> snapshots =
+                enrollmentDAO.loadValidationSnapshots(studentId, courseIds);
+        if (snapshots == null) {
+            for (Integer openCourseId : courseIds) {
+                results.put(openCourseId, new EnrollmentResult(false, "수강신청 처리 중 오류가 발생했습니다.", true));
+            }
+            return results;
+        }
+
+        // 2. 강좌별 검증 (앞에서 통과한 강좌의 시간/학점을 누적해서 장바구니 안의 충돌도 확인)
+        //    동시수강 선수과목은 검증을 통과한 장바구니 강좌만 인정하고,
+        //    선수과목만 걸린 강좌는 다른 강좌가 더 통과하면 다시 확인 (담은 순서와 무관하게 판단)
+        Map<String, TimetableMask> stagedMasks = new HashMap<>();
+        Map<String, Double> stagedCredits = new HashMap<>();
+        Map<String, Double> maxCreditsByTerm = new HashMap<>();
+        Map<String, Set<String>> stagedCourseCodes = new HashMap<>();
+        List<Integer> accepted = new ArrayList<>();
+        Map<Integer, Double> maxCredits = new HashMap<>();
+        for (Integer openCourseId : courseIds) {
+            results.put(openCourseId, null); // 결과를 장바구니 순서로 돌려주기 위해 자리만 잡아 둠
+        }
+        List<Integer> pending = new ArrayList<>(courseIds);
+        boolean progressed = true;
+        while (progressed) {
+            progressed = false;
+            for (Iterator<Integer> it = pending.iterator(); it.hasNext(); ) {
+                Integer openCourseId = it.next();
+                EnrollmentDAO.ValidationSnapshot snapshot = snapshots.get(openCourseId);
+                EnrollmentResult failure = validate(studentId, openCourseId, snapshot,
+                        stagedMasks, stagedCredits, maxCreditsByTerm);
+                if (failure != null) {
+                    results.put(openCourseId, failure);
+                    it.remove();
+                    continue;
+                }
+                String key = termKey(snapshot);
+                failure = checkPrerequisites(studentId, snapshot, stagedCourseCodes.get(key));
+                if (failure != null) {
+                    results.put(openCourseId, failure);
+                    continue;
+                }
+                stagedMasks.merge(key, timetableService.getCourseMask(openCourseId), TimetableMask::union);
+                stagedCredits.merge(key, snapshot.getCredit(), Double::sum);
+                stagedCourseCodes.computeIfAbsent(key, k -> new HashSet<>()).add(snapshot.getCourseCode());
+                maxCredits.put(openCourseId, maxCreditsByTerm.get(key));
+                accepted.add(openCourseId);
+                it.remove();
+                progressed = true;
+            }
+        }
+
+        // 3. 통과한 강좌를 트랜잭션 1개로 등록 (락을 잡고 폐강/정원/학점 재확인)
+        //    장바구니 강좌를 동시수강으로 기대는 강좌는 그 강좌가 실제로 신청된 다음 묶음에서 등록
+        //    (선수과목 관계는 순환이 없으므로 묶음을 반복하면 끝남, 기댈 강좌가 없으면 묶음 1개)
+        Map<String, Set<String>> enrolledCourseCodes = new HashMap<>();
+        List<Integer> waiting = new ArrayList<>(accepted);
+        while (!waiting.isEmpty()) {
+            List<Integer> wave = new ArrayList<>();
+            for (Iterator<Integer> it = waiting.iterator(); it.hasNext(); ) {
+                Integer openCourseId = it.next();
+                EnrollmentDAO.ValidationSnapshot snapshot = snapshots.get(openCourseId);
+                if (checkPrerequisites(studentId, snapshot, enrolledCourseCodes.get(termKey(snapshot))) == null) {
+                    wave.add(openCourseId);
+                    it.remove();
+                }
+            }
+            if (wave.isEmpty()) {
+                break;
+            }
+
+            Map<Integer, ApplyOutcome> outcomes = enrollmentDAO.checkoutCart(studentId, wave, createdBy, maxCredits);
+            for (Integer openCourseId : wave) {
+                EnrollmentDAO.ValidationSnapshot snapshot = snapshots.get(openCourseId);
+                ApplyOutcome outcome = outcomes.get(openCourseId);
+                if (outcome == ApplyOutcome.SUCCESS) {
+                    timetableService.recordEnrollment(studentId, snapshot.getYear(), snapshot.getTerm(), openCourseId);
+                    removeFromCart(studentId, openCourseId);
+                    enrolledCourseCodes.computeIfAbsent(termKey(snapshot), k -> new HashSet<>())
+                            .add(snapshot.getCourseCode());
+                }
+                results.put(openCourseId, toResult(outcome, snapshot, maxCredits.get(openCourseId)));
+            }
+        }
+        // 기댄 동시수강 강좌가 신청되지 않아 등록하지 않은 강좌
+        for (Integer openCourseId : waiting) {
+            EnrollmentDAO.ValidationSnapshot snapshot = snapshots.get(openCourseId);
+            results.put(openCourseId, checkPrerequisites(studentId, snapshot,
+                    enrolledCourseCodes.get(termKey(snapshot))));
+        }
+
+        for (EnrollmentResult result : results.values()) {
+            if (result.isSuccess()) {
+                approved.incrementAndGet();
+            } else {
+                rejected.incrementAndGet();
+            }
+        }
+        return results;
+    }
+
+    // 사전 검증 (통과하면 null, 선수과목은 checkPrerequisites에서 따로 확인)
+    private EnrollmentResult validate(String studentId, int openCourseId, EnrollmentDAO.ValidationSnapshot snapshot,
+                                      Map<String, TimetableMask> stagedMasks, Map<String, Double> stagedCredits,
+                                      Map<String, Double> maxCreditsByTerm) {
+        if (snapshot == null || !snapshot.isStudentExists()) {
+            return new EnrollmentResult(false, "존재하지 않는 학생입니다.");
+        }
+        if (!"ENROLLED".equals(snapshot.getStudentStatus())) {
+            Student student = new Student();
+            student.setStatus(snapshot.getStudentStatus());
+            return new EnrollmentResult(false, "재학 중인 학생만 수강신청이 가능합니다. (현재: " +
+                    student.getStatusKorean() + ")");
+        }
+        if (!snapshot.isCourseExists()) {
+            return new EnrollmentResult(false, "존재하지 않는 개설강좌입니다.");
+        }
+        if (snapshot.isCanceled()) {
+            return new EnrollmentResult(false, "폐강된 강좌입니다.");
+        }
+        if (snapshot.isFull()) {
+            return EnrollmentService.capacityExceeded(snapshot);
+        }
+        if (snapshot.isDuplicate()) {
+            return new EnrollmentResult(false, "이미 신청한 강좌입니다.");
+        }
+
+        // 시간표: 이미 신청한 강좌 + 장바구니에서 먼저 통과한 강좌
+        String key = termKey(snapshot);
+        if (timetableService.hasConflict(studentId, snapshot.getYear(), snapshot.getTerm(), openCourseId)) {
+            return new EnrollmentResult(false, "이미 신청한 강좌와 강의 시간이 겹칩니다.");
+        }
+        TimetableMask staged = stagedMasks.get(key);
+        if (staged != null && staged.intersects(timetableService.getCourseMask(openCourseId))) {
+            return new EnrollmentResult(false, "장바구니의 다른 강좌와 강의 시간이 겹칩니다.");
+        }
+
+        // 학점: 이미 신청한 학점 + 장바구니에서 먼저 통과한 학점
+        double maxAllowed = maxCreditsByTerm.computeIfAbsent(key, k ->
+                TermGpaService.getInstance().getMaxCredits(studentId, snapshot.getYear(), snapshot.getTerm()));
+        double currentCredits = snapshot.getTermCredits() + stagedCredits.getOrDefault(key, 0.0);
+        if (currentCredits + snapshot.getCredit() > maxAllowed) {
+            return EnrollmentService.creditExceeded(currentCredits, snapshot.getCredit(), maxAllowed);
+        }
+        return null;
+    }
+
+    // 선수과목 검사 (통과하면 null)
+    // cartCourseCodes: 같은 학기 장바구니 강좌 중 동시수강으로 인정할 과목 코드 (검증 통과 또는 실제 신청된 강좌만)
+    private EnrollmentResult checkPrerequisites(String studentId, EnrollmentDAO.ValidationSnapshot snapshot,
+                                                Set<String> cartCourseCodes) {
+        Set<String> termCourseCodes = new HashSet<>(snapshot.getTermCourseCodes());
+        if (cartCourseCodes != null) {
+            termCourseCodes.addAll(cartCourseCodes);
+        }
+        List<Prerequisite> unmet = prerequisiteService.findUnmet(studentId, snapshot.getCourseCode(),
+                snapshot.getYear(), snapshot.getTerm(), termCourseCodes);
+        if (unmet.isEmpty()) {
+            return null;
+        }
+        List<String> codes = new ArrayList<>();
+        for (Prerequisite prerequisite : unmet) {
+            codes.add(prerequisite.getPrereqCourseCode());
+        }
+        return new EnrollmentResult(false, "선수과목을 먼저 이수해야 합니다. (미이수: " +
+                String.join(", ", codes) + ")");
+    }
+
+    private EnrollmentResult toResult(ApplyOutcome outcome, EnrollmentDAO.ValidationSnapshot snapshot, double maxAllowed) {
+        switch (outcome) {
+            case SUCCESS:
+                return new EnrollmentResult(true, "수강신청이 완료되었습니다.");
+            case COURSE_CANCELED:
+                return new EnrollmentResult(false, "폐강된 강좌입니다.");
+            case COURSE_FULL:
+                return EnrollmentService.capacityExceeded(snapshot);
+            case DUPLICATE:
+                return new EnrollmentResult(false, "이미 신청한 강좌입니다.");
+            case CREDIT_EXCEEDED:
+                return new EnrollmentResult(false,
+                        String.format("최대 신청 학점을 초과합니다. (최대: %.1f학점)", maxAllowed));
+            case STUDENT_NOT_FOUND:
+                return new EnrollmentResult(false, "존재하지 않는 학생입니다.");
+            case COURSE_NOT_FOUND:
+                return new EnrollmentResult(false, "존재하지 않는 개설강좌입니다.");
+            case BUSY:
+                return EnrollmentService.busy();
+            default:
+                return new EnrollmentResult(false, "수강신청 처리 중 오류가 발생했습니다.", true);
+        }
+    }
+
+    private static String termKey(EnrollmentDAO.ValidationSnapshot snapshot) {
+        return snapshot.getYear() + "#" + snapshot.getTerm();
+    }
+
+    // ===== 통계 조회 =====
+
+    public long getCheckoutCount() {
+        return checkouts.get();
+    }
+
+    public long getApprovedCount() {
+        return approved.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public String getStats() {
+        return String.format("cart[checkouts=%d, approved=%d, rejected=%d, carts=%d, maxSize=%d]",
+                getCheckoutCount(), getApprovedCount(), getRejectedCount(), carts.size(), MAX_CART_SIZE);
+    }
+}
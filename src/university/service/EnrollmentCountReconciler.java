@@ -0,0 +1,200 @@
+package university.service;
+
+import university.config.MiniConnectionPool;
+import university.dao.EnrollmentCounterDAO;
+import university.dao.EnrollmentCounterDAO.CounterDrift;
+import university.dao.EnrollmentCounterDAO.RepairResult;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 신청 인원(enrolled_count) 백그라운드 보정 작업
+ * - 개설강좌를 ID 순 키셋 페이지로 훑으면서 APPROVED 행 수와 비교 (락 없는 읽기)
+ * - 어긋난 강좌만 짧은 락(NOWAIT 또는 WAIT n초)을 잡고 다시 확인한 뒤 고침, 락을 못 잡으면 다음 순회로 미룸
+ * - 신청 트래픽과 경쟁하지 않도록 스레드 1개로 돌리고, 페이지 사이에 쉬고,
+ *   커넥션 풀 사용률이 기준을 넘으면 풀이 한가해질 때까지 기다림
+ * - 순회/불일치/보정/건너뜀 건수와 누적 오차를 집계
+ *
+ * 설정값 (JVM 옵션)
+ *   -Denrollment.reconcileIntervalMs=300000 (순회 간격, 0 이하면 시작하지 않음)
+ *   -Denrollment.reconcilePageSize=200
+ *   -Denrollment.reconcilePauseMs=200 (페이지 사이 대기)
+ *   -Denrollment.reconcileLockWaitSec=0 (0이면 NOWAIT)
+ *   -Denrollment.reconcileMaxPoolUsage=0.5 (활성 커넥션 / 최대 크기가 이 값을 넘으면 대기)
+ */
+public class EnrollmentCountReconciler {
+
+    private static final EnrollmentCountReconciler INSTANCE = new EnrollmentCountReconciler();
+
+    private static final long INTERVAL_MS = Long.getLong("enrollment.reconcileIntervalMs", 300_000L);
+    private static final int PAGE_SIZE = Math.max(1, Integer.getInteger("enrollment.reconcilePageSize", 200));
+    private static final long PAUSE_MS = Long.getLong("enrollment.reconcilePauseMs", 200L);
+    private static final int LOCK_WAIT_SEC = Math.max(0, Integer.getInteger("enrollment.reconcileLockWaitSec", 0));
+    private static final double MAX_POOL_USAGE =
+            Double.parseDouble(System.getProperty("enrollment.reconcileMaxPoolUsage", "0.5"));
+
+    private final EnrollmentCounterDAO counterDAO = new EnrollmentCounterDAO();
+    private Thread worker;
+
+    // 통계
+    private final AtomicLong passes = new AtomicLong(0);
+    private final AtomicLong scanned = new AtomicLong(0);
+    private final AtomicLong drifted = new AtomicLong(0);
+    private final AtomicLong repaired = new AtomicLong(0);
+    private final AtomicLong busySkips = new AtomicLong(0);
+    private final AtomicLong failures = new AtomicLong(0);
+    private final AtomicLong throttled = new AtomicLong(0);
+    private final AtomicLong totalAbsDrift = new AtomicLong(0);
+    private final AtomicInteger maxAbsDrift = new AtomicInteger(0);
+    private volatile long lastPassMillis = -1;
+    private volatile int lastPassDrifted = 0;
+
+    private EnrollmentCountReconciler() {
+    }
+
+    public static EnrollmentCountReconciler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 백그라운드 순회 시작 (이미 돌고 있거나 간격이 0 이하면 무시)
+     */
+    public synchronized void start() {
+        if (INTERVAL_MS <= 0 || worker != null) {
+            return;
+        }
+        worker = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(INTERVAL_MS);
+                    runPass();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (RuntimeException e) {
+                    System.err.println("신청 인원 보정 작업 오류: " + e.getMessage());
+                }
+            }
+        }, "enrollment-count-reconciler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    /**
+     * 전체 강좌 1회 순회 (호출한 스레드에서 실행)
+     *
+     * @return 이번 순회에서 고친 강좌 수
+     */
+    public int runPass() throws InterruptedException {
+        long start = System.currentTimeMillis();
+        int passDrifted = 0;
+        int passRepaired = 0;
+        int lastId = 0;
+
+        while (true) {
+            awaitQuietPool();
+            List<CounterDrift> page = counterDAO.scanPage(lastId, PAGE_SIZE);
+            if (page == null) {
+                failures.incrementAndGet();
+                break;
+            }
+            if (page.isEmpty()) {
+                break;
+            }
+            scanned.addAndGet(page.size());
+            lastId = page.get(page.size() - 1).getOpenCourseId();
+
+            for (CounterDrift drift : page) {
+                if (drift.getDrift() == 0) {
+                    continue;
+                }
+                passDrifted++;
+                drifted.incrementAndGet();
+                awaitQuietPool();
+                RepairResult result = counterDAO.repair(drift.getOpenCourseId(), LOCK_WAIT_SEC);
+                switch (result) {
+                    case REPAIRED:
+                        passRepaired++;
+                        repaired.incrementAndGet();
+                        recordDrift(Math.abs(drift.getDrift()));
+                        System.out.println("신청 인원 보정: " + drift);
+                        break;
+                    case BUSY:
+                        busySkips.incrementAndGet();
+                        break;
+                    case FAILED:
+                        failures.incrementAndGet();
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            Thread.sleep(PAUSE_MS);
+        }
+
+        passes.incrementAndGet();
+        lastPassDrifted = passDrifted;
+        lastPassMillis = System.currentTimeMillis() - start;
+        return passRepaired;
+    }
+
+    // 신청 처리로 풀이 바쁘면 한가해질 때까지 쉼
+    private void awaitQuietPool() throws InterruptedException {
+        int maxSize = Math.max(1, MiniConnectionPool.getMaxSize());
+        while ((double) MiniConnectionPool.getActiveCount() / maxSize > MAX_POOL_USAGE) {
+            throttled.incrementAndGet();
+            Thread.sleep(Math.max(PAUSE_MS, 50L));
+        }
+    }
+
+    private void recordDrift(int absDrift) {
+        totalAbsDrift.addAndGet(absDrift);
+        maxAbsDrift.accumulateAndGet(absDrift, Math::max);
+    }
+
+    // ===== 통계 조회 =====
+
+    public long getPassCount() {
+        return passes.get();
+    }
+
+    public long getScannedCount() {
+        return scanned.get();
+    }
+
+    public long getDriftedCount() {
+        return drifted.get();
+    }
+
+    public long getRepairedCount() {
+        return repaired.get();
+    }
+
+    public long getBusySkipCount() {
+        return busySkips.get();
+    }
+
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    public String getStats() {
+        return String.format("reconciler[passes=%d, scanned=%d, drifted=%d, repaired=%d, busySkips=%d, " +
+                        "failures=%d, throttled=%d, totalAbsDrift=%d, maxAbsDrift=%d, lastPass=%dms/%d drifted]",
+                getPassCount(), getScannedCount(), getDriftedCount(), getRepairedCount(), getBusySkipCount(),
+                failures.get(), getThrottledCount(), totalAbsDrift.get(), maxAbsDrift.get(),
+                lastPassMillis, lastPassDrifted);
+    }
+}
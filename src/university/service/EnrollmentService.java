@@ -1,13 +1,14 @@
 package university.service;
 
+import university.dao.ApplyOutcome;
 import university.dao.EnrollmentDAO;
 import university.dao.OpenCourseDAO;
-import university.dao.StudentDAO;
 import university.model.Enrollment;
-import university.model.OpenCourse;
+import university.model.Prerequisite;
 import university.model.Student;
 
-import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 수강신청 비즈니스 로직 서비스
@@ -15,88 +16,183 @@ import java.sql.Timestamp;
 public class EnrollmentService {
 
     private EnrollmentDAO enrollmentDAO;
+    private TimetableService timetableService;
+    private PrerequisiteService prerequisiteService;
     private OpenCourseDAO openCourseDAO;
-    private StudentDAO studentDAO;
 
-    // 시스템 설정값 (실제로는 DB에서 조회)
-    private static final double MAX_CREDITS = 18.0;
-    private static final double MAX_CREDITS_EXCELLENCE = 21.0;
-    private static final double EXCELLENCE_GPA = 4.0;
+    // 요청 키별 처리 결과 (더블클릭/재전송 시 DB를 거치지 않고 처음 결과 반환)
+    // -Denrollment.idempotencyMaxEntries=10000, -Denrollment.idempotencyTtlMs=600000
+    private static final IdempotencyStore<EnrollmentResult> requestResults = new IdempotencyStore<>(
+            Integer.getInteger("enrollment.idempotencyMaxEntries", 10_000),
+            Long.getLong("enrollment.idempotencyTtlMs", 600_000L),
+            result -> !result.isRetryable());
+    private static final EnrollmentResult REQUEST_KEY_REUSED =
+            new EnrollmentResult(false, "이미 다른 요청에 사용된 요청 키입니다.");
 
     public EnrollmentService() {
         this.enrollmentDAO = new EnrollmentDAO();
+        this.timetableService = TimetableService.getInstance();
+        this.prerequisiteService = PrerequisiteService.getInstance();
         this.openCourseDAO = new OpenCourseDAO();
-        this.studentDAO = new StudentDAO();
     }
 
     /**
      * 수강신청 처리 (검증 포함)
      */
     public EnrollmentResult enroll(String studentId, int openCourseId, String createdBy) {
+        return enroll(studentId, openCourseId, createdBy, false);
+    }
+
+    /**
+     * 수강신청 처리 (요청 키 지정)
+     * 같은 requestKey로 다시 호출하면 처음 결과를 그대로 돌려줌 (처리 중이면 끝날 때까지 기다림)
+     * 같은 키가 다른 학생/강좌로 들어오면 처리하지 않고 거절
+     */
+    public EnrollmentResult enrollOnce(String requestKey, String studentId, int openCourseId,
+                                       String createdBy, boolean joinWaitlist) {
+        return requestResults.execute(scopedKey("enroll", requestKey),
+                studentId + "#" + openCourseId + "#" + joinWaitlist,
+                () -> enroll(studentId, openCourseId, createdBy, joinWaitlist), REQUEST_KEY_REUSED);
+    }
+
+    /**
+     * 수강신청 처리 (검증 포함)
+     * joinWaitlist가 true면 정원이 찼을 때 거절하지 않고 대기자로 등록 (빈자리가 나면 자동 승격)
+     */
+    public EnrollmentResult enroll(String studentId, int openCourseId, String createdBy, boolean joinWaitlist) {
+        // 1~7. 검증에 필요한 값을 한 번에 조회 (학생, 강좌, 정원, 중복, 학기 학점)
+        EnrollmentDAO.ValidationSnapshot snapshot = enrollmentDAO.loadValidationSnapshot(studentId, openCourseId);
+        if (snapshot == null) {
+            return new EnrollmentResult(false, "수강신청 처리 중 오류가 발생했습니다.", true);
+        }
+
         // 1. 학생 존재 확인
-        Student student = studentDAO.selectById(studentId);
-        if (student == null) {
+        if (!snapshot.isStudentExists()) {
             return new EnrollmentResult(false, "존재하지 않는 학생입니다.");
         }
 
         // 2. 학적 상태 확인
-        if (!"ENROLLED".equals(student.getStatus())) {
+        if (!"ENROLLED".equals(snapshot.getStudentStatus())) {
+            Student student = new Student();
+            student.setStatus(snapshot.getStudentStatus());
             return new EnrollmentResult(false, "재학 중인 학생만 수강신청이 가능합니다. (현재: " +
                     student.getStatusKorean() + ")");
         }
 
         // 3. 개설강좌 존재 확인
-        OpenCourse openCourse = openCourseDAO.selectById(openCourseId);
-        if (openCourse == null) {
+        if (!snapshot.isCourseExists()) {
             return new EnrollmentResult(false, "존재하지 않는 개설강좌입니다.");
         }
 
         // 4. 폐강 여부 확인
-        if (openCourse.isCanceled()) {
+        if (snapshot.isCanceled()) {
             return new EnrollmentResult(false, "폐강된 강좌입니다.");
         }
 
-        // 5. 정원 확인
-        if (!openCourse.canEnroll()) {
-            return new EnrollmentResult(false, "수강 정원이 초과되었습니다. (정원: " +
-                    openCourse.getCapacity() + "명)");
+        // 5. 정원 확인 (대기 신청이면 아래 검증을 마친 뒤 대기자로 등록)
+        if (snapshot.isFull() && !joinWaitlist) {
+            return capacityExceeded(snapshot);
         }
 
         // 6. 중복 신청 확인
-        if (enrollmentDAO.isDuplicate(studentId, openCourseId)) {
+        if (snapshot.isDuplicate()) {
             return new EnrollmentResult(false, "이미 신청한 강좌입니다.");
         }
 
-        // 7. 최대 학점 확인
-        double currentCredits = enrollmentDAO.getTotalCredits(studentId,
-                openCourse.getYear(),
-                openCourse.getTerm());
-        double maxAllowed = MAX_CREDITS; // 기본값
+        // 6-1. 시간표 충돌 확인 (캐시된 비트마스크 비교)
+        if (timetableService.hasConflict(studentId, snapshot.getYear(), snapshot.getTerm(), openCourseId)) {
+            return new EnrollmentResult(false, "이미 신청한 강좌와 강의 시간이 겹칩니다.");
+        }
+
+        // 6-2. 선수과목 확인 (메모리 그래프 + 학생별 이수 과목 캐시)
+        List<Prerequisite> unmet = prerequisiteService.findUnmet(studentId, snapshot.getCourseCode(),
+                snapshot.getYear(), snapshot.getTerm(), snapshot.getTermCourseCodes());
+        if (!unmet.isEmpty()) {
+            List<String> codes = new ArrayList<>();
+            for (Prerequisite prerequisite : unmet) {
+                codes.add(prerequisite.getPrereqCourseCode());
+            }
+            return new EnrollmentResult(false, "선수과목을 먼저 이수해야 합니다. (미이수: " +
+                    String.join(", ", codes) + ")");
+        }
 
-        // TODO: 우수자 여부는 이전 학기 성적으로 판단 (현재는 기본값 사용)
+        // 7. 최대 학점 확인
+        double currentCredits = snapshot.getTermCredits();
+        // 직전 학기 평점이 우수자 기준 이상이면 확대 한도 (캐시된 term_gpa 스냅샷 조회, 집계 쿼리 없음)
+        double maxAllowed = TermGpaService.getInstance().getMaxCredits(studentId,
+                snapshot.getYear(), snapshot.getTerm());
 
-        if (currentCredits + openCourse.getCredit() > maxAllowed) {
-            return new EnrollmentResult(false,
-                    String.format("최대 신청 학점을 초과합니다. (현재: %.1f학점, 신청: %.1f학점, 최대: %.1f학점)",
-                            currentCredits, openCourse.getCredit(), maxAllowed));
+        if (currentCredits + snapshot.getCredit() > maxAllowed) {
+            return creditExceeded(currentCredits, snapshot.getCredit(), maxAllowed);
         }
 
-        // 8. 수강신청 등록
-        Enrollment enrollment = new Enrollment();
-        enrollment.setStudentId(studentId);
-        enrollment.setOpenCourseId(openCourseId);
-        enrollment.setRequestedAt(new Timestamp(System.currentTimeMillis()));
-        enrollment.setStatus("APPROVED"); // 즉시 승인
-        enrollment.setIsRetake("N");
-        enrollment.setCreatedBy(createdBy);
+        // 8. 정원이 찼으면 대기자 등록 (그 사이 자리가 났으면 그대로 신청 진행)
+        if (snapshot.isFull()) {
+            EnrollmentResult waitlisted = joinWaitlist(studentId, openCourseId);
+            if (waitlisted != null) {
+                return waitlisted;
+            }
+        }
 
-        boolean success = enrollmentDAO.insert(enrollment);
+        // 9. 수강신청 등록 (락을 잡고 서버에서 폐강/정원/학점을 다시 확인 → 검증과 등록 사이 경합 방지)
+        ApplyOutcome outcome = enrollmentDAO.insertValidated(studentId, openCourseId, createdBy, maxAllowed);
+        switch (outcome) {
+            case SUCCESS:
+                timetableService.recordEnrollment(studentId, snapshot.getYear(), snapshot.getTerm(), openCourseId);
+                return new EnrollmentResult(true, "수강신청이 완료되었습니다.");
+            case COURSE_CANCELED:
+                return new EnrollmentResult(false, "폐강된 강좌입니다.");
+            case COURSE_FULL:
+                if (joinWaitlist) {
+                    EnrollmentResult waitlisted = joinWaitlist(studentId, openCourseId);
+                    if (waitlisted != null) {
+                        return waitlisted;
+                    }
+                }
+                return capacityExceeded(snapshot);
+            case DUPLICATE:
+                return new EnrollmentResult(false, "이미 신청한 강좌입니다.");
+            case CREDIT_EXCEEDED:
+                return creditExceeded(currentCredits, snapshot.getCredit(), maxAllowed);
+            case STUDENT_NOT_FOUND:
+                return new EnrollmentResult(false, "존재하지 않는 학생입니다.");
+            case COURSE_NOT_FOUND:
+                return new EnrollmentResult(false, "존재하지 않는 개설강좌입니다.");
+            case BUSY:
+                return busy();
+            default:
+                return new EnrollmentResult(false, "수강신청 처리 중 오류가 발생했습니다.", true);
+        }
+    }
 
-        if (success) {
-            return new EnrollmentResult(true, "수강신청이 완료되었습니다.");
-        } else {
-            return new EnrollmentResult(false, "수강신청 처리 중 오류가 발생했습니다.");
+    // 대기자 등록 결과 (지금 자리가 있으면 null → 일반 신청으로 진행)
+    private EnrollmentResult joinWaitlist(String studentId, int openCourseId) {
+        int position = enrollmentDAO.joinWaitlist(studentId, openCourseId);
+        if (position > 0) {
+            return new EnrollmentResult(true, "정원이 초과되어 대기자로 등록되었습니다. (대기 순번: " +
+                    position + "번)");
+        }
+        if (position < 0) {
+            return new EnrollmentResult(false, "대기자 등록 중 오류가 발생했습니다.", true);
         }
+        return null;
+    }
+
+    static EnrollmentResult capacityExceeded(EnrollmentDAO.ValidationSnapshot snapshot) {
+        // 자리가 나면 결과가 달라지므로 재시도 가능으로 표시 (요청 키 저장소에 남기지 않음)
+        return new EnrollmentResult(false, "수강 정원이 초과되었습니다. (정원: " +
+                snapshot.getCapacity() + "명)", true, ApplyOutcome.COURSE_FULL);
+    }
+
+    // 락 대기 정책(NOWAIT/WAIT n) 한도 안에 자리를 못 잡음 → 잠시 후 다시 시도
+    static EnrollmentResult busy() {
+        return new EnrollmentResult(false, "신청이 몰려 처리하지 못했습니다. 잠시 후 다시 시도해 주세요.", true, ApplyOutcome.BUSY);
+    }
+
+    static EnrollmentResult creditExceeded(double currentCredits, double credit, double maxAllowed) {
+        return new EnrollmentResult(false,
+                String.format("최대 신청 학점을 초과합니다. (현재: %.1f학점, 신청: %.1f학점, 최대: %.1f학점)",
+                        currentCredits, credit, maxAllowed));
     }
 
     /**
@@ -118,10 +214,134 @@ public class EnrollmentService {
         boolean success = enrollmentDAO.delete(enrollmentId);
 
         if (success) {
+            timetableService.invalidateStudent(enrollment.getStudentId());
             return new EnrollmentResult(true, "수강신청이 취소되었습니다.");
         } else {
-            return new EnrollmentResult(false, "수강신청 취소 중 오류가 발생했습니다.");
+            return new EnrollmentResult(false, "수강신청 취소 중 오류가 발생했습니다.", true);
+        }
+    }
+
+    /**
+     * 강좌 교체 (신청한 강좌 A를 B로 바꿈)
+     * 취소 후 다시 신청하면 그 사이에 B 자리를 다른 학생이 가져갈 수 있으므로
+     * A 취소와 B 신청을 트랜잭션 1개로 처리 (성공하면 B, 실패하면 A 그대로)
+     */
+    public EnrollmentResult swapCourse(int fromEnrollmentId, int toOpenCourseId, String createdBy) {
+        // 1. 교체할 수강신청 확인
+        Enrollment from = enrollmentDAO.selectById(fromEnrollmentId);
+        if (from == null || !("APPLIED".equals(from.getStatus()) || "APPROVED".equals(from.getStatus()))) {
+            return new EnrollmentResult(false, "교체할 수강신청이 없습니다.");
+        }
+        if (from.getOpenCourseId() == toOpenCourseId) {
+            return new EnrollmentResult(false, "같은 강좌로는 교체할 수 없습니다.");
+        }
+        String studentId = from.getStudentId();
+
+        // 2. B 사전 검증 (학생, 강좌, 폐강, 정원, 중복)
+        EnrollmentDAO.ValidationSnapshot snapshot = enrollmentDAO.loadValidationSnapshot(studentId, toOpenCourseId);
+        if (snapshot == null) {
+            return new EnrollmentResult(false, "강좌 교체 중 오류가 발생했습니다.", true);
+        }
+        if (!snapshot.isStudentExists()) {
+            return new EnrollmentResult(false, "존재하지 않는 학생입니다.");
+        }
+        if (!"ENROLLED".equals(snapshot.getStudentStatus())) {
+            Student student = new Student();
+            student.setStatus(snapshot.getStudentStatus());
+            return new EnrollmentResult(false, "재학 중인 학생만 수강신청이 가능합니다. (현재: " +
+                    student.getStatusKorean() + ")");
+        }
+        if (!snapshot.isCourseExists()) {
+            return new EnrollmentResult(false, "존재하지 않는 개설강좌입니다.");
+        }
+        if (snapshot.isCanceled()) {
+            return new EnrollmentResult(false, "폐강된 강좌입니다.");
+        }
+        if (snapshot.isFull()) {
+            return capacityExceeded(snapshot);
+        }
+        if (snapshot.isDuplicate()) {
+            return new EnrollmentResult(false, "이미 신청한 강좌입니다.");
+        }
+
+        // 3. 시간표 (A가 빠진 시간표 기준)
+        if (timetableService.hasConflictExcluding(studentId, snapshot.getYear(), snapshot.getTerm(),
+                toOpenCourseId, from.getOpenCourseId())) {
+            return new EnrollmentResult(false, "이미 신청한 강좌와 강의 시간이 겹칩니다.");
+        }
+
+        // 4. 선수과목
+        List<Prerequisite> unmet = prerequisiteService.findUnmet(studentId, snapshot.getCourseCode(),
+                snapshot.getYear(), snapshot.getTerm(), snapshot.getTermCourseCodes());
+        if (!unmet.isEmpty()) {
+            List<String> codes = new ArrayList<>();
+            for (Prerequisite prerequisite : unmet) {
+                codes.add(prerequisite.getPrereqCourseCode());
+            }
+            return new EnrollmentResult(false, "선수과목을 먼저 이수해야 합니다. (미이수: " +
+                    String.join(", ", codes) + ")");
+        }
+
+        // 5. 교체 (락을 잡고 A 상태, B 폐강/정원/학점을 다시 확인 → A 삭제 + B 등록 + A 대기자 승격)
+        double maxAllowed = TermGpaService.getInstance().getMaxCredits(studentId,
+                snapshot.getYear(), snapshot.getTerm());
+        ApplyOutcome outcome = enrollmentDAO.swapCourse(fromEnrollmentId, studentId, from.getOpenCourseId(),
+                toOpenCourseId, createdBy, maxAllowed);
+        switch (outcome) {
+            case SUCCESS:
+                timetableService.invalidateStudent(studentId);
+                return new EnrollmentResult(true, "강좌가 교체되었습니다.");
+            case ENROLLMENT_NOT_FOUND:
+                return new EnrollmentResult(false, "교체할 수강신청이 없습니다.");
+            case COURSE_CANCELED:
+                return new EnrollmentResult(false, "폐강된 강좌입니다.");
+            case COURSE_FULL:
+                return capacityExceeded(snapshot);
+            case DUPLICATE:
+                return new EnrollmentResult(false, "이미 신청한 강좌입니다.");
+            case CREDIT_EXCEEDED:
+                return new EnrollmentResult(false,
+                        String.format("최대 신청 학점을 초과합니다. (최대: %.1f학점)", maxAllowed));
+            case STUDENT_NOT_FOUND:
+                return new EnrollmentResult(false, "존재하지 않는 학생입니다.");
+            case COURSE_NOT_FOUND:
+                return new EnrollmentResult(false, "존재하지 않는 개설강좌입니다.");
+            case BUSY:
+                return busy();
+            default:
+                return new EnrollmentResult(false, "강좌 교체 중 오류가 발생했습니다.", true);
+        }
+    }
+
+    /**
+     * 강좌 폐강 (수강신청 일괄 취소)
+     */
+    public EnrollmentResult cancelCourse(int openCourseId) {
+        List<String> students = openCourseDAO.cancelWithEnrollments(openCourseId);
+        if (students == null) {
+            return new EnrollmentResult(false, "폐강 처리 중 오류가 발생했습니다.", true);
+        }
+        for (String studentId : students) {
+            timetableService.invalidateStudent(studentId);
         }
+        return new EnrollmentResult(true, "강좌가 폐강되었습니다. (수강신청 " + students.size() + "건 취소)");
+    }
+
+    /**
+     * 수강신청 취소 (요청 키 지정, 같은 키가 다른 수강신청으로 들어오면 거절)
+     */
+    public EnrollmentResult cancelEnrollmentOnce(String requestKey, int enrollmentId) {
+        return requestResults.execute(scopedKey("cancel", requestKey), enrollmentId,
+                () -> cancelEnrollment(enrollmentId), REQUEST_KEY_REUSED);
+    }
+
+    // 신청/취소 키가 서로 겹치지 않게 작업 이름을 붙임
+    private static String scopedKey(String operation, String requestKey) {
+        return requestKey != null ? operation + ":" + requestKey : null;
+    }
+
+    public static String getIdempotencyStats() {
+        return requestResults.getStats();
     }
 
     /**
@@ -131,22 +351,45 @@ public class EnrollmentService {
         boolean success = enrollmentDAO.updateStatus(enrollmentId, newStatus);
 
         if (success) {
+            Enrollment enrollment = enrollmentDAO.selectById(enrollmentId);
+            if (enrollment != null) {
+                timetableService.invalidateStudent(enrollment.getStudentId());
+            }
             return new EnrollmentResult(true, "수강신청 상태가 변경되었습니다.");
         } else {
-            return new EnrollmentResult(false, "상태 변경 중 오류가 발생했습니다.");
+            return new EnrollmentResult(false, "상태 변경 중 오류가 발생했습니다.", true);
         }
     }
 
+    /**
+     * 대기 순번 조회 (대기 중이 아니면 0)
+     */
+    public int getWaitlistPosition(int enrollmentId) {
+        return enrollmentDAO.getWaitlistPosition(enrollmentId);
+    }
+
     /**
      * 수강신청 결과를 담는 내부 클래스
      */
     public static class EnrollmentResult {
         private boolean success;
         private String message;
+        private boolean retryable; // 일시적인 실패 (다시 시도하면 결과가 달라질 수 있음)
+        private ApplyOutcome outcome; // 실패 사유 구분 (화면 분기용, 없으면 null)
 
         public EnrollmentResult(boolean success, String message) {
+            this(success, message, false);
+        }
+
+        public EnrollmentResult(boolean success, String message, boolean retryable) {
+            this(success, message, retryable, null);
+        }
+
+        public EnrollmentResult(boolean success, String message, boolean retryable, ApplyOutcome outcome) {
             this.success = success;
             this.message = message;
+            this.retryable = retryable;
+            this.outcome = outcome;
         }
 
         public boolean isSuccess() {
@@ -156,5 +399,13 @@ public class EnrollmentService {
         public String getMessage() {
             return message;
         }
+
+        public boolean isRetryable() {
+            return retryable;
+        }
+
+        public ApplyOutcome getOutcome() {
+            return outcome;
+        }
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package university.service;
 
 import university.dao.GradeDAO;
+import university.dao.SystemParameters;
 import university.model.Grade;
 
 /**
@@ -135,6 +136,10 @@ public class GradeService {
         boolean success = gradeDAO.confirmGrade(gradeId, professorId);
 
         if (success) {
+            // 이수 과목이 바뀌었으므로 선수과목 검사용 캐시 갱신
+            PrerequisiteService.getInstance().invalidateStudent(grade.getStudentId());
+            // 학기 평점 스냅샷 갱신 (다음 학기 우수자 판정용)
+            TermGpaService.getInstance().onGradeConfirmed(gradeId);
             return new GradeResult(true, "성적이 확정되었습니다.");
         } else {
             return new GradeResult(false, "성적 확정 중 오류가 발생했습니다.");
@@ -148,6 +153,20 @@ public class GradeService {
         return gradeDAO.calculateGPA(studentId);
     }
 
+    /**
+     * 재수강 허용 여부 (평점이 retake_grade_threshold 이하)
+     */
+    public boolean isRetakeAllowed(Double gradePoint) {
+        return gradePoint != null && gradePoint <= SystemParameters.current().getRetakeGradeThreshold();
+    }
+
+    /**
+     * 졸업 평점 충족 여부 (min_graduation_gpa 이상)
+     */
+    public boolean meetsGraduationGpa(String studentId) {
+        return calculateStudentGPA(studentId) >= SystemParameters.current().getMinGraduationGpa();
+    }
+
     /**
      * 성적 계산 결과를 담는 내부 클래스
      */
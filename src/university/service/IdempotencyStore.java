@@ -0,0 +1,154 @@
+package university.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 요청 키 기반 중복 실행 방지 저장소 (메모리)
+ * - 같은 키로 다시 들어온 요청은 처음 결과를 그대로 돌려줌 (DB 왕복/락 없음)
+ * - 처음 요청이 아직 처리 중이면 그 결과를 기다렸다가 같이 받음 (동시 더블클릭)
+ * - 최대 개수를 넘으면 오래된 것부터 버리고, 보관 시간이 지난 키는 새 요청으로 취급
+ * - 일시적인 오류 결과는 저장하지 않아서 같은 키로 재시도할 수 있음
+ * - 키마다 요청 내용(payload)을 같이 저장하고, 같은 키가 다른 내용으로 들어오면 처음 결과 대신 거절 결과를 돌려줌
+ */
+public class IdempotencyStore<T> {
+
+    private final int maxEntries;
+    private final long ttlMs;
+    private final Predicate<T> cacheable;
+
+    // 삽입 순서 유지 → 가장 오래된 키부터 제거
+    private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>();
+
+    // 통계
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong mismatches = new AtomicLong(0);
+
+    public IdempotencyStore(int maxEntries, long ttlMs, Predicate<T> cacheable) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMs = ttlMs;
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * 키로 한 번만 실행 (키가 null이면 그냥 실행)
+     *
+     * @param payload  요청 내용 (같은 키의 재요청인지 확인용, equals로 비교)
+     * @param mismatch 같은 키가 다른 내용으로 들어왔을 때 돌려줄 결과 (실행하지 않음)
+     */
+    public T execute(String key, Object payload, Supplier<T> action, T mismatch) {
+        if (key == null) {
+            return action.get();
+        }
+
+        Entry<T> entry;
+        boolean owner = false;
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            entry = entries.get(key);
+            if (entry == null || now - entry.createdAt >= ttlMs) {
+                entry = new Entry<>(now, payload);
+                entries.remove(key); // 다시 넣어서 삽입 순서를 맨 뒤로
+                entries.put(key, entry);
+                owner = true;
+                evict(now);
+            }
+        }
+
+        if (!owner && !Objects.equals(entry.payload, payload)) {
+            mismatches.incrementAndGet();
+            System.err.println("요청 키 재사용 거절: " + key + " (처음 요청과 내용이 다름)");
+            return mismatch;
+        }
+
+        if (!owner) {
+            hits.incrementAndGet();
+            try {
+                return entry.future.join();
+            } catch (CompletionException e) {
+                // 처음 요청이 예외로 끝났으면 그 예외를 그대로 전달
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        misses.incrementAndGet();
+        try {
+            T result = action.get();
+            entry.future.complete(result);
+            if (!cacheable.test(result)) {
+                forget(key, entry);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            entry.future.completeExceptionally(e);
+            forget(key, entry);
+            throw e;
+        }
+    }
+
+    private void forget(String key, Entry<T> entry) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+    }
+
+    // entries 락을 잡은 상태에서 호출
+    private void evict(long now) {
+        Iterator<Map.Entry<String, Entry<T>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry<T>> eldest = it.next();
+            if (entries.size() > maxEntries || now - eldest.getValue().createdAt >= ttlMs) {
+                it.remove();
+            } else {
+                break;
+            }
+        }
+    }
+
+    // ===== 통계 조회 =====
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getMismatchCount() {
+        return mismatches.get();
+    }
+
+    public String getStats() {
+        return String.format("idempotency[size=%d/%d, ttlMs=%d, hits=%d, misses=%d, mismatches=%d]",
+                size(), maxEntries, ttlMs, getHitCount(), getMissCount(), getMismatchCount());
+    }
+
+    /**
+     * 키 1개의 요청 내용과 결과 (처리 중이면 아직 완료되지 않은 Future)
+     */
+    private static class Entry<T> {
+        private final long createdAt;
+        private final Object payload;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        Entry(long createdAt, Object payload) {
+            this.createdAt = createdAt;
+            this.payload = payload;
+        }
+    }
+}
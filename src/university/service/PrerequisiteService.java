@@ -0,0 +1,224 @@
+package university.service;
+
+import university.dao.PrerequisiteDAO;
+import university.model.Prerequisite;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 선수과목/동시수강 검사 서비스
+ * - 선수과목 관계(course_code → prereq_course_code)를 메모리 그래프로 들고 있음
+ *   학기가 바뀌거나 관계를 등록/삭제하면 다시 읽음
+ * - 학생별 이수 과목 집합을 캐시 (성적이 확정될 때만 바뀜)
+ * - 선수과목이 없는 강좌는 DB 조회 없이 통과, 있는 강좌도 캐시가 있으면 추가 왕복 없음
+ *
+ * 동시수강 허용(coreq_flag = 'Y') 관계는 이미 이수했거나 같은 학기에 함께 신청했으면 통과
+ */
+public class PrerequisiteService {
+
+    private static final PrerequisiteService INSTANCE = new PrerequisiteService();
+
+    private final PrerequisiteDAO prerequisiteDAO = new PrerequisiteDAO();
+
+    private volatile PrerequisiteGraph graph;
+    private volatile String graphTerm;
+    private final Map<String, Set<String>> passedCourses = new ConcurrentHashMap<>();
+
+    // 통계
+    private final AtomicLong graphLoads = new AtomicLong(0);
+    private final AtomicLong passedLoads = new AtomicLong(0);
+    private final AtomicLong rejected = new AtomicLong(0);
+
+    private PrerequisiteService() {
+    }
+
+    public static PrerequisiteService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 선수과목 검사
+     *
+     * @param termCourseCodes 학생이 같은 학기에 이미 신청한 과목 코드 (동시수강 판단용)
+     * @return 만족하지 못한 선수과목 목록 (비어 있으면 통과)
+     */
+    public List<Prerequisite> findUnmet(String studentId, String courseCode, int year, String term,
+                                        Set<String> termCourseCodes) {
+        List<Prerequisite> required = getGraph(year, term).get(courseCode);
+        if (required.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<String> passed = getPassedCourses(studentId);
+        if (passed == null) {
+            // 조회 실패 시 신청을 막지 않음
+            return Collections.emptyList();
+        }
+
+        List<Prerequisite> unmet = new ArrayList<>();
+        for (Prerequisite prerequisite : required) {
+            String prereq = prerequisite.getPrereqCourseCode();
+            boolean satisfied = passed.contains(prereq)
+                    || (prerequisite.isCorequisite() && termCourseCodes.contains(prereq));
+            if (!satisfied) {
+                unmet.add(prerequisite);
+            }
+        }
+        if (!unmet.isEmpty()) {
+            rejected.incrementAndGet();
+        }
+        return unmet;
+    }
+
+    /**
+     * 선수과목 관계 등록 (순환이 생기면 거절)
+     */
+    public boolean addPrerequisite(Prerequisite prerequisite) {
+        PrerequisiteGraph current = graph;
+        if (current != null && current.wouldCreateCycle(prerequisite.getCourseCode(), prerequisite.getPrereqCourseCode())) {
+            System.err.println("선수과목 등록 실패: 순환 관계 (" + prerequisite + ")");
+            return false;
+        }
+        boolean success = prerequisiteDAO.insert(prerequisite);
+        if (success) {
+            refresh();
+        }
+        return success;
+    }
+
+    /**
+     * 선수과목 관계 삭제
+     */
+    public boolean removePrerequisite(String courseCode, String prereqCourseCode) {
+        boolean success = prerequisiteDAO.delete(courseCode, prereqCourseCode);
+        if (success) {
+            refresh();
+        }
+        return success;
+    }
+
+    /**
+     * 그래프를 버리고 다음 검사 때 다시 읽음
+     */
+    public void refresh() {
+        graph = null;
+    }
+
+    /**
+     * 학생 이수 과목 캐시 제거 (성적 확정 시)
+     */
+    public void invalidateStudent(String studentId) {
+        if (studentId != null) {
+            passedCourses.remove(studentId);
+        }
+    }
+
+    private PrerequisiteGraph getGraph(int year, String term) {
+        String termKey = year + "#" + term;
+        PrerequisiteGraph current = graph;
+        if (current != null && termKey.equals(graphTerm)) {
+            return current;
+        }
+        synchronized (this) {
+            if (graph == null || !termKey.equals(graphTerm)) {
+                List<Prerequisite> edges = prerequisiteDAO.selectAll();
+                if (edges == null) {
+                    // 조회 실패: 예전 그래프가 있으면 계속 쓰고, 없으면 빈 그래프 (다음 요청 때 다시 시도)
+                    return graph != null ? graph : new PrerequisiteGraph(Collections.emptyList());
+                }
+                graphLoads.incrementAndGet();
+                if (!termKey.equals(graphTerm)) {
+                    passedCourses.clear(); // 학기가 바뀌면 이수 과목도 바뀌었을 수 있음
+                }
+                graph = new PrerequisiteGraph(edges);
+                graphTerm = termKey;
+            }
+            return graph;
+        }
+    }
+
+    private Set<String> getPassedCourses(String studentId) {
+        Set<String> cached = passedCourses.get(studentId);
+        if (cached != null) {
+            return cached;
+        }
+        Set<String> loaded = prerequisiteDAO.selectPassedCourseCodes(studentId);
+        if (loaded == null) {
+            return null;
+        }
+        passedLoads.incrementAndGet();
+        Set<String> passed = Collections.unmodifiableSet(loaded);
+        passedCourses.put(studentId, passed);
+        return passed;
+    }
+
+    // ===== 통계 조회 =====
+
+    public long getGraphLoadCount() {
+        return graphLoads.get();
+    }
+
+    public long getPassedLoadCount() {
+        return passedLoads.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public String getStats() {
+        PrerequisiteGraph current = graph;
+        return String.format("prereq[term=%s, edges=%d, graphLoads=%d, passedLoads=%d, students=%d, rejected=%d]",
+                graphTerm, current != null ? current.edgeCount : 0, getGraphLoadCount(),
+                getPassedLoadCount(), passedCourses.size(), getRejectedCount());
+    }
+
+    /**
+     * 선수과목 그래프 (과목 → 선수과목 목록), 읽기 전용
+     */
+    private static class PrerequisiteGraph {
+        private final Map<String, List<Prerequisite>> edges = new HashMap<>();
+        private final int edgeCount;
+
+        PrerequisiteGraph(List<Prerequisite> prerequisites) {
+            for (Prerequisite prerequisite : prerequisites) {
+                edges.computeIfAbsent(prerequisite.getCourseCode(), k -> new ArrayList<>()).add(prerequisite);
+            }
+            this.edgeCount = prerequisites.size();
+        }
+
+        List<Prerequisite> get(String courseCode) {
+            List<Prerequisite> list = edges.get(courseCode);
+            return list != null ? list : Collections.emptyList();
+        }
+
+        // course ← prereq 를 추가했을 때 prereq에서 선수과목을 따라가다 course에 닿으면 순환
+        boolean wouldCreateCycle(String courseCode, String prereqCourseCode) {
+            Deque<String> stack = new ArrayDeque<>();
+            Set<String> visited = new HashSet<>();
+            stack.push(prereqCourseCode);
+            while (!stack.isEmpty()) {
+                String current = stack.pop();
+                if (current.equals(courseCode)) {
+                    return true;
+                }
+                if (visited.add(current)) {
+                    for (Prerequisite next : get(current)) {
+                        stack.push(next.getPrereqCourseCode());
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
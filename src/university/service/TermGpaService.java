@@ -0,0 +1,116 @@
+package university.service;
+
+import university.dao.GradeDAO;
+import university.dao.SystemParameters;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 학기 평점 조회 서비스 (우수자 학점 한도 판정용)
+ * - term_gpa 스냅샷을 학기 단위로 한 번 읽어서 학번 → 평점 맵으로 들고 있음
+ * - 수강신청 시 직전 학기 평점 조회는 맵 조회 1번 (집계 쿼리 없음)
+ * - 성적이 확정되면 그 학생의 학기 평점만 다시 계산해서 DB와 맵을 같이 갱신
+ */
+public class TermGpaService {
+
+    private static final TermGpaService INSTANCE = new TermGpaService();
+
+    private final GradeDAO gradeDAO = new GradeDAO();
+    // "연도#학기" → (학번 → 평점)
+    private final Map<String, Map<String, Double>> termGpas = new ConcurrentHashMap<>();
+
+    private TermGpaService() {
+    }
+
+    public static TermGpaService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 수강신청 학기 기준 최대 신청 학점
+     * 직전 학기 평점이 excellence_gpa 이상이면 우수자 한도, 아니면 기본 한도
+     */
+    public double getMaxCredits(String studentId, int year, String term) {
+        SystemParameters.Snapshot params = SystemParameters.current();
+        Double previousGpa = getPreviousTermGpa(studentId, year, term);
+        if (previousGpa != null && previousGpa >= params.getExcellenceGpa()) {
+            return params.getMaxCreditsExcellence();
+        }
+        return params.getMaxCreditsPerSemester();
+    }
+
+    /**
+     * 직전 학기 평점 (기록이 없으면 null)
+     */
+    public Double getPreviousTermGpa(String studentId, int year, String term) {
+        int previousYear = year;
+        String previousTerm;
+        switch (term) {
+            case "1학기":
+                previousYear = year - 1;
+                previousTerm = "2학기";
+                break;
+            case "여름학기":
+            case "2학기":
+                previousTerm = "1학기";
+                break;
+            case "겨울학기":
+                previousTerm = "2학기";
+                break;
+            default:
+                return null;
+        }
+        return getTermGpas(previousYear, previousTerm).get(studentId);
+    }
+
+    /**
+     * 성적 확정 반영 (해당 학생/학기 평점 재계산)
+     */
+    public void onGradeConfirmed(int gradeId) {
+        GradeDAO.TermGpa updated = gradeDAO.refreshTermGpa(gradeId);
+        if (updated == null) {
+            return;
+        }
+        Map<String, Double> gpas = termGpas.get(key(updated.getYear(), updated.getTerm()));
+        if (gpas != null) {
+            gpas.put(updated.getStudentId(), updated.getGpa());
+        }
+    }
+
+    /**
+     * 학기 전체 재계산 후 캐시 교체
+     */
+    public boolean rebuild(int year, String term) {
+        boolean success = gradeDAO.rebuildTermGpa(year, term);
+        if (success) {
+            termGpas.remove(key(year, term));
+        }
+        return success;
+    }
+
+    private Map<String, Double> getTermGpas(int year, String term) {
+        String key = key(year, term);
+        Map<String, Double> cached = termGpas.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        synchronized (this) {
+            cached = termGpas.get(key);
+            if (cached == null) {
+                Map<String, Double> loaded = gradeDAO.selectTermGpas(year, term);
+                if (loaded == null) {
+                    // 조회 실패 시 캐시하지 않고 기본 한도로 처리
+                    return new ConcurrentHashMap<>();
+                }
+                cached = new ConcurrentHashMap<>(loaded);
+                termGpas.put(key, cached);
+            }
+            return cached;
+        }
+    }
+
+    private static String key(int year, String term) {
+        return year + "#" + term;
+    }
+}
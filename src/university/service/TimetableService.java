@@ -0,0 +1,166 @@
+package university.service;
+
+import university.dao.EnrollmentDAO;
+import university.dao.LectureScheduleDAO;
+import university.model.LectureSchedule;
+import university.model.TimetableMask;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간표 충돌 검사 서비스
+ * - 강좌별 시간표를 비트마스크로 캐시 (시간표는 학기 중 거의 바뀌지 않음)
+ * - 학생별 학기 시간표(신청한 강좌들의 합)도 비트마스크로 캐시
+ * - 충돌 검사 = 캐시된 마스크끼리 AND (요청마다 조인 쿼리 없음)
+ *
+ * 학생 마스크는 신청 성공 시 바로 합치고, 취소/상태 변경/대기자 승격 시 지워서 다음 검사 때 다시 읽음
+ * 다른 경로(DAO 직접 호출 등)로 바뀐 신청을 놓치지 않도록 일정 시간이 지나면 다시 읽음
+ * (-Denrollment.timetableCacheMs, 기본 60초)
+ */
+public class TimetableService {
+
+    private static final TimetableService INSTANCE = new TimetableService();
+
+    private static final long STUDENT_CACHE_MS = Long.getLong("enrollment.timetableCacheMs", 60_000L);
+
+    private final LectureScheduleDAO scheduleDAO = new LectureScheduleDAO();
+    private final Map<Integer, TimetableMask> courseMasks = new ConcurrentHashMap<>();
+    private final Map<String, StudentMask> studentMasks = new ConcurrentHashMap<>();
+
+    // 통계
+    private final AtomicLong checks = new AtomicLong(0);
+    private final AtomicLong conflicts = new AtomicLong(0);
+    private final AtomicLong studentLoads = new AtomicLong(0);
+
+    private TimetableService() {
+        // 대기자가 승격되면 그 학생의 시간표가 바뀜
+        EnrollmentDAO.addWaitlistListener((enrollmentId, studentId, openCourseId) -> invalidateStudent(studentId));
+    }
+
+    public static TimetableService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 신청하려는 강좌가 학생의 해당 학기 시간표와 겹치는지 확인
+     * 시간표 조회에 실패하면 신청을 막지 않음 (false)
+     */
+    public boolean hasConflict(String studentId, int year, String term, int openCourseId) {
+        checks.incrementAndGet();
+        TimetableMask course = getCourseMask(openCourseId);
+        if (course.isEmpty()) {
+            return false;
+        }
+        TimetableMask occupied = getStudentMask(studentId, year, term);
+        if (occupied == null || !occupied.intersects(course)) {
+            return false;
+        }
+        conflicts.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 강좌 교체 시 충돌 확인 (빠질 강좌의 시간은 빼고 비교)
+     */
+    public boolean hasConflictExcluding(String studentId, int year, String term, int openCourseId,
+                                        int excludedOpenCourseId) {
+        checks.incrementAndGet();
+        TimetableMask course = getCourseMask(openCourseId);
+        if (course.isEmpty()) {
+            return false;
+        }
+        TimetableMask occupied = getStudentMask(studentId, year, term);
+        if (occupied == null || !occupied.without(getCourseMask(excludedOpenCourseId)).intersects(course)) {
+            return false;
+        }
+        conflicts.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * 신청 성공 반영 (다시 조회하지 않고 마스크만 합침)
+     */
+    public void recordEnrollment(String studentId, int year, String term, int openCourseId) {
+        TimetableMask course = getCourseMask(openCourseId);
+        studentMasks.computeIfPresent(key(studentId, year, term),
+                (k, current) -> new StudentMask(current.mask.union(course), current.loadedAt));
+    }
+
+    /**
+     * 학생 시간표 캐시 제거 (취소, 상태 변경, 대기자 승격)
+     */
+    public void invalidateStudent(String studentId) {
+        String prefix = studentId + "#";
+        studentMasks.keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+    /**
+     * 강좌 시간표 캐시 제거 (시간표 수정 시)
+     * 그 강좌를 포함한 학생 마스크도 모두 틀릴 수 있으므로 같이 비움
+     */
+    public void invalidateCourse(int openCourseId) {
+        courseMasks.remove(openCourseId);
+        studentMasks.clear();
+    }
+
+    public TimetableMask getCourseMask(int openCourseId) {
+        return courseMasks.computeIfAbsent(openCourseId,
+                id -> TimetableMask.of(scheduleDAO.selectByOpenCourse(id)));
+    }
+
+    private TimetableMask getStudentMask(String studentId, int year, String term) {
+        String key = key(studentId, year, term);
+        StudentMask cached = studentMasks.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < STUDENT_CACHE_MS) {
+            return cached.mask;
+        }
+
+        List<LectureSchedule> schedules = scheduleDAO.selectByStudentTerm(studentId, year, term);
+        if (schedules == null) {
+            return null;
+        }
+        studentLoads.incrementAndGet();
+        TimetableMask mask = TimetableMask.of(schedules);
+        studentMasks.put(key, new StudentMask(mask, System.currentTimeMillis()));
+        return mask;
+    }
+
+    private static String key(String studentId, int year, String term) {
+        return studentId + "#" + year + "#" + term;
+    }
+
+    // ===== 통계 조회 =====
+
+    public long getCheckCount() {
+        return checks.get();
+    }
+
+    public long getConflictCount() {
+        return conflicts.get();
+    }
+
+    public long getStudentLoadCount() {
+        return studentLoads.get();
+    }
+
+    public String getStats() {
+        return String.format("timetable[checks=%d, conflicts=%d, studentLoads=%d, courses=%d, students=%d]",
+                getCheckCount(), getConflictCount(), getStudentLoadCount(), courseMasks.size(), studentMasks.size());
+    }
+
+    /**
+     * 학생 1명의 학기 시간표 마스크 + 읽은 시각
+     */
+    private static class StudentMask {
+        private final TimetableMask mask;
+        private final long loadedAt;
+
+        StudentMask(TimetableMask mask, long loadedAt) {
+            this.mask = mask;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package university.view;
 
+import university.dao.ApplyOutcome;
 import university.dao.EnrollmentDAO;
 import university.dao.OpenCourseDAO;
 import university.model.Enrollment;
 import university.model.OpenCourse;
+import university.service.EnrollmentAsyncService;
 import university.service.EnrollmentService;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * 수강신청 패널 (수정 완료: ClassCastException 해결 + UI 개선)
@@ -18,7 +23,7 @@ public class EnrollmentPanel extends JPanel {
 
     private OpenCourseDAO openCourseDAO;
     private EnrollmentDAO enrollmentDAO;
-    private EnrollmentService enrollmentService;
+    private EnrollmentAsyncService enrollmentService;
 
     // 개설강좌 테이블
     private JTable courseTable;
@@ -37,10 +42,14 @@ public class EnrollmentPanel extends JPanel {
     // 총 학점 라벨을 멤버 변수로 선언 (안전성 향상)
     private JLabel lblTotalCredits;
 
+    // 처리 중인 신청/취소 작업 → 요청 키 (EDT에서만 사용)
+    // 결과가 오기 전에 같은 작업을 다시 확인하면 같은 키로 보내서 DB에는 한 번만 감
+    private final Map<String, String> requestKeys = new HashMap<>();
+
     public EnrollmentPanel() {
         this.openCourseDAO = new OpenCourseDAO();
         this.enrollmentDAO = new EnrollmentDAO();
-        this.enrollmentService = new EnrollmentService();
+        this.enrollmentService = EnrollmentAsyncService.getInstance();
 
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -344,20 +353,53 @@ public class EnrollmentPanel extends JPanel {
                 "수강신청 확인", JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            EnrollmentService.EnrollmentResult result =
-                    enrollmentService.enroll(studentId, openCourseId, studentId);
+            // DB 처리는 작업 스레드에서, 결과 표시는 EDT에서 (처리 중에도 화면이 멈추지 않음)
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            String action = "enroll:" + studentId + ":" + openCourseId;
+            enrollmentService.enrollOnce(requestKey(action), studentId, openCourseId, studentId, false)
+                    .thenAccept(result -> SwingUtilities.invokeLater(() -> {
+                        requestKeys.remove(action);
+                        setCursor(Cursor.getDefaultCursor());
+
+                        // 정원 초과면 재시도 대신 대기자 등록을 권함 (빈자리가 나면 자동 승격)
+                        if (!result.isSuccess() && result.getOutcome() == ApplyOutcome.COURSE_FULL) {
+                            int waitConfirm = JOptionPane.showConfirmDialog(this,
+                                    result.getMessage() + "\n대기자로 등록하시겠습니까?",
+                                    "대기 신청", JOptionPane.YES_NO_OPTION);
+                            if (waitConfirm == JOptionPane.YES_OPTION) {
+                                setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+                                String waitAction = "waitlist:" + studentId + ":" + openCourseId;
+                                enrollmentService.enrollOnce(requestKey(waitAction), studentId, openCourseId,
+                                                studentId, true)
+                                        .thenAccept(waitResult -> SwingUtilities.invokeLater(() -> {
+                                            requestKeys.remove(waitAction);
+                                            setCursor(Cursor.getDefaultCursor());
+                                            showEnrollResult(waitResult);
+                                        }));
+                                return;
+                            }
+                        }
+                        showEnrollResult(result);
+                    }));
+        }
+    }
 
-            if (result.isSuccess()) {
-                JOptionPane.showMessageDialog(this,
-                        result.getMessage(),
-                        "성공", JOptionPane.INFORMATION_MESSAGE);
-                loadOpenCourses(false);
-                loadMyEnrollments();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        result.getMessage(),
-                        "수강신청 실패", JOptionPane.ERROR_MESSAGE);
-            }
+    // 확인한 작업마다 요청 키 1개 (같은 작업이 아직 처리 중이면 그 키를 다시 씀)
+    private String requestKey(String action) {
+        return requestKeys.computeIfAbsent(action, k -> UUID.randomUUID().toString());
+    }
+
+    private void showEnrollResult(EnrollmentService.EnrollmentResult result) {
+        if (result.isSuccess()) {
+            JOptionPane.showMessageDialog(this,
+                    result.getMessage(),
+                    "성공", JOptionPane.INFORMATION_MESSAGE);
+            loadOpenCourses(false);
+            loadMyEnrollments();
+        } else {
+            JOptionPane.showMessageDialog(this,
+                    result.getMessage(),
+                    "수강신청 실패", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -381,20 +423,24 @@ public class EnrollmentPanel extends JPanel {
                 "수강취소 확인", JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            EnrollmentService.EnrollmentResult result =
-                    enrollmentService.cancelEnrollment(enrollmentId);
-
-            if (result.isSuccess()) {
-                JOptionPane.showMessageDialog(this,
-                        result.getMessage(),
-                        "성공", JOptionPane.INFORMATION_MESSAGE);
-                loadOpenCourses(false);
-                loadMyEnrollments();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        result.getMessage(),
-                        "취소 실패", JOptionPane.ERROR_MESSAGE);
-            }
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            String action = "cancel:" + enrollmentId;
+            enrollmentService.cancelEnrollmentOnce(requestKey(action), enrollmentId)
+                    .thenAccept(result -> SwingUtilities.invokeLater(() -> {
+                        requestKeys.remove(action);
+                        setCursor(Cursor.getDefaultCursor());
+                        if (result.isSuccess()) {
+                            JOptionPane.showMessageDialog(this,
+                                    result.getMessage(),
+                                    "성공", JOptionPane.INFORMATION_MESSAGE);
+                            loadOpenCourses(false);
+                            loadMyEnrollments();
+                        } else {
+                            JOptionPane.showMessageDialog(this,
+                                    result.getMessage(),
+                                    "취소 실패", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }));
         }
     }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import university.dao.ProfessorDAO;
 import university.model.Course;
 import university.model.OpenCourse;
 import university.model.Professor;
+import university.service.EnrollmentService;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -20,6 +21,7 @@ public class OpenCoursePanel extends JPanel {
     private OpenCourseDAO openCourseDAO;
     private CourseDAO courseDAO;
     private ProfessorDAO professorDAO;
+    private EnrollmentService enrollmentService;
 
     private JTable table;
     private DefaultTableModel tableModel;
@@ -35,6 +37,7 @@ public class OpenCoursePanel extends JPanel {
         this.openCourseDAO = new OpenCourseDAO();
         this.courseDAO = new CourseDAO();
         this.professorDAO = new ProfessorDAO();
+        this.enrollmentService = new EnrollmentService();
 
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -352,8 +355,9 @@ public class OpenCoursePanel extends JPanel {
         int confirm = JOptionPane.showConfirmDialog(this, "정말 폐강하시겠습니까?", "확인", JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            if (openCourseDAO.cancel(openCourseId)) {
-                JOptionPane.showMessageDialog(this, "강좌가 폐강되었습니다.");
+            EnrollmentService.EnrollmentResult result = enrollmentService.cancelCourse(openCourseId);
+            JOptionPane.showMessageDialog(this, result.getMessage());
+            if (result.isSuccess()) {
                 loadData();
             }
         }